@@ -0,0 +1,142 @@
+package rei_da_quadra_be.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import rei_da_quadra_be.utils.GeoUtils;
+
+import java.sql.*;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da busca de /eventos/proximos com 1 milhão de eventos: query antiga (acos duas vezes,
+ * sem índice espacial) contra o retângulo indexado com a distância calculada uma vez.
+ *
+ * Precisa de um PostgreSQL; usa uma tabela própria (evento_benchmark) com as colunas da busca
+ * e o mesmo índice da entidade Evento. Por padrão conecta no banco do application.properties,
+ * ou no informado por JMH_DB_URL / JMH_DB_USUARIO / JMH_DB_SENHA:
+ *   mvn -Pjmh -DskipTests verify -Djmh.includes=EventosProximos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventosProximosBenchmark {
+
+  private static final int TOTAL_EVENTOS = 1_000_000;
+  private static final double RAIO_KM = 300.0;
+
+  // ponto de busca: Goiânia
+  private static final double LAT = -16.6869;
+  private static final double LON = -49.2648;
+
+  private static final String QUERY_ANTIGA =
+    "SELECT e.* FROM evento_benchmark e " +
+    "WHERE e.data_evento BETWEEN ? AND ? AND e.status = 0 " +
+    "AND (6371 * acos(cos(radians(?)) * cos(radians(e.latitude)) * cos(radians(e.longitude) - radians(?)) " +
+    "+ sin(radians(?)) * sin(radians(e.latitude)))) <= ? " +
+    "ORDER BY e.data_evento ASC, " +
+    "(6371 * acos(cos(radians(?)) * cos(radians(e.latitude)) * cos(radians(e.longitude) - radians(?)) " +
+    "+ sin(radians(?)) * sin(radians(e.latitude)))) ASC LIMIT 20";
+
+  private static final String QUERY_NOVA =
+    "SELECT e.* FROM evento_benchmark e " +
+    "CROSS JOIN LATERAL (SELECT 6371 * acos(LEAST(1.0, GREATEST(-1.0, " +
+    "cos(radians(?)) * cos(radians(e.latitude)) * cos(radians(e.longitude) - radians(?)) " +
+    "+ sin(radians(?)) * sin(radians(e.latitude))))) AS distancia) d " +
+    "WHERE e.status = 0 AND e.data_evento BETWEEN ? AND ? " +
+    "AND e.latitude BETWEEN ? AND ? AND e.longitude BETWEEN ? AND ? " +
+    "AND d.distancia <= ? " +
+    "ORDER BY e.data_evento ASC, d.distancia ASC LIMIT 20";
+
+  private Connection conexao;
+  private PreparedStatement antiga;
+  private PreparedStatement nova;
+
+  @Setup
+  public void setup() throws SQLException {
+    conexao = DriverManager.getConnection(
+      env("JMH_DB_URL", "jdbc:postgresql://localhost:5432/rei_da_quadra"),
+      env("JMH_DB_USUARIO", "postgres"),
+      env("JMH_DB_SENHA", "12345"));
+    popular();
+
+    OffsetDateTime agora = OffsetDateTime.now();
+    OffsetDateTime fim = agora.plusDays(100);
+    GeoUtils.CaixaDelimitadora caixa = GeoUtils.caixaDelimitadora(LAT, LON, RAIO_KM);
+
+    antiga = conexao.prepareStatement(QUERY_ANTIGA);
+    antiga.setObject(1, agora);
+    antiga.setObject(2, fim);
+    antiga.setDouble(3, LAT);
+    antiga.setDouble(4, LON);
+    antiga.setDouble(5, LAT);
+    antiga.setDouble(6, RAIO_KM);
+    antiga.setDouble(7, LAT);
+    antiga.setDouble(8, LON);
+    antiga.setDouble(9, LAT);
+
+    nova = conexao.prepareStatement(QUERY_NOVA);
+    nova.setDouble(1, LAT);
+    nova.setDouble(2, LON);
+    nova.setDouble(3, LAT);
+    nova.setObject(4, agora);
+    nova.setObject(5, fim);
+    nova.setDouble(6, caixa.latMin());
+    nova.setDouble(7, caixa.latMax());
+    nova.setDouble(8, caixa.lonMin());
+    nova.setDouble(9, caixa.lonMax());
+    nova.setDouble(10, RAIO_KM);
+  }
+
+  private static String env(String nome, String padrao) {
+    String valor = System.getenv(nome);
+    return valor == null || valor.isBlank() ? padrao : valor;
+  }
+
+  // eventos espalhados pelo território brasileiro, datas no próximo ano, 10% finalizados
+  private void popular() throws SQLException {
+    try (Statement st = conexao.createStatement()) {
+      st.execute("DROP TABLE IF EXISTS evento_benchmark");
+      st.execute("CREATE TABLE evento_benchmark (" +
+        "evento_id BIGINT PRIMARY KEY, nome VARCHAR(150), status SMALLINT NOT NULL, " +
+        "data_evento TIMESTAMPTZ, latitude DOUBLE PRECISION, longitude DOUBLE PRECISION)");
+      st.execute("INSERT INTO evento_benchmark " +
+        "SELECT g, 'Evento ' || g, CASE WHEN g % 10 = 0 THEN 1 ELSE 0 END, " +
+        "now() + (random() * 365) * interval '1 day', " +
+        "-33.7 + random() * 39, -73.9 + random() * 39.1 " +
+        "FROM generate_series(1, " + TOTAL_EVENTOS + ") g");
+      st.execute("CREATE INDEX idx_evento_benchmark_status_data_lat_lon " +
+        "ON evento_benchmark (status, data_evento, latitude, longitude)");
+      st.execute("ANALYZE evento_benchmark");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Statement st = conexao.createStatement()) {
+      st.execute("DROP TABLE IF EXISTS evento_benchmark");
+    }
+    conexao.close();
+  }
+
+  @Benchmark
+  public void queryAntiga(Blackhole bh) throws SQLException {
+    consumir(antiga, bh);
+  }
+
+  @Benchmark
+  public void caixaDelimitadoraIndexada(Blackhole bh) throws SQLException {
+    consumir(nova, bh);
+  }
+
+  private void consumir(PreparedStatement ps, Blackhole bh) throws SQLException {
+    try (ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        bh.consume(rs.getLong(1));
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package rei_da_quadra_be.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import rei_da_quadra_be.model.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a validação do JWT como era feita antes (Algorithm e JWTVerifier recriados a cada chamada),
+ * com o verificador reutilizado e com o cache de tokens já verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+  private static final String SECRET = "my_secret_key";
+
+  private TokenService tokenService;
+  //o mesmo verificador que o TokenService cria uma vez no construtor, sem o cache de tokens na frente
+  private JWTVerifier verificador;
+  private String token;
+
+  @Setup
+  public void setup() {
+    tokenService = new TokenService(SECRET, 10_000, new SimpleMeterRegistry());
+    verificador = JWT.require(Algorithm.HMAC256(SECRET))
+      .withIssuer("login_jwt")
+      .build();
+
+    User user = new User();
+    user.setId(1L);
+    user.setEmail("jogador@teste.com");
+    token = tokenService.generateToken(user);
+
+    //aquece o cache para o caminho com acerto
+    tokenService.validateToken(token);
+  }
+
+  @Benchmark
+  public String validarRecriandoVerificador() {
+    return JWT.require(Algorithm.HMAC256(SECRET))
+      .withIssuer("login_jwt")
+      .build()
+      .verify(token)
+      .getSubject();
+  }
+
+  @Benchmark
+  public String validarComVerificadorReutilizado() {
+    return verificador.verify(token).getSubject();
+  }
+
+  @Benchmark
+  public String validarComCache() {
+    return tokenService.validateToken(token);
+  }
+}
@@ -0,0 +1,70 @@
+package rei_da_quadra_be.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monta 10 mil e-mails de confirmação (sem enviar): formato antigo, com String.formatted
+ * e MimeMessage multipart, contra os templates pré-compilados do EmailService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(EmailTemplateBenchmark.QUANTIDADE)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+  static final int QUANTIDADE = 10_000;
+
+  private static final String REMETENTE = "contato@reidaquadra.com";
+
+  private JavaMailSenderImpl mailSender;
+  private EmailService emailService;
+  private String formatoAntigo;
+
+  @Setup
+  public void setup() throws Exception {
+    mailSender = new JavaMailSenderImpl();
+    emailService = new EmailService(mailSender, REMETENTE);
+
+    // mesmo HTML, no formato que o String.formatted usava
+    try (var in = getClass().getClassLoader().getResourceAsStream("templates/email/confirmacao-cadastro.html")) {
+      formatoAntigo = new String(in.readAllBytes(), StandardCharsets.UTF_8)
+        .replace("%", "%%")
+        .replace("{{logoUrl}}", "%s")
+        .replace("{{nome}}", "%s")
+        .replace("{{link}}", "%s");
+    }
+  }
+
+  @Benchmark
+  public void formatadoAcadaEmail(Blackhole bh) throws Exception {
+    for (int i = 0; i < QUANTIDADE; i++) {
+      String corpo = formatoAntigo.formatted(
+        "https://i.imgur.com/xX9K3yG.png", "Jogador " + i, "http://localhost:4200/confirm-email?token=" + i);
+
+      MimeMessage message = mailSender.createMimeMessage();
+      MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+      helper.setFrom(REMETENTE, "Rei da Quadra Club");
+      helper.setTo("jogador" + i + "@teste.com");
+      helper.setSubject("Confirme seu cadastro - Rei da Quadra Club");
+      helper.setText(corpo, true);
+      bh.consume(message);
+    }
+  }
+
+  @Benchmark
+  public void templatePreCompilado(Blackhole bh) throws Exception {
+    for (int i = 0; i < QUANTIDADE; i++) {
+      bh.consume(emailService.montarEmailConfirmacao("jogador" + i + "@teste.com", "Jogador " + i, String.valueOf(i)));
+    }
+  }
+}
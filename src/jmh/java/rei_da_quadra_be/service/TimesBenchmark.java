@@ -0,0 +1,136 @@
+package rei_da_quadra_be.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import rei_da_quadra_be.service.balanceamento.BalanceadorBuscaLocal;
+import rei_da_quadra_be.service.balanceamento.DistribuicaoSerpentina;
+import rei_da_quadra_be.service.rodizio.EstrategiaRodizio;
+import rei_da_quadra_be.service.rodizio.FilaRodizio;
+import rei_da_quadra_be.service.rodizio.RodizioPorTickets;
+import rei_da_quadra_be.service.rodizio.TimeRodizio;
+import rei_da_quadra_be.utils.EloCalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Algoritmos de times do AdmTimesService, sem JPA, sobre um evento sintético em memória:
+ * distribuição inicial (serpentina e busca local), rodízio após a partida (FilaRodizio, como o
+ * MotorRodizio), escolha do desafiante
+ * e atualização de Elo de uma rodada com todos os times em campo.
+ *
+ * Executar: mvn -Pjmh -DskipTests verify -Djmh.includes=TimesBenchmark
+ * (o profile já roda com -prof gc, que mostra a taxa de alocação junto do ops/s)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimesBenchmark {
+
+  private static final int JOGADORES_POR_TIME = 5;
+
+  @Param({"20", "200", "5000"})
+  public int jogadores;
+
+  private int[] pontos;
+  private boolean[] craque;
+  private int numTimes;
+  private int[] timeDe;
+
+  private FilaRodizio fila;
+  private List<TimeRodizio> timesAtivos;
+
+  private ForkJoinPool pool;
+  private BalanceadorBuscaLocal buscaLocal;
+  private final EstrategiaRodizio rodizio = new RodizioPorTickets();
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    pontos = new int[jogadores];
+    craque = new boolean[jogadores];
+    int[] partidas = new int[jogadores];
+    for (int i = 0; i < jogadores; i++) {
+      pontos[i] = 600 + random.nextInt(2000);
+      craque[i] = pontos[i] > 2400 || random.nextInt(10) == 0;
+      partidas[i] = random.nextInt(6);
+    }
+
+    //~10% dos inscritos ficam no time de espera
+    numTimes = jogadores * 9 / 10 / JOGADORES_POR_TIME;
+    timeDe = DistribuicaoSerpentina.distribuir(pontos, craque, numTimes, JOGADORES_POR_TIME).timeDe();
+
+    fila = new FilaRodizio();
+    int[] partidasPorTime = new int[numTimes];
+    for (int i = 0; i < jogadores; i++) {
+      boolean espera = timeDe[i] == DistribuicaoSerpentina.ESPERA;
+      fila.adicionar(i, i, timeDe[i], espera, partidas[i], pontos[i]);
+      if (!espera) {
+        partidasPorTime[timeDe[i]] += partidas[i];
+      }
+    }
+    timesAtivos = new ArrayList<>(numTimes);
+    for (int t = 0; t < numTimes; t++) {
+      timesAtivos.add(new TimeRodizio(t, partidasPorTime[t]));
+    }
+
+    pool = new ForkJoinPool(4);
+    buscaLocal = new BalanceadorBuscaLocal(pool, 4, 100, 20_000, 42L);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public int[] distribuirSerpentina() {
+    return DistribuicaoSerpentina.distribuir(pontos, craque, numTimes, JOGADORES_POR_TIME).timeDe();
+  }
+
+  @Benchmark
+  public int[] distribuirBuscaLocal() {
+    return buscaLocal.distribuir(pontos, craque, numTimes, JOGADORES_POR_TIME);
+  }
+
+  //planeja e aplica a troca do time 1, como o MotorRodizio após a partida; as filas seguem entre as chamadas
+  @Benchmark
+  public FilaRodizio.Troca rodizioDeJogadores() {
+    FilaRodizio.Troca troca = fila.planejarTroca(1, JOGADORES_POR_TIME);
+    fila.aplicarTroca(troca, 1);
+    return troca;
+  }
+
+  @Benchmark
+  public long escolherDesafiante() {
+    return rodizio.escolherDesafiante(timesAtivos, 0L, 1L);
+  }
+
+  //times 2k x 2k+1: médias dos dois lados e a variação de cada jogador, como em atualizarPontuacaoElo
+  @Benchmark
+  public void eloDaRodada(Blackhole bh) {
+    long[] soma = new long[numTimes];
+    int[] tamanho = new int[numTimes];
+    for (int i = 0; i < jogadores; i++) {
+      if (timeDe[i] != DistribuicaoSerpentina.ESPERA) {
+        soma[timeDe[i]] += pontos[i];
+        tamanho[timeDe[i]]++;
+      }
+    }
+    for (int i = 0; i < jogadores; i++) {
+      int t = timeDe[i];
+      if (t == DistribuicaoSerpentina.ESPERA || (t ^ 1) >= numTimes) {
+        continue;
+      }
+      int adversario = t ^ 1;
+      double media = (double) soma[adversario] / tamanho[adversario];
+      bh.consume(EloCalculator.calcularVariacao(pontos[i], media, (t & 1) == 0 ? 1.0 : 0.0));
+    }
+  }
+}
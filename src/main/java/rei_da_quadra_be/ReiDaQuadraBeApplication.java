@@ -3,10 +3,12 @@ package rei_da_quadra_be;
 import jakarta.annotation.PostConstruct;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.TimeZone;
 
 @SpringBootApplication
+@EnableScheduling
 public class ReiDaQuadraBeApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,35 @@
+package rei_da_quadra_be.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rei_da_quadra_be.service.balanceamento.BalanceadorBuscaLocal;
+import rei_da_quadra_be.service.balanceamento.BalanceadorSerpentina;
+import rei_da_quadra_be.service.balanceamento.BalanceadorTimes;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class BalanceamentoConfig {
+
+  // pool próprio: a busca ocupa os workers pelo orçamento inteiro e não deve disputar o commonPool
+  @Bean(destroyMethod = "shutdown")
+  public ForkJoinPool balanceamentoPool(@Value("${times.balanceamento.workers:4}") int workers) {
+    return new ForkJoinPool(Math.max(1, workers));
+  }
+
+  @Bean
+  public BalanceadorTimes balanceadorTimes(
+    @Value("${times.balanceamento.estrategia:busca-local}") String estrategia,
+    @Value("${times.balanceamento.workers:4}") int workers,
+    @Value("${times.balanceamento.orcamento-ms:100}") long orcamentoMs,
+    @Value("${times.balanceamento.max-iteracoes:200000}") int maxIteracoes,
+    @Value("${times.balanceamento.semente:#{null}}") Long semente,
+    ForkJoinPool balanceamentoPool) {
+    return switch (estrategia) {
+      case "serpentina" -> new BalanceadorSerpentina();
+      case "busca-local" -> new BalanceadorBuscaLocal(balanceamentoPool, workers, orcamentoMs, maxIteracoes, semente);
+      default -> throw new IllegalStateException("Estratégia de balanceamento desconhecida: " + estrategia);
+    };
+  }
+}
@@ -10,17 +10,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import rei_da_quadra_be.dto.JogadorResumoDTO;
 import rei_da_quadra_be.dto.PontuacaoManualDTO;
+import rei_da_quadra_be.dto.PreviewTimesDTO;
 import rei_da_quadra_be.dto.TimeComJogadoresDTO;
-import rei_da_quadra_be.model.Inscricao;
 import rei_da_quadra_be.model.Partida;
 import rei_da_quadra_be.model.Time;
 import rei_da_quadra_be.repository.InscricaoRepository;
+import rei_da_quadra_be.repository.JogadorNoTime;
 import rei_da_quadra_be.repository.PartidaRepository;
+import rei_da_quadra_be.repository.ResumoTime;
 import rei_da_quadra_be.repository.TimeRepository;
 import rei_da_quadra_be.service.AdmTimesService;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/times")
@@ -44,10 +48,48 @@ public class AdmTimesController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(summary = "Prévia da distribuição: times propostos e métricas de equilíbrio, sem gravar nada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Proposta calculada (ou reaproveitada do cache)"),
+            @ApiResponse(responseCode = "400", description = "Número insuficiente de inscritos")
+    })
+    @GetMapping("/evento/{eventoId}/preview")
+    public ResponseEntity<PreviewTimesDTO> previewTimes(@PathVariable Long eventoId) {
+        return ResponseEntity.ok(admTimesService.previewTimes(eventoId));
+    }
+
+    @Operation(summary = "Cria os times exatamente como na prévia informada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Times criados conforme a prévia"),
+            @ApiResponse(responseCode = "409", description = "Prévia expirada, já confirmada ou inscrições alteradas desde então")
+    })
+    @PostMapping("/evento/{eventoId}/confirmar")
+    public ResponseEntity<Void> confirmarTimes(@PathVariable Long eventoId, @RequestParam String proposta) {
+        admTimesService.confirmarTimes(eventoId, proposta);
+        return ResponseEntity.ok().build();
+    }
+
     @Operation(summary = "Retorna a estrutura completa de times e seus jogadores atuais")
     @GetMapping("/evento/{eventoId}/detalhado")
     public ResponseEntity<List<TimeComJogadoresDTO>> listarTimesDetalhados(@PathVariable Long eventoId) {
         List<Time> times = timeRepository.findByEventoId(eventoId);
+
+        // Totais e jogadores de todos os times em dois selects, em vez de um por time
+        Map<Long, ResumoTime> resumos = new HashMap<>();
+        for (ResumoTime resumo : inscricaoRepository.resumirPorTime(eventoId)) {
+            resumos.put(resumo.timeId(), resumo);
+        }
+        Map<Long, List<JogadorResumoDTO>> jogadoresPorTime = new HashMap<>();
+        for (JogadorNoTime jogador : inscricaoRepository.listarJogadoresNosTimes(eventoId)) {
+            JogadorResumoDTO j = new JogadorResumoDTO();
+            j.setId(jogador.jogadorId());
+            j.setNome(jogador.nome());
+            j.setPontosHabilidade(jogador.pontosHabilidade());
+            j.setNivelHabilidade(jogador.nivelHabilidade());
+            j.setPartidasJogadas(jogador.partidasJogadas());
+            jogadoresPorTime.computeIfAbsent(jogador.timeId(), id -> new ArrayList<>()).add(j);
+        }
+
         List<TimeComJogadoresDTO> response = new ArrayList<>();
 
         for (Time time : times) {
@@ -57,18 +99,12 @@ public class AdmTimesController {
             dto.setStatus(time.getStatus());
             dto.setIsTimeDeEspera(time.getTimeDeEspera());
 
-            List<Inscricao> inscricoesDoTime = inscricaoRepository.findByTimeAtualAndEvento(time, time.getEvento());
-            List<JogadorResumoDTO> jogadoresDto = inscricoesDoTime.stream().map(i -> {
-                JogadorResumoDTO j = new JogadorResumoDTO();
-                j.setId(i.getJogador().getId());
-                j.setNome(i.getJogador().getNome());
-                j.setPontosHabilidade(i.getJogador().getPontosHabilidade());
-                j.setNivelHabilidade(i.getJogador().getNivelHabilidade());
-                j.setPartidasJogadas(i.getPartidasJogadas());
-                return j;
-            }).toList();
-
-            dto.setJogadores(jogadoresDto);
+            ResumoTime resumo = resumos.get(time.getId());
+            dto.setTotalPartidasJogadas(resumo != null ? resumo.partidasJogadas() : 0L);
+            dto.setQuantidadeJogadores(resumo != null ? resumo.jogadores() : 0L);
+            dto.setMediaElo(resumo != null ? resumo.mediaPontos() : null);
+
+            dto.setJogadores(jogadoresPorTime.getOrDefault(time.getId(), List.of()));
             response.add(dto);
         }
 
@@ -5,12 +5,10 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import jakarta.mail.MessagingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import rei_da_quadra_be.dto.AuthenticationDTO;
 import rei_da_quadra_be.dto.LoginResponseDTO;
@@ -24,8 +22,8 @@ import rei_da_quadra_be.repository.ConfirmationTokenRepository;
 import rei_da_quadra_be.repository.InscricaoRepository;
 import rei_da_quadra_be.repository.PartidaRepository;
 import rei_da_quadra_be.security.TokenService;
+import rei_da_quadra_be.security.UsuarioLogado;
 import rei_da_quadra_be.service.UserService;
-import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -65,13 +63,9 @@ public class AuthenticationController {
                     .body("Já existe um cadastro com esse email.");
         }
 
-        try {
-            userService.registrarUsuario(user);
-            return ResponseEntity.ok("Cadastro realizado com sucesso!");
-
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            return ResponseEntity.internalServerError().body("Erro ao enviar email: " + e.getMessage());
-        }
+        // o email de confirmação é enviado em segundo plano (outbox)
+        userService.registrarUsuario(user);
+        return ResponseEntity.ok("Cadastro realizado com sucesso!");
     }
 
 
@@ -134,14 +128,9 @@ public class AuthenticationController {
     public ResponseEntity<String> recuperarSenha(@RequestBody Map<String, String> payload) {
         String email = payload.get("email");
 
-        try {
-            userService.solicitarRecuperacaoSenha(email);
-            // Retornamos OK mesmo se o email não existir (para evitar enumeração de usuários)
-            return ResponseEntity.ok("Se o email estiver cadastrado, as instruções foram enviadas.");
-
-        } catch (MessagingException | UnsupportedEncodingException e) {
-            return ResponseEntity.internalServerError().body("Erro ao enviar email: " + e.getMessage());
-        }
+        userService.solicitarRecuperacaoSenha(email);
+        // Retornamos OK mesmo se o email não existir (para evitar enumeração de usuários)
+        return ResponseEntity.ok("Se o email estiver cadastrado, as instruções foram enviadas.");
     }
 
     @PostMapping("/reset-password")
@@ -182,8 +171,7 @@ public class AuthenticationController {
                     )
             }
     )
-    public ResponseEntity<UserProfileDTO> getProfile(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<UserProfileDTO> getProfile(@UsuarioLogado User user) {
 
         UserProfileDTO profile = new UserProfileDTO();
         profile.setId(user.getId());
@@ -205,8 +193,7 @@ public class AuthenticationController {
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<UserProfileDTO> updateProfile(@RequestBody UserUpdateDTO data, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<UserProfileDTO> updateProfile(@RequestBody UserUpdateDTO data, @UsuarioLogado User user) {
 
         // Verifica confirmação de senha se houver troca de senha
         if (data.getSenha() != null && !data.getSenha().isBlank()) {
@@ -230,8 +217,7 @@ public class AuthenticationController {
     }
 
     @DeleteMapping("/profile")
-    public ResponseEntity<Void> deleteAccount(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+    public ResponseEntity<Void> deleteAccount(@UsuarioLogado User user) {
 
         // "Soft Delete" e anonimização
         userService.deletarConta(user);
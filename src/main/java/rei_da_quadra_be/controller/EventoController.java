@@ -10,13 +10,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import rei_da_quadra_be.dto.EventoRequestDTO;
 import rei_da_quadra_be.dto.EventoResponseDTO;
 import rei_da_quadra_be.model.Evento;
 import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.security.UsuarioLogado;
 import rei_da_quadra_be.service.EventoService;
+import rei_da_quadra_be.service.exception.CampoInvalidoException;
 
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @SecurityRequirement(name = "bearer-key")
 public class EventoController {
+  public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
   private final EventoService eventoService;
 
   @PostMapping
@@ -38,7 +41,7 @@ public class EventoController {
   })
   public ResponseEntity<EventoResponseDTO> criarEvento(
     @RequestBody EventoRequestDTO eventoRequest,
-    @AuthenticationPrincipal User usuario
+    @UsuarioLogado User usuario
   ) {
     Evento evento = eventoRequest.toEvento();
     Evento eventoSalvo = eventoService.salvarEvento(evento, usuario);
@@ -57,7 +60,7 @@ public class EventoController {
     })
   })
   public ResponseEntity<List<EventoResponseDTO>> listarEventos(
-    @AuthenticationPrincipal User usuario
+    @UsuarioLogado User usuario
   ) {
     List<Evento> eventos = eventoService.listarEventosDoUsuario(usuario);
     List<EventoResponseDTO> eventosDTO = eventos.stream()
@@ -75,7 +78,7 @@ public class EventoController {
   })
   public ResponseEntity<EventoResponseDTO> buscarEvento(
     @PathVariable Long id,
-    @AuthenticationPrincipal User usuario
+    @UsuarioLogado User usuario
   ) {
     return eventoService.buscarEventoPorId(id)
       .map(evento -> {
@@ -92,19 +95,22 @@ public class EventoController {
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Evento atualizado com sucesso",
       content = @Content(mediaType = "application/json", schema = @Schema(implementation = EventoResponseDTO.class))),
+    @ApiResponse(responseCode = "400", description = "Campo inexistente, não alterável ou com valor inválido", content = @Content),
     @ApiResponse(responseCode = "404", description = "Evento não encontrado", content = @Content),
     @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content)
   })
   public ResponseEntity<EventoResponseDTO> atualizarEventoParcial(
     @PathVariable Long id,
     @RequestBody Map<String, Object> fields,
-    @AuthenticationPrincipal User usuario
+    @UsuarioLogado User usuario
   ) {
     try {
       Evento eventoAtualizado = eventoService.atualizaEventoParcial(id, fields, usuario);
       return ResponseEntity.ok(EventoResponseDTO.fromEvento(eventoAtualizado));
     } catch (SecurityException e) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    } catch (CampoInvalidoException e) {
+      throw e; //400 com a lista de campos, pelo ControllerExceptionHandler
     } catch (RuntimeException e) {
       return ResponseEntity.notFound().build();
     }
@@ -119,7 +125,7 @@ public class EventoController {
   })
   public ResponseEntity<Void> deletarEvento(
     @PathVariable Long id,
-    @AuthenticationPrincipal User usuario
+    @UsuarioLogado User usuario
   ) {
     try {
       eventoService.deletarEvento(id, usuario);
@@ -131,17 +137,23 @@ public class EventoController {
     }
   }
     @GetMapping("/proximos")
-    @Operation(summary = "Lista eventos próximos baseados na localização e data")
+    @Operation(summary = "Lista eventos próximos baseados na localização e data",
+            description = "Paginado por cursor: quando há mais eventos, o header X-Proximo-Cursor traz o valor " +
+                    "a enviar no parâmetro cursor para obter a página seguinte")
     public ResponseEntity<List<EventoResponseDTO>> listarEventosProximos(
             @RequestParam("lat") Double latitude,
             @RequestParam("lon") Double longitude,
             @RequestParam(value = "limit", defaultValue = "20") int limit,
-            @AuthenticationPrincipal User usuario
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @UsuarioLogado User usuario
     ) {
-        // Passa o limite para o service
-        List<Evento> eventos = eventoService.buscarEventosProximos(latitude, longitude, limit);
+        if (limit < 1) {
+            throw new CampoInvalidoException("limit deve ser maior que zero");
+        }
+        // Passa o limite e o cursor da página anterior para o service
+        EventoService.PaginaEventos pagina = eventoService.buscarEventosProximos(latitude, longitude, limit, cursor);
 
-        List<EventoResponseDTO> dtos = eventos.stream().map(evento -> {
+        List<EventoResponseDTO> dtos = pagina.eventos().stream().map(evento -> {
             EventoResponseDTO dto = EventoResponseDTO.fromEvento(evento);
 
             // Define se o usuário logado é o organizador para controle do botão no Frontend
@@ -151,7 +163,12 @@ public class EventoController {
             return dto;
         }).collect(Collectors.toList());
 
-        return ResponseEntity.ok(dtos);
+        // cursor da próxima página vai no header para não mudar o formato do corpo; ausente na última página
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (pagina.proximoCursor() != null) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(dtos);
     }
 }
 
@@ -11,13 +11,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import rei_da_quadra_be.dto.InscricaoRequestDTO;
 import rei_da_quadra_be.dto.InscricaoResponseDTO;
 import rei_da_quadra_be.model.User;
-import rei_da_quadra_be.service.AuthorizationService;
+import rei_da_quadra_be.security.UsuarioLogado;
 import rei_da_quadra_be.service.InscricaoService;
 
 import java.util.List;
@@ -30,7 +28,6 @@ import java.util.Map;
 public class InscricaoController {
     
     private final InscricaoService inscricaoService;
-    private final AuthorizationService authorizationService;
 
     @GetMapping
     @Operation(summary = "Lista todas as inscrições de um evento")
@@ -46,7 +43,7 @@ public class InscricaoController {
     })
     public ResponseEntity<List<InscricaoResponseDTO>> listarInscricoes(
         @PathVariable Long eventoId,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         List<InscricaoResponseDTO> inscricoes = inscricaoService.listarInscricoes(eventoId, user);
         return ResponseEntity.ok(inscricoes);
@@ -64,7 +61,7 @@ public class InscricaoController {
     public ResponseEntity<InscricaoResponseDTO> adicionarInscricao(
         @PathVariable Long eventoId,
         @RequestBody @Valid InscricaoRequestDTO request,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         InscricaoResponseDTO inscricao = inscricaoService.adicionarInscricao(eventoId, request, user);
         return ResponseEntity.status(HttpStatus.CREATED).body(inscricao);
@@ -80,7 +77,7 @@ public class InscricaoController {
     public ResponseEntity<Void> removerInscricao(
         @PathVariable Long eventoId,
         @PathVariable Long inscricaoId,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         inscricaoService.removerInscricao(eventoId, inscricaoId, user);
         return ResponseEntity.noContent().build();
@@ -97,7 +94,7 @@ public class InscricaoController {
     public ResponseEntity<InscricaoResponseDTO> buscarInscricao(
         @PathVariable Long eventoId,
         @PathVariable Long inscricaoId,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         InscricaoResponseDTO inscricao = inscricaoService.buscarInscricao(eventoId, inscricaoId, user);
         return ResponseEntity.ok(inscricao);
@@ -108,9 +105,8 @@ public class InscricaoController {
     public ResponseEntity<Map<String, String>> deletarInscricao(
       @PathVariable Long eventoId,
       @RequestParam("i") Long inscricaoId,
-      @AuthenticationPrincipal UserDetails userDetails
+      @UsuarioLogado User user
       ) {
-      User user = (User) this.authorizationService.loadUserByUsername(userDetails.getUsername());
       System.out.println("REQ CHEGOU");
       this.inscricaoService.removerInscricao(eventoId, inscricaoId, user);
       return ResponseEntity.ok().body(Map.of("message", "Inscrição deletada"));
@@ -130,7 +126,7 @@ public class InscricaoController {
     })
     public ResponseEntity<List<InscricaoResponseDTO>> listarSolicitacoesPendentes(
         @PathVariable Long eventoId,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         List<InscricaoResponseDTO> solicitacoes = inscricaoService.listarSolicitacoesPendentes(eventoId, user);
         return ResponseEntity.ok(solicitacoes);
@@ -148,7 +144,7 @@ public class InscricaoController {
     public ResponseEntity<InscricaoResponseDTO> aprovarSolicitacao(
         @PathVariable Long eventoId,
         @PathVariable Long inscricaoId,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         InscricaoResponseDTO inscricao = inscricaoService.aprovarSolicitacao(eventoId, inscricaoId, user);
         return ResponseEntity.ok(inscricao);
@@ -165,7 +161,7 @@ public class InscricaoController {
     public ResponseEntity<Void> rejeitarSolicitacao(
         @PathVariable Long eventoId,
         @PathVariable Long inscricaoId,
-        @AuthenticationPrincipal User user
+        @UsuarioLogado User user
     ) {
         inscricaoService.rejeitarSolicitacao(eventoId, inscricaoId, user);
         return ResponseEntity.noContent().build();
@@ -12,11 +12,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import rei_da_quadra_be.dto.AcaoJogoDTO;
+import rei_da_quadra_be.dto.AcoesLoteResponseDTO;
 import rei_da_quadra_be.dto.PartidaCreateDTO;
 import rei_da_quadra_be.dto.PartidaResponseDTO;
+import rei_da_quadra_be.dto.ResultadoAcaoLoteDTO;
 import rei_da_quadra_be.model.Partida;
+import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.security.UsuarioLogado;
+import rei_da_quadra_be.service.ComandosIdempotentes;
+import rei_da_quadra_be.service.ExecutorComandosEvento;
 import rei_da_quadra_be.service.PartidaService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -26,6 +33,10 @@ import java.util.List;
 public class PartidaController {
 
   private final PartidaService partidaService;
+  // comandos que alteram partidas rodam um de cada vez por evento; a transação de cada um fecha antes da vez do próximo
+  private final ExecutorComandosEvento comandosEvento;
+  // ações e finalização aceitam Idempotency-Key: a repetição devolve a resposta original sem executar de novo
+  private final ComandosIdempotentes comandosIdempotentes;
 
   @Operation(summary = "Lista todas as partidas de um evento")
   @GetMapping(value = "/eventos/{eventoId}/partidas", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -38,29 +49,57 @@ public class PartidaController {
   @Operation(summary = "Cria uma nova partida manualmente")
   @PostMapping(value = "/eventos/{eventoId}/partidas", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<PartidaResponseDTO> criarPartida(@PathVariable Long eventoId, @RequestBody @Valid PartidaCreateDTO dto) {
-    Partida partida = partidaService.criarPartida(eventoId, dto.getTimeAId(), dto.getTimeBId());
+    Partida partida = comandosEvento.executar(eventoId,
+      () -> partidaService.criarPartida(eventoId, dto.getTimeAId(), dto.getTimeBId()));
     return ResponseEntity.status(HttpStatus.CREATED).body(toResponseDTO(partida));
   }
 
   @Operation(summary = "Inicia uma partida")
   @PostMapping(value = "/partidas/{id}/iniciar", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<PartidaResponseDTO> iniciarPartida(@PathVariable Long id) {
-    Partida partida = partidaService.iniciarPartida(id);
+    Partida partida = comandosEvento.executar(partidaService.buscarEventoId(id), () -> partidaService.iniciarPartida(id));
     return ResponseEntity.ok(toResponseDTO(partida));
   }
 
   @Operation(summary = "Registra uma ação (Gol, Assistência, Defesa)")
   @PostMapping(value = "/partidas/{id}/acoes")
-  public ResponseEntity<Void> registrarAcao(@PathVariable Long id, @RequestBody @Valid AcaoJogoDTO dto) {
-    partidaService.registrarAcao(id, dto.getJogadorId(), dto.getTipoAcao());
-    return ResponseEntity.ok().build();
+  public ResponseEntity<Void> registrarAcao(@PathVariable Long id, @RequestBody @Valid AcaoJogoDTO dto,
+                                            @RequestHeader(value = ComandosIdempotentes.CABECALHO, required = false) String chave,
+                                            @UsuarioLogado User usuario) {
+    return comandosIdempotentes.executar(usuario.getId(), chave, "POST /api/partidas/" + id + "/acoes", Void.class,
+      () -> partidaService.buscarEventoId(id),
+      () -> {
+        partidaService.registrarAcao(id, dto.getJogadorId(), dto.getTipoAcao());
+        return ResponseEntity.ok().build();
+      });
+  }
+
+  @Operation(summary = "Registra em lote as ações enfileiradas pelo mesário, numa transação",
+    description = "As ações são aplicadas na ordem enviada. Cada ação inválida é recusada com o motivo, sem impedir as demais.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada ação"),
+    @ApiResponse(responseCode = "400", description = "Partida fora de andamento ou lote grande demais", content = @Content)
+  })
+  @PostMapping(value = "/partidas/{id}/acoes/lote", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<AcoesLoteResponseDTO> registrarAcoes(@PathVariable Long id, @RequestBody List<AcaoJogoDTO> acoes,
+                                                             @RequestHeader(value = ComandosIdempotentes.CABECALHO, required = false) String chave,
+                                                             @UsuarioLogado User usuario) {
+    return comandosIdempotentes.executar(usuario.getId(), chave, "POST /api/partidas/" + id + "/acoes/lote", AcoesLoteResponseDTO.class,
+      () -> partidaService.buscarEventoId(id),
+      () -> ResponseEntity.ok(toLoteResponseDTO(partidaService.registrarAcoes(id, acoes))));
   }
 
   @Operation(summary = "Remove uma ação registrada (desconta gol/assistência/defesa)")
   @PostMapping(value = "/partidas/{id}/acoes/remover", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<Void> removerAcao(@PathVariable Long id, @RequestBody @Valid AcaoJogoDTO dto) {
-    partidaService.removerAcao(id, dto.getJogadorId(), dto.getTipoAcao());
-    return ResponseEntity.ok().build();
+  public ResponseEntity<Void> removerAcao(@PathVariable Long id, @RequestBody @Valid AcaoJogoDTO dto,
+                                          @RequestHeader(value = ComandosIdempotentes.CABECALHO, required = false) String chave,
+                                          @UsuarioLogado User usuario) {
+    return comandosIdempotentes.executar(usuario.getId(), chave, "POST /api/partidas/" + id + "/acoes/remover", Void.class,
+      () -> partidaService.buscarEventoId(id),
+      () -> {
+        partidaService.removerAcao(id, dto.getJogadorId(), dto.getTipoAcao());
+        return ResponseEntity.ok().build();
+      });
   }
 
   @Operation(summary = "Finaliza a partida e executa o rodízio de times")
@@ -69,9 +108,32 @@ public class PartidaController {
     @ApiResponse(responseCode = "400", description = "Partida já finalizada ou inválida", content = @Content)
   })
   @PostMapping(value = "/partidas/{id}/finalizar", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<PartidaResponseDTO> finalizarPartida(@PathVariable Long id) {
-    Partida partida = partidaService.finalizarPartida(id);
-    return ResponseEntity.ok(toResponseDTO(partida));
+  public ResponseEntity<PartidaResponseDTO> finalizarPartida(@PathVariable Long id,
+                                                             @RequestHeader(value = ComandosIdempotentes.CABECALHO, required = false) String chave,
+                                                             @UsuarioLogado User usuario) {
+    return comandosIdempotentes.executar(usuario.getId(), chave, "POST /api/partidas/" + id + "/finalizar", PartidaResponseDTO.class,
+      () -> partidaService.buscarEventoId(id),
+      () -> ResponseEntity.ok(toResponseDTO(partidaService.finalizarPartida(id))));
+  }
+
+  private AcoesLoteResponseDTO toLoteResponseDTO(PartidaService.ResultadoLote resultado) {
+    List<ResultadoAcaoLoteDTO> resultados = new ArrayList<>(resultado.recusas().size());
+    int recusadas = 0;
+    for (int i = 0; i < resultado.recusas().size(); i++) {
+      ResultadoAcaoLoteDTO item = new ResultadoAcaoLoteDTO();
+      item.setIndice(i);
+      item.setMotivo(resultado.recusas().get(i));
+      item.setRegistrada(item.getMotivo() == null);
+      if (item.getMotivo() != null) recusadas++;
+      resultados.add(item);
+    }
+
+    AcoesLoteResponseDTO dto = new AcoesLoteResponseDTO();
+    dto.setPartida(toResponseDTO(resultado.partida()));
+    dto.setRegistradas(resultados.size() - recusadas);
+    dto.setRecusadas(recusadas);
+    dto.setResultados(resultados);
+    return dto;
   }
 
   private PartidaResponseDTO toResponseDTO(Partida p) {
@@ -4,8 +4,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import rei_da_quadra_be.service.exception.CampoInvalidoException;
+import rei_da_quadra_be.service.exception.ChaveIdempotenciaInvalidaException;
+import rei_da_quadra_be.service.exception.CursorInvalidoException;
 import rei_da_quadra_be.service.exception.EventoNaoEncontradoException;
+import rei_da_quadra_be.service.exception.EventoOcupadoException;
 import rei_da_quadra_be.service.exception.NumeroInsuficienteInscritosException;
+import rei_da_quadra_be.service.exception.PropostaTimesIndisponivelException;
 import rei_da_quadra_be.service.exception.TimeDeEsperaNaoConfiguradoException;
 import rei_da_quadra_be.service.exception.UserAlreadyExistsException;
 
@@ -47,6 +52,46 @@ public class ControllerExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(montarBody(code, message));
   }
 
+  @ExceptionHandler(CursorInvalidoException.class)
+  public ResponseEntity<Map<String, Object>> handleCursorInvalidoException(CursorInvalidoException e) {
+    var code = HttpStatus.BAD_REQUEST.value();
+    var message = e.getMessage();
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(montarBody(code, message));
+  }
+
+  @ExceptionHandler(CampoInvalidoException.class)
+  public ResponseEntity<Map<String, Object>> handleCampoInvalidoException(CampoInvalidoException e) {
+    var code = HttpStatus.BAD_REQUEST.value();
+    var message = e.getMessage();
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(montarBody(code, message));
+  }
+
+  @ExceptionHandler(PropostaTimesIndisponivelException.class)
+  public ResponseEntity<Map<String, Object>> handlePropostaTimesIndisponivelException(PropostaTimesIndisponivelException e) {
+    var code = HttpStatus.CONFLICT.value();
+    var message = e.getMessage();
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(montarBody(code, message));
+  }
+
+  @ExceptionHandler(EventoOcupadoException.class)
+  public ResponseEntity<Map<String, Object>> handleEventoOcupadoException(EventoOcupadoException e) {
+    var code = HttpStatus.CONFLICT.value();
+    var message = e.getMessage();
+
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(montarBody(code, message));
+  }
+
+  @ExceptionHandler(ChaveIdempotenciaInvalidaException.class)
+  public ResponseEntity<Map<String, Object>> handleChaveIdempotenciaInvalidaException(ChaveIdempotenciaInvalidaException e) {
+    var code = HttpStatus.UNPROCESSABLE_ENTITY.value();
+    var message = e.getMessage();
+
+    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(montarBody(code, message));
+  }
+
   private Map<String, Object> montarBody(Object code, String message) {
     Map<String, Object> body = new HashMap<>();
     body.put("error", true);
@@ -0,0 +1,13 @@
+package rei_da_quadra_be.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AcoesLoteResponseDTO {
+  private PartidaResponseDTO partida; // Com o placar após o lote
+  private Integer registradas;
+  private Integer recusadas;
+  private List<ResultadoAcaoLoteDTO> resultados; // Na ordem do lote
+}
@@ -0,0 +1,13 @@
+package rei_da_quadra_be.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PreviewTimesDTO {
+  private String proposta; // Enviar em POST .../confirmar?proposta=
+  private Double amplitudeMediaElo; // Maior média de Elo menos a menor, entre os times ativos
+  private Double desvioPadraoMediaElo;
+  private List<TimePropostoDTO> times;
+}
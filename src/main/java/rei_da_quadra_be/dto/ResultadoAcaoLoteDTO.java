@@ -0,0 +1,10 @@
+package rei_da_quadra_be.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultadoAcaoLoteDTO {
+  private Integer indice; // Posição da ação no lote enviado, a partir de 0
+  private Boolean registrada;
+  private String motivo; // Por que a ação foi recusada; null quando registrada
+}
@@ -11,5 +11,8 @@ public class TimeComJogadoresDTO {
   private String nome;
   private StatusTime status;
   private Boolean isTimeDeEspera;
+  private Long totalPartidasJogadas; // Soma dos tickets do elenco
+  private Long quantidadeJogadores;
+  private Double mediaElo; // Null para time sem jogadores
   private List<JogadorResumoDTO> jogadores;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package rei_da_quadra_be.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TimePropostoDTO {
+  private String nome;
+  private Boolean isTimeDeEspera;
+  private Double mediaElo;
+  private Integer quantidadeCraques;
+  private List<JogadorResumoDTO> jogadores;
+}
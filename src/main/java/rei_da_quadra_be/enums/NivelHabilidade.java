@@ -3,5 +3,16 @@ package rei_da_quadra_be.enums;
 public enum NivelHabilidade {
   CRAQUE,
   MEDIANO,
-  PERNA_DE_PAU
+  PERNA_DE_PAU;
+
+  //pontuação acima destes limites sobe de nível
+  public static final int LIMITE_CRAQUE = 2400;
+  public static final int LIMITE_MEDIANO = 800;
+
+  public static NivelHabilidade dePontos(int pontos) {
+    if (pontos > LIMITE_CRAQUE) {
+      return CRAQUE;
+    }
+    return pontos > LIMITE_MEDIANO ? MEDIANO : PERNA_DE_PAU;
+  }
 }
@@ -0,0 +1,7 @@
+package rei_da_quadra_be.enums;
+
+public enum StatusEmail {
+  PENDENTE,   // aguardando envio (ou nova tentativa)
+  ENVIADO,
+  FALHOU      // esgotou as tentativas, fica para análise manual
+}
@@ -0,0 +1,6 @@
+package rei_da_quadra_be.enums;
+
+public enum TipoEmail {
+  CONFIRMACAO_CADASTRO,
+  RECUPERACAO_SENHA
+}
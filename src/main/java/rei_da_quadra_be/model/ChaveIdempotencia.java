@@ -0,0 +1,47 @@
+package rei_da_quadra_be.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+ * Resposta de um comando enviado com Idempotency-Key: gravada na mesma transação do comando,
+ * para que a repetição da requisição devolva a mesma resposta sem executá-lo de novo.
+ * A chave vale por usuário: a mesma chave enviada por outro usuário é outro comando.
+ * Inserida só por ChaveIdempotenciaRepository.reservar (ON CONFLICT DO NOTHING), nunca por save.
+ */
+@Entity
+@IdClass(ChaveIdempotenciaId.class)
+@Table(name = "chave_idempotencia", indexes = {
+  @Index(name = "idx_chave_idempotencia_data_criacao", columnList = "data_criacao")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChaveIdempotencia {
+
+  @Id
+  @Column(name = "usuario_id")
+  private Long usuarioId;
+
+  @Id
+  @Column(name = "chave", length = 255)
+  private String chave;
+
+  // método e caminho da requisição original; a mesma chave em outra rota é recusada
+  @Column(name = "escopo", length = 200, nullable = false)
+  private String escopo;
+
+  @Column(name = "status", nullable = false)
+  private Integer status;
+
+  // corpo da resposta em JSON; null para respostas sem corpo
+  @Column(name = "corpo", columnDefinition = "TEXT")
+  private String corpo;
+
+  @Column(name = "data_criacao", nullable = false, updatable = false)
+  private LocalDateTime dataCriacao = LocalDateTime.now();
+}
@@ -0,0 +1,19 @@
+package rei_da_quadra_be.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// chave primária de ChaveIdempotencia: usuário que enviou + valor do Idempotency-Key
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ChaveIdempotenciaId implements Serializable {
+
+  private Long usuarioId;
+  private String chave;
+}
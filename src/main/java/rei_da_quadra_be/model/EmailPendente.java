@@ -0,0 +1,61 @@
+package rei_da_quadra_be.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import rei_da_quadra_be.enums.StatusEmail;
+import rei_da_quadra_be.enums.TipoEmail;
+
+import java.time.LocalDateTime;
+
+/*
+ * Outbox de e-mails: a linha é gravada na mesma transação que cria o usuário/token
+ * e enviada depois, em lote, pelo EmailOutboxService.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+  @Index(name = "idx_email_outbox_status_proxima", columnList = "status, proxima_tentativa")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmailPendente {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "email_id")
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "tipo", length = 30, nullable = false)
+  private TipoEmail tipo;
+
+  @Column(name = "destinatario", nullable = false)
+  private String destinatario;
+
+  @Column(name = "nome_destinatario", length = 30)
+  private String nomeDestinatario;
+
+  @Column(name = "token", nullable = false)
+  private String token;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", length = 20, nullable = false)
+  private StatusEmail status = StatusEmail.PENDENTE;
+
+  @Column(name = "tentativas", nullable = false)
+  private Integer tentativas = 0;
+
+  @Column(name = "proxima_tentativa", nullable = false)
+  private LocalDateTime proximaTentativa = LocalDateTime.now();
+
+  @Column(name = "ultimo_erro", length = 500)
+  private String ultimoErro;
+
+  @Column(name = "data_criacao", nullable = false, updatable = false)
+  private LocalDateTime dataCriacao = LocalDateTime.now();
+
+  @Column(name = "data_envio")
+  private LocalDateTime dataEnvio;
+}
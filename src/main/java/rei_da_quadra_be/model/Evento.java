@@ -14,7 +14,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "evento")
+@Table(name = "evento", indexes = {
+  //busca de eventos próximos: igualdade no status, faixa na data e no retângulo lat/lon
+  @Index(name = "idx_evento_status_data_lat_lon", columnList = "status, data_evento, latitude, longitude")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +18,9 @@ import java.time.LocalDateTime;
 public class HistoricoPontuacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //sequence (não identity) para os inserts do fim de partida saírem em lote JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historico_pontuacao_seq")
+    @SequenceGenerator(name = "historico_pontuacao_seq", sequenceName = "historico_pontuacao_seq", allocationSize = 50)
     @Column(name = "historico_id")
     private Long id;
 
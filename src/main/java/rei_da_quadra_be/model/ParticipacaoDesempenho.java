@@ -7,7 +7,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "participacao_desempenho")
+@Table(name = "participacao_desempenho",
+  uniqueConstraints = @UniqueConstraint(name = "uk_participacao_partida_jogador", columnNames = {"partida_id", "jogador_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,13 +24,14 @@ public class ParticipacaoDesempenho {
   @Column(name = "participacao_id")
   private Long id;
 
-  @Column(name = "gols", nullable = false)
+  //contadores só mudam por incremento atômico (PlacarRepository); o Hibernate os grava apenas no insert
+  @Column(name = "gols", nullable = false, updatable = false)
   private Integer gols = 0;
 
-  @Column(name = "passes", nullable = false)
+  @Column(name = "passes", nullable = false, updatable = false)
   private Integer passes = 0;
 
-  @Column(name = "defesas", nullable = false)
+  @Column(name = "defesas", nullable = false, updatable = false)
   private Integer defesas = 0;
 
   @ManyToOne
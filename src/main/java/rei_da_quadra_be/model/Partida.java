@@ -31,12 +31,17 @@ public class Partida {
     @Column(name = "status", length = 20, nullable = false)
     private StatusPartida status = StatusPartida.AGUARDANDO_INICIO;
 
-    @Column(name = "time_a_placar", nullable = false)
+    // Placar só muda por incremento atômico (PlacarRepository); o Hibernate o grava apenas no insert
+    @Column(name = "time_a_placar", nullable = false, updatable = false)
     private Integer timeAPlacar = 0;
 
-    @Column(name = "time_b_placar", nullable = false)
+    @Column(name = "time_b_placar", nullable = false, updatable = false)
     private Integer timeBPlacar = 0;
 
+    // Sequência da última ação do placar ao vivo já gravada (evita gravar duas vezes ao recuperar o diário)
+    @Column(name = "ultima_acao_ao_vivo", nullable = false)
+    private Long ultimaAcaoAoVivo = 0L;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "evento_id", nullable = false)
     private Evento evento;
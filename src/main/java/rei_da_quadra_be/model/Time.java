@@ -20,8 +20,10 @@ import java.util.List;
 @AllArgsConstructor
 public class Time {
 
+  //sequence em vez de identity: permite ao Hibernate inserir os times de um evento em lote
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_seq")
+  @SequenceGenerator(name = "time_seq", sequenceName = "time_seq", allocationSize = 50)
   @Column(name = "time_id")
   private Long id;
 
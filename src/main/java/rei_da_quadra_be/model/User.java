@@ -42,12 +42,18 @@ public class User implements UserDetails {
   @Column(name = "foto_perfil", columnDefinition = "TEXT")
   private String fotoPerfil;
 
-  @Column(name = "pontos_habilidade", nullable = false)
+  // pontuação e nível só mudam pelo incremento atômico do PontuacaoRepository;
+  // o Hibernate grava os dois apenas no insert, nunca a partir de uma entidade desatualizada
+  @Column(name = "pontos_habilidade", nullable = false, updatable = false)
   private Integer pontosHabilidade = 1000;
 
-  @Column(name = "nivel_habilidade", nullable = false)
+  @Column(name = "nivel_habilidade", nullable = false, updatable = false)
   private NivelHabilidade nivelHabilidade = NivelHabilidade.MEDIANO;
 
+  // Incrementada na redefinição de senha e na exclusão da conta, vai na claim "ver" do JWT
+  @Column(name = "versao_token", nullable = false)
+  private Integer versaoToken = 0;
+
   @OneToMany(mappedBy = "jogador")
   private List<Inscricao> inscricoes;
 
@@ -0,0 +1,37 @@
+package rei_da_quadra_be.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import rei_da_quadra_be.model.ChaveIdempotencia;
+import rei_da_quadra_be.model.ChaveIdempotenciaId;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, ChaveIdempotenciaId> {
+
+  // reserva a chave antes do comando (status 0: resposta ainda não gravada); devolve 0 se ela já
+  // existe. Se outra transação a reservou e ainda não terminou, o INSERT espera: 0 depois do commit
+  // dela, 1 se ela for desfeita
+  @Modifying
+  @Query(value = """
+      INSERT INTO chave_idempotencia (usuario_id, chave, escopo, status, data_criacao)
+      VALUES (:usuarioId, :chave, :escopo, 0, :agora)
+      ON CONFLICT DO NOTHING
+      """, nativeQuery = true)
+  int reservar(@Param("usuarioId") Long usuarioId, @Param("chave") String chave,
+               @Param("escopo") String escopo, @Param("agora") LocalDateTime agora);
+
+  @Modifying
+  @Query("UPDATE ChaveIdempotencia c SET c.status = :status, c.corpo = :corpo " +
+    "WHERE c.usuarioId = :usuarioId AND c.chave = :chave")
+  int gravarResposta(@Param("usuarioId") Long usuarioId, @Param("chave") String chave,
+                     @Param("status") int status, @Param("corpo") String corpo);
+
+  @Modifying
+  @Query("DELETE FROM ChaveIdempotencia c WHERE c.dataCriacao < :limite")
+  int apagarCriadasAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,4 @@
+package rei_da_quadra_be.repository;
+
+//contadores de um jogador numa partida como ficaram depois de um incremento
+public record ContadoresDesempenho(long timeId, int gols, int passes, int defesas) {}
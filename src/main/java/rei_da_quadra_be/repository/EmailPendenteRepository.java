@@ -0,0 +1,24 @@
+package rei_da_quadra_be.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import rei_da_quadra_be.model.EmailPendente;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailPendenteRepository extends JpaRepository<EmailPendente, Long> {
+
+  // SKIP LOCKED: duas instâncias (ou duas execuções) nunca pegam o mesmo e-mail
+  @Query(value = """
+      SELECT * FROM email_outbox
+      WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora
+      ORDER BY email_id
+      LIMIT :limite
+      FOR UPDATE SKIP LOCKED
+      """, nativeQuery = true)
+  List<EmailPendente> buscarLoteParaEnvio(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+}
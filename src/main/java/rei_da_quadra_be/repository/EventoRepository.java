@@ -10,24 +10,58 @@ import rei_da_quadra_be.model.Evento;
 import rei_da_quadra_be.model.User;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EventoRepository extends JpaRepository<Evento, Long> {
     List<Evento> findByUsuario(User usuario);
 
-    @Query("SELECT e FROM Evento e WHERE " +
-            "e.dataHorarioEvento BETWEEN :dataInicio AND :dataFim " +
-            "AND e.status = :status " +
-            "AND (6371 * acos(cos(radians(:lat)) * cos(radians(e.latitude)) * cos(radians(e.longitude) - radians(:lon)) + sin(radians(:lat)) * sin(radians(e.latitude)))) <= :raio " +
-            "ORDER BY e.dataHorarioEvento ASC, " +
-            "(6371 * acos(cos(radians(:lat)) * cos(radians(e.latitude)) * cos(radians(e.longitude) - radians(:lon)) + sin(radians(:lat)) * sin(radians(e.latitude)))) ASC")
-    List<Evento> buscarEventosProximos(
+    /*
+     * O retângulo (latitude/longitude BETWEEN) usa o índice idx_evento_status_data_lat_lon e descarta
+     * quase tudo antes do cálculo exato; a distância é calculada uma única vez por candidato (LATERAL)
+     * e reaproveitada no filtro do raio, no cursor e na ordenação.
+     *
+     * Paginação por cursor (keyset): a comparação de linha (data, distância, id) > cursor continua de
+     * onde a página anterior parou, sem OFFSET. Retorna [id, data em microssegundos, distância].
+     */
+    @Query(value = "SELECT e.evento_id, CAST(EXTRACT(EPOCH FROM e.data_evento) * 1000000 AS BIGINT), d.distancia " +
+            "FROM evento e " +
+            "CROSS JOIN LATERAL (SELECT 6371 * acos(LEAST(1.0, GREATEST(-1.0, " +
+            "cos(radians(:lat)) * cos(radians(e.latitude)) * cos(radians(e.longitude) - radians(:lon)) " +
+            "+ sin(radians(:lat)) * sin(radians(e.latitude))))) AS distancia) d " +
+            "WHERE e.status = :#{#status.ordinal()} " +
+            "AND e.data_evento BETWEEN :dataInicio AND :dataFim " +
+            "AND e.latitude BETWEEN :latMin AND :latMax " +
+            "AND e.longitude BETWEEN :lonMin AND :lonMax " +
+            "AND d.distancia <= :raio " +
+            "AND (e.data_evento, d.distancia, e.evento_id) > (:cursorData, :cursorDistancia, :cursorId) " +
+            "ORDER BY e.data_evento ASC, d.distancia ASC, e.evento_id ASC",
+            nativeQuery = true)
+    List<Object[]> buscarEventosProximos(
             @Param("lat") Double latitudeUsuario,
             @Param("lon") Double longitudeUsuario,
             @Param("raio") Double raioKm,
+            @Param("latMin") Double latMin,
+            @Param("latMax") Double latMax,
+            @Param("lonMin") Double lonMin,
+            @Param("lonMax") Double lonMax,
             @Param("status") StatusEvento status,
             @Param("dataInicio") OffsetDateTime dataInicio,
             @Param("dataFim") OffsetDateTime dataFim,
+            @Param("cursorData") OffsetDateTime cursorData,
+            @Param("cursorDistancia") Double cursorDistancia,
+            @Param("cursorId") Long cursorId,
             Pageable pageable);
-}
\ No newline at end of file
+
+    // carga do índice em memória (IndiceGeoEventos): só o necessário para localizar e ordenar
+    @Query("SELECT e.id, e.latitude, e.longitude, e.dataHorarioEvento FROM Evento e " +
+            "WHERE e.status = :status AND e.dataHorarioEvento >= :aPartirDe " +
+            "AND e.latitude IS NOT NULL AND e.longitude IS NOT NULL")
+    List<Object[]> buscarLocalizacoesAtivas(
+            @Param("status") StatusEvento status,
+            @Param("aPartirDe") OffsetDateTime aPartirDe);
+
+    @Query("SELECT e FROM Evento e JOIN FETCH e.usuario WHERE e.id IN :ids")
+    List<Evento> buscarComUsuarioPorIds(@Param("ids") Collection<Long> ids);
+}
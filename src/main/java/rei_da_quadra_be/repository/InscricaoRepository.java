@@ -1,18 +1,56 @@
 package rei_da_quadra_be.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import rei_da_quadra_be.enums.StatusEvento;
 import rei_da_quadra_be.enums.StatusInscricao;
 import rei_da_quadra_be.model.Evento;
 import rei_da_quadra_be.model.Inscricao;
 import rei_da_quadra_be.model.Time;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InscricaoRepository extends JpaRepository<Inscricao, Long> {
   List<Inscricao> findByEventoId(Long eventoId);
+
+  //ordem por id: a distribuição de times desempata pela ordem de inscrição
+  @Query("SELECT i FROM Inscricao i JOIN FETCH i.jogador WHERE i.evento.id = :eventoId ORDER BY i.id")
+  List<Inscricao> buscarComJogadorPorEvento(@Param("eventoId") Long eventoId);
+
+  //elencos de alguns times (ex.: os dois da partida e o de espera), com jogador, em ordem de id
+  @Query("SELECT i FROM Inscricao i JOIN FETCH i.jogador WHERE i.timeAtual.id IN :timeIds ORDER BY i.id")
+  List<Inscricao> buscarComJogadorPorTimes(@Param("timeIds") Collection<Long> timeIds);
+
+  //só as inscrições indicadas (ex.: quem entra no rodízio), com jogador, em ordem de id
+  @Query("SELECT i FROM Inscricao i JOIN FETCH i.jogador WHERE i.id IN :ids ORDER BY i.id")
+  List<Inscricao> buscarComJogadorPorIds(@Param("ids") Collection<Long> ids);
+
+  //[jogadorId, timeId] das inscrições dos times indicados (ex.: os dois de uma partida)
+  @Query("SELECT i.jogador.id, i.timeAtual.id FROM Inscricao i WHERE i.timeAtual.id IN :timeIds")
+  List<Object[]> listarJogadorETimePorTimes(@Param("timeIds") Collection<Long> timeIds);
+
+  //totais por time do evento num único select; times sem inscritos não aparecem
+  @Query("SELECT new rei_da_quadra_be.repository.ResumoTime(i.timeAtual.id, SUM(i.partidasJogadas), COUNT(i), AVG(i.jogador.pontosHabilidade)) " +
+    "FROM Inscricao i WHERE i.evento.id = :eventoId AND i.timeAtual IS NOT NULL GROUP BY i.timeAtual.id")
+  List<ResumoTime> resumirPorTime(@Param("eventoId") Long eventoId);
+
+  @Query("SELECT new rei_da_quadra_be.repository.JogadorNoTime(i.timeAtual.id, j.id, j.nome, j.pontosHabilidade, j.nivelHabilidade, i.partidasJogadas) " +
+    "FROM Inscricao i JOIN i.jogador j WHERE i.evento.id = :eventoId AND i.timeAtual IS NOT NULL ORDER BY i.id")
+  List<JogadorNoTime> listarJogadoresNosTimes(@Param("eventoId") Long eventoId);
+
+  @Query("SELECT new rei_da_quadra_be.repository.TicketRodizio(i.id, i.jogador.id, t.id, t.timeDeEspera, i.partidasJogadas, i.jogador.pontosHabilidade) " +
+    "FROM Inscricao i JOIN i.timeAtual t WHERE i.evento.id = :eventoId")
+  List<TicketRodizio> listarTicketsRodizio(@Param("eventoId") Long eventoId);
+
+  //eventos com times montados, para pré-carregar as filas do rodízio
+  @Query("SELECT DISTINCT i.evento.id FROM Inscricao i WHERE i.timeAtual IS NOT NULL AND i.evento.status = :status")
+  List<Long> buscarEventosComTimes(@Param("status") StatusEvento status);
+
   List<Inscricao> findByEventoIdAndStatus(Long eventoId, StatusInscricao status);
   Optional<Inscricao> findByEventoIdAndJogadorId(Long eventoId, Long jogadorId);
   List<Inscricao> findByTimeAtualAndEvento(Time timeAtual, Evento evento);
@@ -0,0 +1,10 @@
+package rei_da_quadra_be.repository;
+
+import rei_da_quadra_be.enums.NivelHabilidade;
+
+/**
+ * Inscrito alocado num time, lido direto em colunas (InscricaoRepository.listarJogadoresNosTimes)
+ * em vez de carregar Inscricao, User, Evento e Time como entidades.
+ */
+public record JogadorNoTime(Long timeId, Long jogadorId, String nome, Integer pontosHabilidade,
+                            NivelHabilidade nivelHabilidade, Integer partidasJogadas) {}
@@ -7,4 +7,5 @@ import java.util.Optional;
 
 public interface ParticipacaoDesempenhoRepository extends JpaRepository<ParticipacaoDesempenho, Long> {
   Optional<ParticipacaoDesempenho> findByPartidaIdAndJogadorId(Long partidaId, Long jogadorId);
+  boolean existsByPartidaIdAndJogadorId(Long partidaId, Long jogadorId);
 }
@@ -14,6 +14,9 @@ public interface PartidaRepository extends JpaRepository<Partida, Long> {
 
     List<Partida> findByEventoId(Long eventoId);
 
+    @Query("SELECT p.evento.id FROM Partida p WHERE p.id = :id")
+    Optional<Long> buscarEventoId(@Param("id") Long id);
+
     // Conta quantas partidas o jogador venceu
     @Query("SELECT COUNT(p) FROM Partida p " +
             "JOIN Inscricao i ON (i.timeAtual.id = p.timeA.id OR i.timeAtual.id = p.timeB.id) " +
@@ -0,0 +1,4 @@
+package rei_da_quadra_be.repository;
+
+//placar de uma partida como ficou depois de um incremento
+public record Placar(int timeA, int timeB) {}
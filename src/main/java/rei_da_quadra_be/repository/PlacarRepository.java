@@ -0,0 +1,80 @@
+package rei_da_quadra_be.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Placar da partida e contadores de desempenho alterados só por incremento, numa instrução cada.
+ *
+ * Nada de ler a entidade, somar e regravar a linha inteira: dois registros simultâneos na mesma
+ * partida não perdem gols, e o valor final volta no RETURNING. A participação é criada no primeiro
+ * incremento (INSERT ... ON CONFLICT sobre a restrição única partida + jogador).
+ */
+@Repository
+public class PlacarRepository {
+
+  private static final String SOMAR_PLACAR = """
+    UPDATE partida
+       SET time_a_placar = GREATEST(0, time_a_placar + ?),
+           time_b_placar = GREATEST(0, time_b_placar + ?)
+     WHERE partida_id = ?
+    RETURNING time_a_placar, time_b_placar
+    """;
+
+  private static final String SOMAR_DESEMPENHO = """
+    INSERT INTO participacao_desempenho (partida_id, jogador_id, time_id_na_partida, gols, passes, defesas)
+    VALUES (?, ?, ?, ?, ?, ?)
+    ON CONFLICT (partida_id, jogador_id) DO UPDATE
+       SET gols = participacao_desempenho.gols + EXCLUDED.gols,
+           passes = participacao_desempenho.passes + EXCLUDED.passes,
+           defesas = participacao_desempenho.defesas + EXCLUDED.defesas
+    RETURNING time_id_na_partida, gols, passes, defesas
+    """;
+
+  //só desconta se nenhum contador ficar negativo
+  private static final String DESCONTAR_DESEMPENHO = """
+    UPDATE participacao_desempenho
+       SET gols = gols - ?, passes = passes - ?, defesas = defesas - ?
+     WHERE partida_id = ? AND jogador_id = ?
+       AND gols >= ? AND passes >= ? AND defesas >= ?
+    RETURNING time_id_na_partida, gols, passes, defesas
+    """;
+
+  private static final RowMapper<ContadoresDesempenho> CONTADORES = (rs, linha) ->
+    new ContadoresDesempenho(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PlacarRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  //soma aos dois lados (valores negativos descontam, sem passar de zero)
+  public Optional<Placar> somarPlacar(long partidaId, int timeA, int timeB) {
+    List<Placar> placar = jdbcTemplate.query(SOMAR_PLACAR,
+      (rs, linha) -> new Placar(rs.getInt(1), rs.getInt(2)), timeA, timeB, partidaId);
+    return placar.stream().findFirst();
+  }
+
+  /**
+   * Soma aos contadores do jogador na partida, criando a participação se preciso.
+   *
+   * @param timeId time gravado se a participação for criada agora; uma existente mantém o seu
+   */
+  public ContadoresDesempenho somarDesempenho(long partidaId, long jogadorId, long timeId,
+                                              int gols, int passes, int defesas) {
+    return jdbcTemplate.queryForObject(SOMAR_DESEMPENHO, CONTADORES,
+      partidaId, jogadorId, timeId, gols, passes, defesas);
+  }
+
+  //vazio se não há participação ou se algum contador ficaria negativo
+  public Optional<ContadoresDesempenho> descontarDesempenho(long partidaId, long jogadorId,
+                                                            int gols, int passes, int defesas) {
+    return jdbcTemplate.query(DESCONTAR_DESEMPENHO, CONTADORES,
+      gols, passes, defesas, partidaId, jogadorId, gols, passes, defesas).stream().findFirst();
+  }
+}
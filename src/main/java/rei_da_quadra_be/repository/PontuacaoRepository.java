@@ -0,0 +1,74 @@
+package rei_da_quadra_be.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import rei_da_quadra_be.enums.NivelHabilidade;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Alterações de pontuação direto no banco, sem ler e regravar a entidade.
+ *
+ * Um jogador pode estar em vários eventos finalizando partidas ao mesmo tempo: o incremento
+ * (pontos = pontos + variação) e o nível são calculados pelo próprio UPDATE, e o valor final volta
+ * no RETURNING. As linhas são travadas em ordem de id antes do UPDATE, então duas transações com
+ * jogadores em comum nunca se travam em ordem inversa (deadlock).
+ */
+@Repository
+public class PontuacaoRepository {
+
+  private static final String INCREMENTAR = """
+    WITH travados AS MATERIALIZED (
+      SELECT id FROM users WHERE id = ANY (?) ORDER BY id FOR UPDATE
+    )
+    UPDATE users u
+       SET pontos_habilidade = u.pontos_habilidade + v.variacao,
+           nivel_habilidade = CASE
+             WHEN u.pontos_habilidade + v.variacao > ? THEN ?
+             WHEN u.pontos_habilidade + v.variacao > ? THEN ?
+             ELSE ? END
+      FROM unnest(?::bigint[], ?::int[]) AS v(id, variacao)
+      JOIN travados t ON t.id = v.id
+     WHERE u.id = v.id
+    RETURNING u.id, u.pontos_habilidade
+    """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PontuacaoRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Soma a variação de cada jogador numa única instrução.
+   *
+   * @param variacoes variação por id de jogador (ordenada por id)
+   * @return pontuação de cada jogador depois do incremento; jogadores inexistentes não aparecem
+   */
+  public Map<Long, Integer> incrementar(SortedMap<Long, Integer> variacoes) {
+    Map<Long, Integer> depois = new HashMap<>(variacoes.size() * 2);
+    if (variacoes.isEmpty()) {
+      return depois;
+    }
+    Long[] ids = variacoes.keySet().toArray(Long[]::new);
+    Integer[] valores = variacoes.values().toArray(Integer[]::new);
+
+    jdbcTemplate.query(connection -> {
+      var ps = connection.prepareStatement(INCREMENTAR);
+      ps.setArray(1, connection.createArrayOf("bigint", ids));
+      ps.setInt(2, NivelHabilidade.LIMITE_CRAQUE);
+      ps.setInt(3, NivelHabilidade.CRAQUE.ordinal());
+      ps.setInt(4, NivelHabilidade.LIMITE_MEDIANO);
+      ps.setInt(5, NivelHabilidade.MEDIANO.ordinal());
+      ps.setInt(6, NivelHabilidade.PERNA_DE_PAU.ordinal());
+      ps.setArray(7, connection.createArrayOf("bigint", ids));
+      ps.setArray(8, connection.createArrayOf("integer", valores));
+      return ps;
+    }, rs -> {
+      depois.put(rs.getLong(1), rs.getInt(2));
+    });
+    return depois;
+  }
+}
@@ -0,0 +1,12 @@
+package rei_da_quadra_be.repository;
+
+/**
+ * Totais de um time calculados no banco (InscricaoRepository.resumirPorTime), sem carregar
+ * inscrições nem jogadores.
+ *
+ * @param timeId           id do time
+ * @param partidasJogadas  soma das partidas jogadas pelos inscritos no time
+ * @param jogadores        quantidade de inscritos no time
+ * @param mediaPontos      média do Elo dos inscritos no time
+ */
+public record ResumoTime(Long timeId, Long partidasJogadas, Long jogadores, Double mediaPontos) {}
@@ -0,0 +1,8 @@
+package rei_da_quadra_be.repository;
+
+/**
+ * Inscrito alocado num time, com o que o rodízio usa para ordenar (partidas, Elo, ordem de
+ * inscrição); lido em colunas para reconstruir as filas do MotorRodizio.
+ */
+public record TicketRodizio(Long inscricaoId, Long jogadorId, Long timeId, Boolean timeDeEspera,
+                            Integer partidasJogadas, Integer pontosHabilidade) {}
@@ -1,11 +1,23 @@
 package rei_da_quadra_be.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.security.UsuarioAutenticado;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     UserDetails findByEmail(String email);
+
+    // só as colunas que a autenticação usa: nada de foto nem relacionamentos
+    @Query("SELECT new rei_da_quadra_be.security.UsuarioAutenticado(u.id, u.email, u.role, u.versaoToken, u.enabled) " +
+      "FROM User u WHERE u.email = :email")
+    UsuarioAutenticado buscarPrincipal(@Param("email") String email);
+
+    // revogação de tokens no modo claims-only (PrincipalCache)
+    @Query("SELECT u.versaoToken FROM User u WHERE u.id = :id")
+    Integer buscarVersaoToken(@Param("id") Long id);
 }
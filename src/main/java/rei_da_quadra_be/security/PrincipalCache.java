@@ -0,0 +1,66 @@
+package rei_da_quadra_be.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.LruCache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache do usuário autenticado, indexado pelo subject do JWT (email).
+ *
+ * Guarda só o {@link UsuarioAutenticado} (id, email, role, versão do token, ativo), imutável:
+ * nenhuma requisição altera o principal que outra está usando, e a foto em base64 nunca é lida
+ * pela autenticação. Toda alteração no usuário deve chamar {@link #invalidar(String)}, que vale
+ * de novo após o commit; uma carga iniciada antes da invalidação não é guardada (LruCache.get).
+ */
+@Component
+public class PrincipalCache {
+
+    private final LruCache<String, UsuarioAutenticado> cache;
+
+    // modo claims-only: versão atual do token por usuário, lida de users.versao_token (a fonte
+    // compartilhada entre instâncias e reinícios). O TTL curto limita quanto tempo outra instância
+    // ainda aceita um token revogado; nesta, a revogação vale no commit.
+    private final LruCache<Long, Integer> versoesToken;
+
+    public PrincipalCache(
+            @Value("${api.security.principal-cache.tamanho-maximo:10000}") int tamanhoMaximo,
+            @Value("${api.security.principal-cache.ttl-segundos:300}") long ttlSegundos,
+            @Value("${api.security.token.versao-ttl-segundos:30}") long ttlVersaoSegundos,
+            MeterRegistry meterRegistry) {
+        this.cache = new LruCache<>(tamanhoMaximo, Duration.ofSeconds(ttlSegundos));
+        this.versoesToken = new LruCache<>(tamanhoMaximo, Duration.ofSeconds(ttlVersaoSegundos));
+        CacheMetricas.registrar(meterRegistry, "principal", cache);
+        CacheMetricas.registrar(meterRegistry, "principal.versao-token", versoesToken);
+    }
+
+    public UsuarioAutenticado buscar(String email, Function<String, UsuarioAutenticado> loader) {
+        return cache.get(email, loader);
+    }
+
+    // agora e após o commit: uma leitura feita entre os dois ainda via a linha antiga
+    public void invalidar(String email) {
+        if (email != null) {
+            cache.invalidar(email);
+            AposCommit.executar(() -> cache.invalidar(email));
+        }
+    }
+
+    // após redefinição de senha/exclusão (versao_token já incrementada na transação corrente)
+    public void revogarTokens(Long userId, String email) {
+        invalidar(email);
+        versoesToken.invalidar(userId);
+        AposCommit.executar(() -> versoesToken.invalidar(userId));
+    }
+
+    // token com a versão atual do usuário; usuário inexistente não tem token válido
+    public boolean versaoTokenValida(UsuarioAutenticado usuario, Function<Long, Integer> loader) {
+        Integer atual = versoesToken.get(usuario.id(), loader);
+        return atual != null && usuario.versaoToken() >= atual;
+    }
+}
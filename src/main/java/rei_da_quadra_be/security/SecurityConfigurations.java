@@ -16,6 +16,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import rei_da_quadra_be.controller.EventoController;
+import rei_da_quadra_be.service.ComandosIdempotentes;
 
 import java.util.Arrays;
 
@@ -66,6 +68,9 @@ public class SecurityConfigurations {
         cfg.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
         cfg.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         cfg.setAllowedHeaders(Arrays.asList("*"));
+        cfg.setExposedHeaders(Arrays.asList(
+          EventoController.CABECALHO_PROXIMO_CURSOR, //paginação de /eventos/proximos
+          ComandosIdempotentes.CABECALHO_REPETIDA)); //resposta repetida de um comando com Idempotency-Key
         cfg.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import rei_da_quadra_be.repository.UserRepository;
@@ -20,6 +21,11 @@ public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+
+    // opt-in: monta o principal só com as claims do JWT, sem consultar users
+    @Value("${api.security.token.claims-only:false}")
+    private boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(
@@ -49,8 +55,24 @@ public class SecurityFilter extends OncePerRequestFilter {
         String token = recoverToken(request);
 
         if (token != null && !token.isBlank()) {
-            String login = tokenService.validateToken(token);
-            UserDetails user = userRepository.findByEmail(login);
+            TokenService.TokenVerificado verificado = tokenService.verificarToken(token);
+            UserDetails user = null;
+
+            if (verificado != null) {
+                UsuarioAutenticado claims = verificado.usuario();
+                if (claimsOnly && claims != null) {
+                    user = principalCache.versaoTokenValida(claims, userRepository::buscarVersaoToken) ? claims : null;
+                } else {
+                    // tokens sem claims (emitidos antes do modo existir) seguem pelo banco
+                    UsuarioAutenticado principal = principalCache.buscar(verificado.subject(),
+                            userRepository::buscarPrincipal);
+
+                    if (principal != null && principal.isEnabled()
+                            && (claims == null || claims.versaoToken() >= principal.versaoToken())) {
+                        user = principal; // senão: conta desativada ou token anterior à redefinição de senha
+                    }
+                }
+            }
 
             if (user != null) {
                 UsernamePasswordAuthenticationToken auth =
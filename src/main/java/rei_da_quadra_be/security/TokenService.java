@@ -1,30 +1,60 @@
 package rei_da_quadra_be.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.LruCache;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 
 @Service
 public class TokenService {
-  @Value("${api.security.token.secret}") //variável de ambiente, na application.properties
-  private String secret;
+  private static final String ISSUER = "login_jwt";
+  private static final String CLAIM_ID = "uid";
+  private static final String CLAIM_ROLE = "role";
+  private static final String CLAIM_VERSAO = "ver";
+
+  //Algoritmo e verificador são imutáveis e thread-safe: criados uma única vez
+  private final Algorithm alg;
+  private final JWTVerifier verifier;
+
+  //tokens já verificados: o mesmo token de 2h chega em toda requisição do usuário
+  private final LruCache<String, TokenVerificado> tokensVerificados;
+
+  public TokenService(
+    @Value("${api.security.token.secret}") String secret, //variável de ambiente, na application.properties
+    @Value("${api.security.token.cache.tamanho-maximo:10000}") int tamanhoCache,
+    MeterRegistry meterRegistry) {
+    //Algoritmo que recebe uma secret, com base na qual vai gerar os tokens
+    this.alg = Algorithm.HMAC256(secret);
+    this.verifier = JWT.require(alg)
+            .withIssuer(ISSUER)
+            .build();
+    //o TTL real de cada entrada é a expiração do próprio token, checada na leitura
+    this.tokensVerificados = new LruCache<>(tamanhoCache, Duration.ofHours(2));
+    CacheMetricas.registrar(meterRegistry, "jwt", tokensVerificados);
+  }
 
   public String generateToken(User user) {
     try {
-      //Algoritmo que recebe uma secret, com base na qual vai gerar os tokens
-      Algorithm alg = Algorithm.HMAC256(secret);
-
       String token = JWT.create()
-              .withIssuer("login_jwt") //nome do emissor
+              .withIssuer(ISSUER) //nome do emissor
               .withSubject(user.getEmail()) //subject é o usuário
+              //claims usadas pelo modo claims-only do SecurityFilter
+              .withClaim(CLAIM_ID, user.getId())
+              .withClaim(CLAIM_ROLE, user.getRole())
+              .withClaim(CLAIM_VERSAO, user.getVersaoToken())
               .withExpiresAt(generateExpirationDate())
               .sign(alg); //assina e gera o token
 
@@ -35,19 +65,50 @@ public class TokenService {
   }
 
   public String validateToken(String token) {
+    TokenVerificado verificado = verificarToken(token);
+    return verificado == null ? "" : verificado.subject();
+  }
+
+  //retorna subject, expiração e claims do token, ou null se o token for inválido/expirado
+  public TokenVerificado verificarToken(String token) {
+    TokenVerificado verificado = tokensVerificados.get(token);
+    if (verificado != null) {
+      if (verificado.expiraEm().isAfter(Instant.now())) {
+        return verificado;
+      }
+      tokensVerificados.invalidar(token);
+      return null;
+    }
+
     try {
-      Algorithm alg = Algorithm.HMAC256(secret);
-      return JWT.require(alg)
-              .withIssuer("login_jwt")
-              .build()
-              .verify(token)
-              .getSubject(); //pega o subject User passado ao criar o token
+      DecodedJWT jwt = verifier.verify(token);
+      String subject = jwt.getSubject(); //pega o subject User passado ao criar o token
+      if (subject == null || jwt.getExpiresAtAsInstant() == null) {
+        return null;
+      }
+      verificado = new TokenVerificado(subject, jwt.getExpiresAtAsInstant(), lerUsuario(jwt, subject));
+      tokensVerificados.put(token, verificado);
+      return verificado;
     } catch (JWTVerificationException e) {
-      return "";
+      return null;
+    }
+  }
+
+  //tokens emitidos antes das claims existirem não têm uid: nesse caso retorna null
+  private UsuarioAutenticado lerUsuario(DecodedJWT jwt, String subject) {
+    Long id = jwt.getClaim(CLAIM_ID).asLong();
+    String role = jwt.getClaim(CLAIM_ROLE).asString();
+    Integer versao = jwt.getClaim(CLAIM_VERSAO).asInt();
+    if (id == null || role == null || versao == null) {
+      return null;
     }
+    //o token só é emitido no login, para contas ativas; a revogação vem pela versão
+    return new UsuarioAutenticado(id, subject, role, versao, true);
   }
 
   private Instant generateExpirationDate() {
     return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
   }
+
+  public record TokenVerificado(String subject, Instant expiraEm, UsuarioAutenticado usuario) {}
 }
@@ -0,0 +1,39 @@
+package rei_da_quadra_be.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal leve e imutável: montado com as claims do JWT (modo claims-only) ou com as poucas
+ * colunas de users que a autenticação usa (UserRepository.buscarPrincipal, guardado no PrincipalCache).
+ *
+ * Controllers que precisam da entidade {@link rei_da_quadra_be.model.User} recebem,
+ * via {@link UsuarioLogado}, uma referência JPA carregada sob demanda.
+ */
+public record UsuarioAutenticado(Long id, String email, String role, int versaoToken, boolean ativo)
+    implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        // mesmas authorities de User.getAuthorities, para os dois modos se comportarem igual
+        return List.of(() -> "ROLE_USER");
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ativo;
+    }
+}
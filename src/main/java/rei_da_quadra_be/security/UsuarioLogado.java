@@ -0,0 +1,16 @@
+package rei_da_quadra_be.security;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+
+import java.lang.annotation.*;
+
+/**
+ * Injeta o usuário autenticado como {@link rei_da_quadra_be.model.User} a partir do principal
+ * {@link UsuarioAutenticado} (do cache ou das claims): uma entidade da requisição, nunca compartilhada.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@AuthenticationPrincipal(expression = "@usuarioLogadoResolver.resolver(#this)")
+public @interface UsuarioLogado {
+}
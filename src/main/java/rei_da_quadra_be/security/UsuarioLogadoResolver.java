@@ -0,0 +1,24 @@
+package rei_da_quadra_be.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.repository.UserRepository;
+
+@Component
+@RequiredArgsConstructor
+public class UsuarioLogadoResolver {
+
+    private final UserRepository userRepository;
+
+    public User resolver(Object principal) {
+        if (principal instanceof User user) {
+            return user;
+        }
+        if (principal instanceof UsuarioAutenticado usuario) {
+            // referência preguiçosa (open-in-view): só vai ao banco se algo além do id for lido
+            return userRepository.getReferenceById(usuario.id());
+        }
+        return null;
+    }
+}
@@ -3,15 +3,25 @@ package rei_da_quadra_be.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import rei_da_quadra_be.dto.JogadorResumoDTO;
+import rei_da_quadra_be.dto.PreviewTimesDTO;
+import rei_da_quadra_be.dto.TimePropostoDTO;
 import rei_da_quadra_be.enums.NivelHabilidade;
 import rei_da_quadra_be.enums.ResultadoPartida;
 import rei_da_quadra_be.enums.StatusTime;
 import rei_da_quadra_be.enums.TipoAcaoEmJogo;
 import rei_da_quadra_be.model.*;
 import rei_da_quadra_be.repository.*;
+import rei_da_quadra_be.service.balanceamento.BalanceadorTimes;
+import rei_da_quadra_be.service.balanceamento.CachePropostasTimes;
+import rei_da_quadra_be.service.balanceamento.DistribuicaoSerpentina;
 import rei_da_quadra_be.service.exception.EventoNaoEncontradoException;
 import rei_da_quadra_be.service.exception.NumeroInsuficienteInscritosException;
-import rei_da_quadra_be.service.exception.TimeDeEsperaNaoConfiguradoException;
+import rei_da_quadra_be.service.exception.PropostaTimesIndisponivelException;
+import rei_da_quadra_be.service.rodizio.EstrategiaRodizio;
+import rei_da_quadra_be.service.rodizio.FilaRodizio;
+import rei_da_quadra_be.service.rodizio.MotorRodizio;
+import rei_da_quadra_be.service.rodizio.TimeRodizio;
 import rei_da_quadra_be.utils.EloCalculator;
 
 import java.util.*;
@@ -20,6 +30,8 @@ import java.util.*;
 @RequiredArgsConstructor
 public class AdmTimesService {
 
+  private static final String NOME_TIME_ESPERA = "Time de Espera";
+
   private final EventoRepository eventoRepository;
   private final TimeRepository timeRepository;
   private final InscricaoRepository inscricaoRepository;
@@ -27,16 +39,51 @@ public class AdmTimesService {
   private final UserRepository userRepository;
 
   private final HistoricoPontuacaoService historicoService;
+  private final BalanceadorTimes balanceadorTimes;
+  private final EstrategiaRodizio estrategiaRodizio;
+  private final CachePropostasTimes cachePropostasTimes;
+  private final MotorRodizio motorRodizio;
+  private final ElencosPartidas elencosPartidas;
 
   //cria os times de um evento que foi criado
   //nenhuma partida ocorreu ainda
   @Transactional
   public void montarTimesInicial(Long eventoId) {
+    EntradaBalanceamento entrada = carregarEntrada(eventoId);
+    persistirTimes(entrada, balancear(entrada));
+  }
+
+  //prévia da distribuição: mesmo balanceador do montarTimesInicial, sem gravar nada.
+  //a proposta fica em cache pelo hash das entradas, para a confirmação não recalcular.
+  @Transactional(readOnly = true)
+  public PreviewTimesDTO previewTimes(Long eventoId) {
+    EntradaBalanceamento entrada = carregarEntrada(eventoId);
+    int[] timeDe = cachePropostasTimes.obter(eventoId, entrada.hash(), () -> balancear(entrada));
+    return montarPreview(entrada, timeDe);
+  }
+
+  //grava a proposta da prévia; inscrições ou Elo alterados desde então invalidam a proposta
+  @Transactional
+  public void confirmarTimes(Long eventoId, String proposta) {
+    EntradaBalanceamento entrada = carregarEntrada(eventoId);
+    if (!entrada.hash().equals(proposta)) {
+      throw new PropostaTimesIndisponivelException("Inscrições ou pontuações mudaram desde a prévia. Gere uma nova prévia.");
+    }
+    int[] timeDe = cachePropostasTimes.consumir(eventoId, proposta);
+    if (timeDe == null) {
+      throw new PropostaTimesIndisponivelException("Prévia expirada ou já confirmada. Gere uma nova prévia.");
+    }
+    persistirTimes(entrada, timeDe);
+  }
+
+  //inscritos e os arrays que o balanceador recebe, mais o hash que identifica a proposta
+  private EntradaBalanceamento carregarEntrada(Long eventoId) {
     Evento evento = eventoRepository
       .findById(eventoId)
       .orElseThrow(() -> new EventoNaoEncontradoException("Evento não encontrado"));
 
-    List<Inscricao> inscricoes = inscricaoRepository.findByEventoId(eventoId);
+    //jogadores já vêm no mesmo select: a distribuição só lê Elo e nível
+    List<Inscricao> inscricoes = inscricaoRepository.buscarComJogadorPorEvento(eventoId);
     int totalInscritos = inscricoes.size();
     int jogadoresPorTime = evento.getJogadoresPorTime();
 
@@ -44,21 +91,41 @@ public class AdmTimesService {
       throw new NumeroInsuficienteInscritosException("Número insuficiente de inscritos para formar ao menos 2 times.");
     }
 
+    long[] ids = new long[totalInscritos];
+    int[] pontos = new int[totalInscritos];
+    boolean[] craque = new boolean[totalInscritos];
+    for (int i = 0; i < totalInscritos; i++) {
+      Inscricao inscricao = inscricoes.get(i);
+      ids[i] = inscricao.getId();
+      pontos[i] = inscricao.getJogador().getPontosHabilidade();
+      craque[i] = inscricao.getJogador().getNivelHabilidade() == NivelHabilidade.CRAQUE;
+    }
+
     //calcular quantos times "Ativos" cabem
     int qtdTimesAtivos = totalInscritos / jogadoresPorTime;
-    int sobra = totalInscritos % jogadoresPorTime;
+    String hash = CachePropostasTimes.calcularHash(eventoId, jogadoresPorTime, ids, pontos, craque);
+    return new EntradaBalanceamento(evento, inscricoes, pontos, craque, qtdTimesAtivos, jogadoresPorTime, hash);
+  }
 
-    //cria os times no Banco
-    List<Time> timesCriados = new ArrayList<>();
+  //Lógica de Distribuição (Algoritmo de Balanceamento)
+  //regra: pelo menos 1 craque por time, depois equilibra por Elo (ver DistribuicaoSerpentina);
+  //a estratégia configurada (BalanceamentoConfig) pode refinar a serpentina com trocas entre times.
+  private int[] balancear(EntradaBalanceamento entrada) {
+    return balanceadorTimes.distribuir(entrada.pontos(), entrada.craque(), entrada.qtdTimesAtivos(), entrada.jogadoresPorTime());
+  }
+
+  private void persistirTimes(EntradaBalanceamento entrada, int[] timeDe) {
+    Evento evento = entrada.evento();
 
     //times ativos
-    for (int i = 1; i <= qtdTimesAtivos; i++) {
+    List<Time> timesCriados = new ArrayList<>(entrada.qtdTimesAtivos());
+    for (int i = 1; i <= entrada.qtdTimesAtivos(); i++) {
       Time t = new Time();
       t.setEvento(evento);
-      t.setNome("Time " + i);
+      t.setNome(nomeDoTime(i - 1));
       t.setTimeDeEspera(false);
       t.setStatus(StatusTime.ATIVO);
-      timesCriados.add(timeRepository.save(t));
+      timesCriados.add(t);
     }
 
     /*
@@ -68,83 +135,88 @@ public class AdmTimesService {
      */
     Time timeEspera = new Time();
     timeEspera.setEvento(evento);
-    timeEspera.setNome("Time de Espera");
+    timeEspera.setNome(NOME_TIME_ESPERA);
     timeEspera.setTimeDeEspera(true);
     timeEspera.setStatus(StatusTime.ESPERA); //ativo, mas é de espera
-    timeEspera = timeRepository.save(timeEspera);
 
-    //Lógica de Distribuição (Algoritmo de Balanceamento)
-    distribuirJogadoresNosTimes(inscricoes, timesCriados, timeEspera, jogadoresPorTime);
-  }
+    //cria os times no Banco: ids por sequence, então os inserts saem em lote (hibernate.jdbc.batch_size)
+    List<Time> todos = new ArrayList<>(timesCriados);
+    todos.add(timeEspera);
+    timeRepository.saveAll(todos);
 
-  //distribuição Inicial
-  //regra: pelo menos 1 craque por time, depois equilibra por Elo.
-  private void distribuirJogadoresNosTimes(List<Inscricao> todosInscritos, List<Time> timesAtivos, Time timeEspera, int maxPorTime) {
-    //separa os Craques
-    List<Inscricao> craques = todosInscritos
-      .stream()
-      .filter(i -> i.getJogador().getNivelHabilidade() == NivelHabilidade.CRAQUE)
-      .sorted(Comparator.comparingInt(i -> -i.getJogador().getPontosHabilidade())) //elo decrescente
-      .toList();
-
-    //medianos e pernas-de-pau
-    List<Inscricao> outros = todosInscritos
-      .stream()
-      .filter(i -> i.getJogador().getNivelHabilidade() != NivelHabilidade.CRAQUE)
-      .sorted(Comparator.comparingInt(i -> -i.getJogador().getPontosHabilidade())) //elo decrescente
-      .toList();
-
-    //fila auxiliar para distribuição
-    Queue<Inscricao> filaCraques = new LinkedList<>(craques);
-    Queue<Inscricao> filaGeral = new LinkedList<>(outros);
-
-    //garantir 1 Craque por time ativo (enquanto houver craques)
-    for (Time time : timesAtivos) {
-      if (!filaCraques.isEmpty()) {
-        alocarJogador(filaCraques.poll(), time);
-      } else {
-        //se acabaram os craques, pega o melhor do geral
-        if (!filaGeral.isEmpty()) alocarJogador(filaGeral.poll(), time);
-      }
+    //as inscrições são entidades gerenciadas, então o time_atual_id de todas é gravado
+    //no flush, em updates JDBC em lote, em vez de um save por jogador.
+    List<Inscricao> inscricoes = entrada.inscricoes();
+    for (int i = 0; i < inscricoes.size(); i++) {
+      inscricoes.get(i).setTimeAtual(timeDe[i] == DistribuicaoSerpentina.ESPERA ? timeEspera : timesCriados.get(timeDe[i]));
     }
+    motorRodizio.invalidarAposCommit(evento.getId());
+    elencosPartidas.invalidarEvento(evento.getId());
+  }
 
-    //se sobraram craques, joga para o topo da fila geral para serem distribuídos
-    while (!filaCraques.isEmpty()) {
-      //adiciona no início da lista (uma simplificação, ideal seria reordenar)
-      List<Inscricao> temp = new ArrayList<>();
-      temp.add(filaCraques.poll());
-      temp.addAll(filaGeral);
-      filaGeral = new LinkedList<>(temp);
+  private PreviewTimesDTO montarPreview(EntradaBalanceamento entrada, int[] timeDe) {
+    int numTimes = entrada.qtdTimesAtivos();
+    List<List<JogadorResumoDTO>> jogadores = new ArrayList<>(numTimes + 1);
+    for (int t = 0; t <= numTimes; t++) {
+      jogadores.add(new ArrayList<>());
+    }
+    long[] soma = new long[numTimes + 1];
+    int[] craques = new int[numTimes + 1];
+
+    List<Inscricao> inscricoes = entrada.inscricoes();
+    for (int i = 0; i < inscricoes.size(); i++) {
+      int t = timeDe[i] == DistribuicaoSerpentina.ESPERA ? numTimes : timeDe[i]; //espera na última posição
+      User jogador = inscricoes.get(i).getJogador();
+      JogadorResumoDTO j = new JogadorResumoDTO();
+      j.setId(jogador.getId());
+      j.setNome(jogador.getNome());
+      j.setPontosHabilidade(jogador.getPontosHabilidade());
+      j.setNivelHabilidade(jogador.getNivelHabilidade());
+      j.setPartidasJogadas(inscricoes.get(i).getPartidasJogadas());
+      jogadores.get(t).add(j);
+      soma[t] += entrada.pontos()[i];
+      if (entrada.craque()[i]) {
+        craques[t]++;
+      }
     }
 
-    //distribuição "Snake Draft" (Serpente) para equilibrar o restante
-    //pai do Time 1 ao N, depois do N ao 1.
-    boolean ida = true;
-    while (!filaGeral.isEmpty()) {
-      //verifica se todos os times ativos estão cheios
-      boolean temVaga = timesAtivos.stream().anyMatch(t -> contarJogadoresNoTime(t) < maxPorTime);
-
-      if (!temVaga) {
-        //se todos os ativos estão cheios, o resto vai para a ESPERA
-        alocarJogador(Objects.requireNonNull(filaGeral.poll()), timeEspera);
+    List<TimePropostoDTO> times = new ArrayList<>(numTimes + 1);
+    double maior = Double.NEGATIVE_INFINITY;
+    double menor = Double.POSITIVE_INFINITY;
+    double somaMedias = 0;
+    double somaQuadrados = 0;
+    for (int t = 0; t <= numTimes; t++) {
+      boolean espera = t == numTimes;
+      if (espera && jogadores.get(t).isEmpty()) {
         continue;
       }
-
-      if (ida) {
-        for (int i = 0; i < timesAtivos.size(); i++) {
-          if (!filaGeral.isEmpty() && contarJogadoresNoTime(timesAtivos.get(i)) < maxPorTime) {
-            alocarJogador(Objects.requireNonNull(filaGeral.poll()), timesAtivos.get(i));
-          }
-        }
-      } else {
-        for (int i = timesAtivos.size() - 1; i >= 0; i--) {
-          if (!filaGeral.isEmpty() && contarJogadoresNoTime(timesAtivos.get(i)) < maxPorTime) {
-            alocarJogador(Objects.requireNonNull(filaGeral.poll()), timesAtivos.get(i));
-          }
-        }
+      double media = jogadores.get(t).isEmpty() ? 0 : (double) soma[t] / jogadores.get(t).size();
+      TimePropostoDTO dto = new TimePropostoDTO();
+      dto.setNome(espera ? NOME_TIME_ESPERA : nomeDoTime(t));
+      dto.setIsTimeDeEspera(espera);
+      dto.setMediaElo(media);
+      dto.setQuantidadeCraques(craques[t]);
+      dto.setJogadores(jogadores.get(t));
+      times.add(dto);
+      if (!espera) {
+        maior = Math.max(maior, media);
+        menor = Math.min(menor, media);
+        somaMedias += media;
+        somaQuadrados += media * media;
       }
-      ida = !ida; //inverte direção
     }
+
+    double mediaDasMedias = somaMedias / numTimes;
+    PreviewTimesDTO preview = new PreviewTimesDTO();
+    preview.setProposta(entrada.hash());
+    preview.setAmplitudeMediaElo(maior - menor);
+    preview.setDesvioPadraoMediaElo(Math.sqrt(Math.max(0, somaQuadrados / numTimes - mediaDasMedias * mediaDasMedias)));
+    preview.setTimes(times);
+    return preview;
+  }
+
+  private static String nomeDoTime(int indice) {
+    return "Time " + (indice + 1);
   }
 
   //atualiza pontuação e processa o rodízio após uma partida.
@@ -154,6 +226,9 @@ public class AdmTimesService {
       .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
     Evento evento = partida.getEvento();
 
+    // elencos dos times da partida, totais dos demais; o banco vem das filas do MotorRodizio
+    EventoRuntimeState estado = carregarEstado(evento, partida);
+
     // 1. Identificar Perdedor (ou time que sai em caso de empate)
     Time timePerdedor;
     if (timeVencedorId == null) {
@@ -167,11 +242,9 @@ public class AdmTimesService {
     // Aqui focamos na regra de rodízio.
 
     // Incrementar contador de partidas jogadas para quem estava em campo
-    List<Inscricao> jogadoresTimeA = inscricaoRepository.findByTimeAtualAndEvento(partida.getTimeA(), evento);
-    List<Inscricao> jogadoresTimeB = inscricaoRepository.findByTimeAtualAndEvento(partida.getTimeB(), evento);
-
-    jogadoresTimeA.forEach(this::incrementarPartidaJogada);
-    jogadoresTimeB.forEach(this::incrementarPartidaJogada);
+    estado.elenco(partida.getTimeA()).forEach(this::incrementarPartidaJogada);
+    estado.elenco(partida.getTimeB()).forEach(this::incrementarPartidaJogada);
+    motorRodizio.partidasAlteradas(evento.getId(), partidasPorInscricao(estado, partida));
 
     // 2.5. Atualizar pontuação com base no sistema ELO
     // Determinar o resultado para cada time
@@ -192,127 +265,95 @@ public class AdmTimesService {
       resultadoTimeB = ResultadoPartida.VITORIA;
     }
     
-    atualizarPontuacaoElo(partida, partida.getTimeA(), partida.getTimeB(), resultadoTimeA);
-    atualizarPontuacaoElo(partida, partida.getTimeB(), partida.getTimeA(), resultadoTimeB);
+    // os dois times contra a média do adversário antes da partida, gravados num único acerto
+    atualizarPontuacaoElo(estado, partida, resultadoTimeA, resultadoTimeB);
 
     // 3. Realizar Rodízio (Perdedor sai <-> Reserva entra)
-    Time timeEspera = timeRepository
-      .findByEventoAndTimeDeEsperaTrue(evento)
-      .orElseThrow(() -> new TimeDeEsperaNaoConfiguradoException("Time de espera não configurado"));
-
-    List<Inscricao> jogadoresNoBanco = inscricaoRepository.findByTimeAtualAndEvento(timeEspera, evento);
-
     // Se houver jogadores no banco, executa rodízio padrão imediatamente para atualizar os times
-    if (!jogadoresNoBanco.isEmpty()) {
-      rodizioDeJogadores(evento, timePerdedor);
-    }
+    rodizioDeJogadores(estado, evento, timePerdedor);
 
-    // Agora escolhe o próximo desafiante entre os times ativos (não reservas), excluindo o vencedor.
-    List<Time> timesAtivos = timeRepository.findByEventoId(evento.getId())
+    // Agora escolhe o próximo desafiante entre os times ativos (não reservas), excluindo o vencedor,
+    // priorizando quem jogou menos (ver RodizioPorTickets).
+    List<TimeRodizio> timesAtivos = estado.timesAtivos()
       .stream()
-      .filter(t -> !t.getTimeDeEspera() && t.getStatus() == StatusTime.ATIVO)
+      .map(t -> new TimeRodizio(t.getId(), estado.partidasJogadas(t)))
       .toList();
 
-    // Se só existir o vencedor como time ativo, retorna o perdedor original como fallback
-    List<Time> candidatos = timesAtivos.stream()
-      .filter(t -> !t.getId().equals(timeVencedorId))
-      .toList();
-
-    if (candidatos.isEmpty()) {
-      return timePerdedor.getId();
-    }
-
-    // Verifica se todos os times não-reserva já jogaram ao menos uma vez
-    boolean todosJaJogarom = timesAtivos.stream().allMatch(t ->
-      inscricaoRepository.findByTimeAtualAndEvento(t, evento).stream().mapToInt(Inscricao::getPartidasJogadas).sum() > 0
-    );
-
-    // Se nem todos jogaram, limitamos candidatos aos que jogaram menos (partidasJogadas == 0 preferencialmente)
-    List<Time> candidatosFiltrados = candidatos;
-    if (!todosJaJogarom) {
-      List<Time> aindaNaoJogaram = candidatos.stream()
-        .filter(t -> inscricaoRepository.findByTimeAtualAndEvento(t, evento).stream().mapToInt(Inscricao::getPartidasJogadas).sum() == 0)
-        .toList();
-      if (!aindaNaoJogaram.isEmpty()) {
-        candidatosFiltrados = aindaNaoJogaram;
-      }
-    }
-
-    // Escolher o time com menor soma de partidas jogadas (prioriza quem jogou menos)
-    Time escolhido = candidatosFiltrados.stream()
-      .min((t1, t2) -> {
-        int s1 = inscricaoRepository.findByTimeAtualAndEvento(t1, evento).stream().mapToInt(Inscricao::getPartidasJogadas).sum();
-        int s2 = inscricaoRepository.findByTimeAtualAndEvento(t2, evento).stream().mapToInt(Inscricao::getPartidasJogadas).sum();
-        return Integer.compare(s1, s2);
-      })
-      .orElse(timePerdedor);
-
-    // Se todos já jogaram e o banco ainda está vazio, o time reserva só entra quando todos os não-reserva tiverem jogado.
-    // A lógica acima já garante que reserva não será escolhido entre 'timesAtivos' porque 'timeEspera' foi excluído.
-
-    return escolhido.getId();
+    return estrategiaRodizio.escolherDesafiante(timesAtivos, timeVencedorId, timePerdedor.getId());
   }
 
   //lógica central do rodízio com tickets
-  private void rodizioDeJogadores(Evento evento, Time timePerdedor) {
-    //busca o time de espera do evento
-    Time timeEspera = timeRepository
-      .findByEventoAndTimeDeEsperaTrue(evento)
-      .orElseThrow(() -> new TimeDeEsperaNaoConfiguradoException("Time de espera não configurado"));
-
-    List<Inscricao> jogadoresNoBanco = inscricaoRepository.findByTimeAtualAndEvento(timeEspera, evento);
-    List<Inscricao> jogadoresNoTimePerdedor = inscricaoRepository.findByTimeAtualAndEvento(timePerdedor, evento);
+  private void rodizioDeJogadores(EventoRuntimeState estado, Evento evento, Time timePerdedor) {
+    //time de espera do evento
+    Time timeEspera = estado.timeEspera();
+
+    //QUEM ENTRA: prioridade para quem jogou menos (ticket), desempate por Elo.
+    //QUEM SAI: do time perdedor, quem jogou mais, na mesma quantidade (ver FilaRodizio).
+    FilaRodizio.Troca troca = motorRodizio.planejarTroca(evento.getId(), timePerdedor.getId(), evento.getJogadoresPorTime());
+    List<Inscricao> entrando = conferirTroca(troca, estado, timeEspera, timePerdedor);
+    if (entrando == null) {
+      //filas fora de sincronia com o banco: relê e planeja de novo
+      motorRodizio.invalidar(evento.getId());
+      troca = motorRodizio.planejarTroca(evento.getId(), timePerdedor.getId(), evento.getJogadoresPorTime());
+      entrando = conferirTroca(troca, estado, timeEspera, timePerdedor);
+      if (entrando == null) {
+        throw new IllegalStateException("Rodízio inconsistente no evento " + evento.getId());
+      }
+    }
 
-    if (jogadoresNoBanco.isEmpty()) {
+    if (troca.entram().isEmpty()) {
       return; //ninguém para trocar, segue o jogo
     }
 
-    int tamanhoDoTime = evento.getJogadoresPorTime();
-
-    //QUEM ENTRA (Sai do Banco -> Vai pro Time Perdedor/Campo)
-    //Regra de Ticket: Prioridade para quem jogou MENOS.
-    //Desempate: Nivel de Habilidade (para equilibrar) ou Ordem de Chegada (ID).
-    List<Inscricao> quemEntra = jogadoresNoBanco
-      .stream()
-      .sorted(Comparator
-        .comparingInt(Inscricao::getPartidasJogadas) //menor número de partidas primeiro (Ticket)
-        .thenComparingInt(i -> i.getJogador().getPontosHabilidade())) //desempate por elo
-      .limit(tamanhoDoTime)
-      .toList();
-
-    //QUEM SAI (Sai do Time Perdedor → Vai para o Banco)
-    //a regra diz "jogadores do time perdedor serão selecionados para compor time de reserva".
-    //Normalmente sai o time inteiro, mas se o banco for menor que o time, fazemos troca parcial:
-    //devemos trocar apenas a mesma quantidade de jogadores que entram do banco.
-    int numEntrando = quemEntra.size();
-
-    // Seleciona os jogadores do time perdedor que irão para o banco.
-    // Prioriza enviar ao banco os jogadores que já jogaram mais (descendente), para descanso.
-    List<Inscricao> quemSai = jogadoresNoTimePerdedor.stream()
-      .sorted(Comparator.comparingInt(Inscricao::getPartidasJogadas).reversed())
-      .limit(numEntrando)
-      .toList();
-
-    //executa a troca no banco de dados (quantidades correspondentes)
-    for (Inscricao entrando : quemEntra) {
-      entrando.setTimeAtual(timePerdedor); //entra em campo (no lugar do perdedor)
-      inscricaoRepository.save(entrando);
+    //executa a troca (quantidades correspondentes); só as inscrições movidas vão para o flush
+    for (Long saindo : troca.saem()) {
+      estado.mover(estado.inscricao(timePerdedor, saindo), timeEspera); //vai para o banco
     }
-
-    for (Inscricao saindo : quemSai) {
-      saindo.setTimeAtual(timeEspera); //vai para o banco
-      inscricaoRepository.save(saindo);
+    for (Inscricao inscricao : entrando) {
+      estado.mover(inscricao, timePerdedor); //entra em campo (no lugar do perdedor)
     }
+    motorRodizio.confirmarTroca(evento.getId(), troca, timePerdedor.getId());
+    elencosPartidas.rodizioFeito(evento.getId());
 
     //dependendo da regra exata, o time vencedor continua.
     //o time perdedor recebe os novos jogadores e vira o "Desafiante".
   }
 
+  //carrega só quem entra; null se a troca não bate com o banco (quem sai fora do perdedor, quem entra fora da espera)
+  private List<Inscricao> conferirTroca(FilaRodizio.Troca troca, EventoRuntimeState estado, Time timeEspera,
+                                        Time timePerdedor) {
+    for (Long saindo : troca.saem()) {
+      if (estado.inscricao(timePerdedor, saindo) == null) {
+        return null;
+      }
+    }
+    if (troca.entram().isEmpty()) {
+      return List.of();
+    }
+    List<Inscricao> entrando = inscricaoRepository.buscarComJogadorPorIds(troca.entram());
+    if (entrando.size() != troca.entram().size()) {
+      return null;
+    }
+    for (Inscricao inscricao : entrando) {
+      if (inscricao.getTimeAtual() == null || !inscricao.getTimeAtual().getId().equals(timeEspera.getId())) {
+        return null;
+      }
+    }
+    return entrando;
+  }
+
   //metodo para atualizar pontuação individual chamado a cada gol/ação do tipo TipoAcaoEmJogo
   @Transactional
   public void computarAcaoJogador(Partida partida, Long jogadorId, TipoAcaoEmJogo tipoAcao) {
+      int pontosGanhos = pontosDaAcao(tipoAcao);
       User user = userRepository.findById(jogadorId).orElseThrow();
 
+      // incremento atômico; a evolução de nível é calculada no mesmo UPDATE
+      historicoService.registrarAlteracao(user, partida, tipoAcao, pontosGanhos);
+  }
+
+  //pontos de cada ação registrada durante a partida (também usado pelo placar ao vivo)
+  public static int pontosDaAcao(TipoAcaoEmJogo tipoAcao) {
       int pontosGanhos = 0;
       switch (tipoAcao) {
           case GOL:
@@ -337,45 +378,45 @@ public class AdmTimesService {
               // Elas são tratadas diretamente pelo método atualizarPontuacaoElo
               throw new IllegalArgumentException("Ações de ELO não devem ser processadas através de computarAcaoJogador");
       }
-
-      historicoService.registrarAlteracao(user, partida, tipoAcao, pontosGanhos);
-
-      // Verifica evolução de nível
-      if (user.getPontosHabilidade() > 2400) user.setNivelHabilidade(NivelHabilidade.CRAQUE);
-      else if (user.getPontosHabilidade() > 800) user.setNivelHabilidade(NivelHabilidade.MEDIANO);
-      else user.setNivelHabilidade(NivelHabilidade.PERNA_DE_PAU);
-
-      userRepository.save(user);
+      return pontosGanhos;
   }
 
   //métodos auxiliares
-  private void alocarJogador(Inscricao inscricao, Time time) {
-    inscricao.setTimeAtual(time);
-    inscricaoRepository.save(inscricao);
+  //três selects fixos, independente do número de times: times, elencos da partida e totais por time
+  private EventoRuntimeState carregarEstado(Evento evento, Partida partida) {
+    List<Time> times = new ArrayList<>(timeRepository.findByEventoId(evento.getId()));
+    times.sort(Comparator.comparing(Time::getId));
+
+    Set<Long> timesComElenco = new LinkedHashSet<>();
+    timesComElenco.add(partida.getTimeA().getId());
+    timesComElenco.add(partida.getTimeB().getId());
+
+    return EventoRuntimeState.de(times, timesComElenco,
+      inscricaoRepository.buscarComJogadorPorTimes(timesComElenco),
+      inscricaoRepository.resumirPorTime(evento.getId()));
   }
 
-  private long contarJogadoresNoTime(Time time) {
-    //countByTimeAtual no repository para performance
-    return inscricaoRepository.countByTimeAtual(time);
+  private record EntradaBalanceamento(Evento evento, List<Inscricao> inscricoes, int[] pontos, boolean[] craque,
+                                      int qtdTimesAtivos, int jogadoresPorTime, String hash) {}
+
+  //valores absolutos já incrementados, para as filas do rodízio
+  private static Map<Long, Integer> partidasPorInscricao(EventoRuntimeState estado, Partida partida) {
+    Map<Long, Integer> partidas = new HashMap<>();
+    for (Time time : List.of(partida.getTimeA(), partida.getTimeB())) {
+      for (Inscricao inscricao : estado.elenco(time)) {
+        partidas.put(inscricao.getId(), inscricao.getPartidasJogadas());
+      }
+    }
+    return partidas;
   }
 
+  //inscrição gerenciada: gravada no flush
   private void incrementarPartidaJogada(Inscricao i) {
     i.setPartidasJogadas(i.getPartidasJogadas() + 1);
-    inscricaoRepository.save(i);
-  }
-
-  public boolean jogadorEstaNoTime(Long eventoId, Long timeId, Long jogadorId) {
-    return inscricaoRepository.findByEventoId(eventoId)
-      .stream()
-      .anyMatch(i ->
-        i.getJogador().getId().equals(jogadorId) &&
-          i.getTimeAtual() != null &&
-          i.getTimeAtual().getId().equals(timeId)
-      );
   }
 
   /**
-   * Atualiza a pontuação dos jogadores de um time usando o sistema de ELO.
+   * Atualiza a pontuação dos jogadores dos dois times da partida usando o sistema de ELO.
    *
    * Fórmulas utilizadas:
    * - Ea = 1.0 / (1 + Math.pow(10, (Rb - Ra) / 400.0))
@@ -383,79 +424,40 @@ public class AdmTimesService {
    * - R'a = Ra + K * (Sa − Ea)
    *   Nova pontuação após a partida
    *
+   * As médias dos dois times são calculadas uma vez, antes de qualquer alteração; todas as
+   * variações vão juntas para o HistoricoPontuacaoService, que grava pontuações e histórico em lote.
+   *
+   * @param estado Times e elencos do evento em memória
    * @param partida A partida que foi finalizada
-   * @param timeDeste O time do qual atualizar jogadores
-   * @param timeAdversario O time adversário
-   * @param resultado VITORIA, EMPATE ou DERROTA
+   * @param resultadoTimeA VITORIA, EMPATE ou DERROTA do time A
+   * @param resultadoTimeB VITORIA, EMPATE ou DERROTA do time B
    */
-  @Transactional
-  protected void atualizarPontuacaoElo(Partida partida, Time timeDeste, Time timeAdversario, ResultadoPartida resultado) {
-    // Buscar todos os jogadores do time
-    List<Inscricao> jogadoresTime = inscricaoRepository.findByTimeAtualAndEvento(timeDeste, partida.getEvento());
-
-    if (jogadoresTime.isEmpty()) {
+  private void atualizarPontuacaoElo(EventoRuntimeState estado, Partida partida, ResultadoPartida resultadoTimeA,
+                                     ResultadoPartida resultadoTimeB) {
+    List<Inscricao> jogadoresA = estado.elenco(partida.getTimeA());
+    List<Inscricao> jogadoresB = estado.elenco(partida.getTimeB());
+
+    // Médias pré-partida (1000 se o time estiver vazio)
+    double mediaA = estado.mediaPontos(partida.getTimeA());
+    double mediaB = estado.mediaPontos(partida.getTimeB());
+
+    List<HistoricoPontuacaoService.Alteracao> alteracoes = new ArrayList<>(jogadoresA.size() + jogadoresB.size());
+    calcularVariacoes(jogadoresA, mediaB, resultadoTimeA, alteracoes);
+    calcularVariacoes(jogadoresB, mediaA, resultadoTimeB, alteracoes);
+    if (alteracoes.isEmpty()) {
       return;
     }
 
-    // Calcular a média de pontos do time adversário
-    double mediaAdversario = calcularMediaPontosTIme(timeAdversario, partida.getEvento());
+    // pontuação e nível de todos num único UPDATE atômico
+    historicoService.registrarAlteracoes(partida, alteracoes);
+  }
 
-    // Para cada jogador do time, calcular nova pontuação usando ELO
+  private static void calcularVariacoes(List<Inscricao> jogadoresTime, double mediaAdversario, ResultadoPartida resultado,
+                                        List<HistoricoPontuacaoService.Alteracao> alteracoes) {
     for (Inscricao inscricao : jogadoresTime) {
       User jogador = inscricao.getJogador();
-      double pontoAtual = jogador.getPontosHabilidade();
-
-      // Calcular a variação de pontos usando as fórmulas de ELO
-      int variacao = EloCalculator.calcularVariacao(pontoAtual, mediaAdversario, resultado.getValorElo());
-
-      // Determinar o tipo de ação para registrar no histórico
-      TipoAcaoEmJogo tipoAcao = resultado.getTipoAcaoElo();
-
-      // Registrar a alteração no histórico
-      historicoService.registrarAlteracao(jogador, partida, tipoAcao, variacao);
-
-      // Atualizar o nível de habilidade baseado na nova pontuação
-      atualizarNivelHabilidade(jogador);
-
-      // Salvar o jogador
-      userRepository.save(jogador);
-    }
-  }
-
-  /**
-   * Calcula a média de pontos de habilidade de todos os jogadores de um time.
-   *
-   * @param time O time
-   * @param evento O evento
-   * @return A média simples dos pontos de habilidade
-   */
-  private double calcularMediaPontosTIme(Time time, Evento evento) {
-    List<Inscricao> jogadoresTime = inscricaoRepository.findByTimeAtualAndEvento(time, evento);
-
-    if (jogadoresTime.isEmpty()) {
-      // Retorna 1000 (pontuação padrão) se não houver jogadores
-      return 1000.0;
-    }
-
-    double soma = jogadoresTime.stream()
-      .mapToDouble(i -> i.getJogador().getPontosHabilidade())
-      .sum();
-
-    return soma / jogadoresTime.size();
-  }
-
-  /**
-   * Atualiza o nível de habilidade do jogador com base na pontuação atual.
-   *
-   * @param jogador O jogador a atualizar
-   */
-  private void atualizarNivelHabilidade(User jogador) {
-    if (jogador.getPontosHabilidade() > 2400) {
-      jogador.setNivelHabilidade(NivelHabilidade.CRAQUE);
-    } else if (jogador.getPontosHabilidade() > 800) {
-      jogador.setNivelHabilidade(NivelHabilidade.MEDIANO);
-    } else {
-      jogador.setNivelHabilidade(NivelHabilidade.PERNA_DE_PAU);
+      int variacao = EloCalculator.calcularVariacao(jogador.getPontosHabilidade(), mediaAdversario, resultado.getValorElo());
+      alteracoes.add(new HistoricoPontuacaoService.Alteracao(jogador, resultado.getTipoAcaoElo(), variacao));
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.GeoUtils;
+import rei_da_quadra_be.utils.LruCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache das buscas de eventos próximos.
+ *
+ * Usuários na mesma célula (por padrão 0,01°, ~1 km) e na mesma janela de tempo recebem o mesmo
+ * resultado: a busca é feita a partir do centro da célula e com início no começo da janela, então a
+ * chave (célula, janela, limite, cursor) identifica o resultado por completo. Guarda só as posições
+ * (id, data, distância); os eventos são sempre carregados do banco pelo chamador.
+ *
+ * Alteração de evento invalida as células cujo raio de busca alcança a posição do evento.
+ */
+@Component
+public class CacheEventosProximos {
+
+  private final boolean habilitado;
+  private final double tamanhoCelula;
+  private final long janelaSegundos;
+  // maior distância entre um ponto da célula e o seu centro (1° de latitude ~ 111,2 km)
+  private final double meiaDiagonalKm;
+  private final LruCache<Chave, List<EventoProximo>> cache;
+
+  // incrementada a cada invalidação: resultado calculado antes dela não entra no cache
+  private final AtomicLong geracao = new AtomicLong();
+
+  public CacheEventosProximos(
+    @Value("${eventos.cache-proximos.habilitado:true}") boolean habilitado,
+    @Value("${eventos.cache-proximos.tamanho-celula-graus:0.01}") double tamanhoCelula,
+    @Value("${eventos.cache-proximos.janela-segundos:60}") long janelaSegundos,
+    @Value("${eventos.cache-proximos.tamanho-maximo:10000}") int tamanhoMaximo,
+    MeterRegistry meterRegistry) {
+    this.habilitado = habilitado;
+    this.tamanhoCelula = tamanhoCelula;
+    this.janelaSegundos = janelaSegundos;
+    this.meiaDiagonalKm = tamanhoCelula * 111.2 * Math.sqrt(2) / 2;
+    this.cache = new LruCache<>(tamanhoMaximo, Duration.ofSeconds(janelaSegundos));
+    CacheMetricas.registrar(meterRegistry, "eventos.proximos", cache);
+  }
+
+  /**
+   * Resultado da busca para a célula e a janela do ponto informado; em caso de falha,
+   * executa a busca com a consulta normalizada (centro da célula, início da janela).
+   */
+  public List<EventoProximo> buscar(double lat, double lon, int limite, String cursor,
+                                    Function<Consulta, List<EventoProximo>> busca) {
+    if (!habilitado) {
+      return busca.apply(new Consulta(lat, lon, OffsetDateTime.now()));
+    }
+
+    long janela = Math.floorDiv(Instant.now().getEpochSecond(), janelaSegundos);
+    Chave chave = new Chave(celula(lat), celula(lon), janela, limite, cursor);
+
+    List<EventoProximo> posicoes = cache.get(chave);
+    if (posicoes != null) {
+      return posicoes;
+    }
+
+    long geracaoAntes = geracao.get();
+    posicoes = List.copyOf(busca.apply(new Consulta(
+      centro(chave.linha()),
+      centro(chave.coluna()),
+      OffsetDateTime.ofInstant(Instant.ofEpochSecond(janela * janelaSegundos), ZoneOffset.UTC))));
+
+    if (geracao.get() == geracaoAntes) {
+      cache.put(chave, posicoes);
+    }
+    return posicoes;
+  }
+
+  /** Invalida, após o commit, as células cujo raio de busca alcança o ponto (lat, lon). */
+  public void invalidarAoRedor(Double lat, Double lon, double raioKm) {
+    if (!habilitado || lat == null || lon == null) {
+      return;
+    }
+    AposCommit.executar(() -> {
+      geracao.incrementAndGet();
+      double alcance = raioKm + meiaDiagonalKm;
+      cache.invalidarSe(chave ->
+        GeoUtils.distanciaKm(centro(chave.linha()), centro(chave.coluna()), lat, lon) <= alcance);
+    });
+  }
+
+  private int celula(double grau) {
+    return (int) Math.floor(grau / tamanhoCelula);
+  }
+
+  private double centro(int celula) {
+    return (celula + 0.5) * tamanhoCelula;
+  }
+
+  public record Consulta(double latitude, double longitude, OffsetDateTime agora) {}
+
+  private record Chave(int linha, int coluna, long janela, int limite, String cursor) {}
+}
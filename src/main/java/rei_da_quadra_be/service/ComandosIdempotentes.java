@@ -0,0 +1,177 @@
+package rei_da_quadra_be.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei_da_quadra_be.model.ChaveIdempotenciaId;
+import rei_da_quadra_be.repository.ChaveIdempotenciaRepository;
+import rei_da_quadra_be.service.exception.ChaveIdempotenciaInvalidaException;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.LruCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Comandos de partida enviados com o cabeçalho Idempotency-Key (repetições do app em rede ruim).
+ *
+ * A chave vale por usuário. A primeira requisição com a chave roda na vez do evento
+ * (ExecutorComandosEvento): a transação reserva a chave em chave_idempotencia (INSERT ... ON
+ * CONFLICT DO NOTHING) antes do comando e grava a resposta depois dele, então ou os dois ficam,
+ * ou nenhum. Se a reserva encontra a chave, gravada por outra instância depois da consulta, o
+ * comando não roda e a resposta dela é devolvida como repetição.
+ * Uma repetição devolve a resposta guardada, sem entrar na fila do evento nem chamar o serviço.
+ * As respostas recentes ficam num LruCache; o banco cobre as que saíram dele e o reinício da
+ * aplicação. Um comando que falha não guarda nada, então a repetição executa de novo.
+ */
+@Component
+public class ComandosIdempotentes {
+
+  public static final String CABECALHO = "Idempotency-Key";
+  // marca na resposta repetida, para o app saber que não houve nova execução
+  public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+
+  private static final int TAMANHO_MAXIMO_CHAVE = 255;
+  // status da reserva até a resposta ser gravada (ChaveIdempotenciaRepository.reservar)
+  private static final int SEM_RESPOSTA = 0;
+
+  private final ExecutorComandosEvento comandosEvento;
+  private final ChaveIdempotenciaRepository repository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transacao;
+  private final LruCache<String, RespostaGuardada> respostas;
+  private final Duration retencao;
+  private final Counter repeticoes;
+
+  public ComandosIdempotentes(
+    ExecutorComandosEvento comandosEvento,
+    ChaveIdempotenciaRepository repository,
+    ObjectMapper objectMapper,
+    PlatformTransactionManager transactionManager,
+    @Value("${idempotencia.cache.tamanho-maximo:10000}") int tamanhoMaximo,
+    @Value("${idempotencia.retencao-horas:24}") long retencaoHoras,
+    MeterRegistry meterRegistry) {
+    this.comandosEvento = comandosEvento;
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.transacao = new TransactionTemplate(transactionManager);
+    this.retencao = Duration.ofHours(retencaoHoras);
+    this.respostas = new LruCache<>(tamanhoMaximo, retencao);
+    this.repeticoes = meterRegistry.counter("idempotencia.repeticoes");
+    CacheMetricas.registrar(meterRegistry, "idempotencia.respostas", respostas);
+  }
+
+  /**
+   * Executa o comando na vez do evento, ou devolve a resposta já dada para a chave.
+   *
+   * @param usuarioId  usuário autenticado; a mesma chave de outro usuário é outro comando
+   * @param chave      valor do Idempotency-Key; sem chave, o comando só roda na vez do evento
+   * @param escopo     método e caminho da requisição; a chave não pode ser reaproveitada em outro
+   * @param tipoCorpo  tipo do corpo da resposta, para remontar a resposta guardada (Void se não tiver)
+   * @param eventoId   evento da partida; só consultado se o comando for executado
+   * @throws ChaveIdempotenciaInvalidaException se a chave for vazia, longa demais ou de outro escopo
+   */
+  public <T> ResponseEntity<T> executar(Long usuarioId, String chave, String escopo, Class<T> tipoCorpo,
+                                        Supplier<Long> eventoId, Supplier<ResponseEntity<T>> comando) {
+    if (chave == null) {
+      return comandosEvento.executar(eventoId.get(), comando);
+    }
+    if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+      throw new ChaveIdempotenciaInvalidaException(
+        CABECALHO + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+    }
+
+    RespostaGuardada guardada = buscar(usuarioId, chave);
+    if (guardada != null) {
+      return repetir(guardada, escopo, tipoCorpo);
+    }
+    return comandosEvento.executar(eventoId.get(), () -> {
+      //outra requisição com a mesma chave pode ter executado enquanto esta esperava a vez
+      RespostaGuardada concorrente = buscar(usuarioId, chave);
+      if (concorrente != null) {
+        return repetir(concorrente, escopo, tipoCorpo);
+      }
+      return transacao.execute(status -> {
+        if (repository.reservar(usuarioId, chave, escopo, LocalDateTime.now()) == 0) {
+          //outra instância executou com a mesma chave e já fez commit
+          RespostaGuardada gravada = buscar(usuarioId, chave);
+          if (gravada == null) {
+            throw new IllegalStateException("Chave reservada sem resposta gravada: " + chave);
+          }
+          return repetir(gravada, escopo, tipoCorpo);
+        }
+        ResponseEntity<T> resposta = comando.get();
+        RespostaGuardada nova = new RespostaGuardada(escopo, resposta.getStatusCode().value(),
+          paraJson(resposta.getBody()));
+        repository.gravarResposta(usuarioId, chave, nova.status(), nova.corpo());
+
+        AposCommit.executar(() -> respostas.put(chaveCache(usuarioId, chave), nova));
+        return resposta;
+      });
+    });
+  }
+
+  //apaga do banco as chaves mais antigas que a retenção; o cache expira sozinho pelo TTL
+  @Scheduled(fixedDelayString = "${idempotencia.limpeza-intervalo-ms:3600000}")
+  public void apagarExpiradas() {
+    transacao.executeWithoutResult(status ->
+      repository.apagarCriadasAntesDe(LocalDateTime.now().minus(retencao)));
+  }
+
+  private RespostaGuardada buscar(Long usuarioId, String chave) {
+    RespostaGuardada guardada = respostas.get(chaveCache(usuarioId, chave));
+    if (guardada != null) {
+      return guardada;
+    }
+    return repository.findById(new ChaveIdempotenciaId(usuarioId, chave))
+      //reservada sem resposta gravada: ainda não há o que repetir
+      .filter(registro -> registro.getStatus() != SEM_RESPOSTA)
+      .map(registro -> {
+        RespostaGuardada lida = new RespostaGuardada(registro.getEscopo(), registro.getStatus(), registro.getCorpo());
+        respostas.put(chaveCache(usuarioId, chave), lida);
+        return lida;
+      })
+      .orElse(null);
+  }
+
+  private static String chaveCache(Long usuarioId, String chave) {
+    return usuarioId + ":" + chave;
+  }
+
+  private <T> ResponseEntity<T> repetir(RespostaGuardada guardada, String escopo, Class<T> tipoCorpo) {
+    if (!guardada.escopo().equals(escopo)) {
+      throw new ChaveIdempotenciaInvalidaException(
+        CABECALHO + " já usada em outra requisição (" + guardada.escopo() + ").");
+    }
+    repeticoes.increment();
+    T corpo;
+    try {
+      corpo = guardada.corpo() == null ? null : objectMapper.readValue(guardada.corpo(), tipoCorpo);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Resposta guardada ilegível para " + escopo, e);
+    }
+    return ResponseEntity.status(guardada.status()).header(CABECALHO_REPETIDA, "true").body(corpo);
+  }
+
+  private String paraJson(Object corpo) {
+    if (corpo == null) {
+      return null;
+    }
+    try {
+      return objectMapper.writeValueAsString(corpo);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Resposta sem representação JSON: " + corpo.getClass().getName(), e);
+    }
+  }
+
+  private record RespostaGuardada(String escopo, int status, String corpo) {}
+}
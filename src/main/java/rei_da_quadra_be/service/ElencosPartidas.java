@@ -0,0 +1,92 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.model.Partida;
+import rei_da_quadra_be.repository.InscricaoRepository;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.LruCache;
+import rei_da_quadra_be.utils.MapaLongLong;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Índice jogador -> time dos dois times de cada partida em andamento, em MapaLongLong.
+ *
+ * Montado com um select (só jogador e time das inscrições dos times A e B) quando a partida
+ * começa, seja pelo iniciar ou pela próxima partida criada no finalizar; depois disso, saber o
+ * time de quem marcou não vai ao banco. O rodízio e a remontagem dos times descartam os índices
+ * do evento; uma partida sem índice (ex.: após reiniciar a aplicação) é indexada no primeiro uso.
+ */
+@Component
+public class ElencosPartidas {
+
+  //time não encontrado: jogador fora dos dois times da partida
+  public static final long FORA_DA_PARTIDA = -1L;
+
+  private final InscricaoRepository inscricaoRepository;
+  private final LruCache<Chave, MapaLongLong> indices;
+
+  public ElencosPartidas(
+    InscricaoRepository inscricaoRepository,
+    @Value("${partidas.elencos.tamanho-maximo:2000}") int tamanhoMaximo,
+    @Value("${partidas.elencos.ttl-horas:12}") long ttlHoras,
+    MeterRegistry meterRegistry) {
+    this.inscricaoRepository = inscricaoRepository;
+    this.indices = new LruCache<>(tamanhoMaximo, Duration.ofHours(ttlHoras));
+    CacheMetricas.registrar(meterRegistry, "partidas.elencos", indices);
+  }
+
+  //(re)monta o índice da partida que está começando; desfeito junto com a transação
+  public void indexar(Partida partida) {
+    Chave chave = chave(partida);
+    indices.put(chave, montar(partida));
+    AposCommit.seDesfeita(() -> indices.invalidar(chave));
+  }
+
+  //time do jogador nesta partida (A ou B), ou FORA_DA_PARTIDA
+  public long timeDoJogador(Partida partida, long jogadorId) {
+    return elenco(partida).get(jogadorId, FORA_DA_PARTIDA);
+  }
+
+  //índice inteiro da partida, só para leitura
+  public MapaLongLong elenco(Partida partida) {
+    return indices.get(chave(partida), c -> montar(partida));
+  }
+
+  //partida encerrada: o índice não é mais usado
+  public void descartar(Partida partida) {
+    Chave chave = chave(partida);
+    AposCommit.executar(() -> indices.invalidar(chave));
+  }
+
+  //rodízio: roda na vez do evento, e a próxima partida é indexada depois, na mesma transação
+  public void rodizioFeito(Long eventoId) {
+    indices.invalidarSe(chave -> chave.eventoId() == eventoId);
+  }
+
+  //times remontados ou inscrição removida, fora da vez do evento: descarta agora e após o commit
+  public void invalidarEvento(Long eventoId) {
+    rodizioFeito(eventoId);
+    AposCommit.executar(() -> rodizioFeito(eventoId));
+  }
+
+  private MapaLongLong montar(Partida partida) {
+    List<Object[]> linhas = inscricaoRepository.listarJogadorETimePorTimes(
+      List.of(partida.getTimeA().getId(), partida.getTimeB().getId()));
+    MapaLongLong mapa = new MapaLongLong(linhas.size());
+    for (Object[] linha : linhas) {
+      mapa.put((Long) linha[0], (Long) linha[1]);
+    }
+    return mapa;
+  }
+
+  private static Chave chave(Partida partida) {
+    return new Chave(partida.getEvento().getId(), partida.getId());
+  }
+
+  private record Chave(long eventoId, long partidaId) {}
+}
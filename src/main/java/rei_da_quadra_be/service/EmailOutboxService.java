@@ -0,0 +1,172 @@
+package rei_da_quadra_be.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei_da_quadra_be.enums.StatusEmail;
+import rei_da_quadra_be.enums.TipoEmail;
+import rei_da_quadra_be.model.EmailPendente;
+import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.repository.EmailPendenteRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Envio assíncrono de e-mails (padrão outbox).
+ * Cadastro e recuperação de senha só gravam a linha em email_outbox, na mesma transação;
+ * o despacho acontece aqui, em lote, sem segurar a thread da requisição nem uma conexão do banco no SMTP.
+ */
+@Service
+public class EmailOutboxService {
+
+  @Autowired
+  private EmailPendenteRepository emailRepository;
+
+  @Autowired
+  private EmailService emailService;
+
+  @Autowired
+  private TransactionTemplate transacao;
+
+  @Value("${email.outbox.tamanho-lote:50}")
+  private int tamanhoLote;
+
+  @Value("${email.outbox.max-tentativas:5}")
+  private int maxTentativas;
+
+  @Value("${email.outbox.backoff-inicial-segundos:30}")
+  private long backoffInicialSegundos;
+
+  // prazo da reserva do lote durante o envio; maior que o pior caso do SMTP para o lote inteiro
+  @Value("${email.outbox.reserva-segundos:600}")
+  private long reservaSegundos;
+
+  public void enfileirarConfirmacao(User user, String token) {
+    enfileirar(TipoEmail.CONFIRMACAO_CADASTRO, user, token);
+  }
+
+  public void enfileirarRecuperacao(User user, String token) {
+    enfileirar(TipoEmail.RECUPERACAO_SENHA, user, token);
+  }
+
+  private void enfileirar(TipoEmail tipo, User user, String token) {
+    EmailPendente email = new EmailPendente();
+    email.setTipo(tipo);
+    email.setDestinatario(user.getEmail());
+    email.setNomeDestinatario(user.getNome());
+    email.setToken(token);
+    emailRepository.save(email);
+  }
+
+  /*
+   * Três passos, para nenhuma conexão do pool nem trava de linha ficar presa durante o SMTP:
+   * 1. transação curta: reserva o lote (SKIP LOCKED) adiando proxima_tentativa pelo prazo da reserva,
+   *    então outra execução não pega as mesmas linhas enquanto elas estão sendo enviadas;
+   * 2. envio, sem transação;
+   * 3. transação curta: grava ENVIADO ou o backoff/FALHOU de cada e-mail.
+   * Se a aplicação cair entre 2 e 3, os e-mails voltam para a fila quando a reserva vencer.
+   */
+  @Scheduled(fixedDelayString = "${email.outbox.intervalo-ms:2000}")
+  public void despacharPendentes() {
+    List<EmailPendente> lote = transacao.execute(status -> reservarLote());
+    if (lote == null || lote.isEmpty()) {
+      return;
+    }
+
+    //monta as mensagens; erro de montagem conta como falha daquele e-mail apenas
+    Map<MimeMessage, EmailPendente> mensagens = new LinkedHashMap<>(); // mantém a ordem de criação no envio
+    for (EmailPendente email : lote) {
+      try {
+        mensagens.put(montarMensagem(email), email);
+      } catch (MessagingException e) {
+        registrarFalha(email, e);
+      }
+    }
+
+    Set<EmailPendente> falharam = new HashSet<>();
+    if (!mensagens.isEmpty()) {
+      try {
+        emailService.enviar(mensagens.keySet().toArray(new MimeMessage[0]));
+      } catch (MailSendException e) {
+        //falha parcial: só as mensagens listadas falharam, as demais foram entregues
+        Map<Object, Exception> falhas = e.getFailedMessages();
+        if (falhas.isEmpty()) {
+          falharam.addAll(mensagens.values());
+          falharam.forEach(email -> registrarFalha(email, e));
+        } else {
+          falhas.forEach((mensagem, erro) -> {
+            EmailPendente email = mensagens.get(mensagem);
+            if (email != null && falharam.add(email)) {
+              registrarFalha(email, erro);
+            }
+          });
+        }
+      } catch (MailException e) {
+        //ex.: falha de autenticação, o lote inteiro volta para a fila
+        falharam.addAll(mensagens.values());
+        falharam.forEach(email -> registrarFalha(email, e));
+      }
+    }
+
+    LocalDateTime agora = LocalDateTime.now();
+    for (EmailPendente email : mensagens.values()) {
+      if (!falharam.contains(email)) {
+        email.setStatus(StatusEmail.ENVIADO);
+        email.setDataEnvio(agora);
+        email.setUltimoErro(null);
+      }
+    }
+
+    transacao.executeWithoutResult(status -> emailRepository.saveAll(lote));
+  }
+
+  private List<EmailPendente> reservarLote() {
+    LocalDateTime agora = LocalDateTime.now();
+    List<EmailPendente> lote = emailRepository.buscarLoteParaEnvio(agora, tamanhoLote);
+    if (lote.isEmpty()) {
+      return lote;
+    }
+    LocalDateTime reservadoAte = agora.plusSeconds(reservaSegundos);
+    for (EmailPendente email : lote) {
+      email.setProximaTentativa(reservadoAte);
+    }
+    emailRepository.saveAll(lote);
+    return lote;
+  }
+
+  private MimeMessage montarMensagem(EmailPendente email) throws MessagingException {
+    return switch (email.getTipo()) {
+      case CONFIRMACAO_CADASTRO ->
+        emailService.montarEmailConfirmacao(email.getDestinatario(), email.getNomeDestinatario(), email.getToken());
+      case RECUPERACAO_SENHA ->
+        emailService.montarEmailRecuperacao(email.getDestinatario(), email.getNomeDestinatario(), email.getToken());
+    };
+  }
+
+  //backoff exponencial; esgotadas as tentativas o e-mail vai para FALHOU (dead-letter)
+  private void registrarFalha(EmailPendente email, Exception erro) {
+    int tentativas = email.getTentativas() + 1;
+    email.setTentativas(tentativas);
+
+    String mensagem = String.valueOf(erro.getMessage());
+    email.setUltimoErro(mensagem.length() > 500 ? mensagem.substring(0, 500) : mensagem);
+
+    if (tentativas >= maxTentativas) {
+      email.setStatus(StatusEmail.FALHOU);
+    } else {
+      long espera = backoffInicialSegundos << (tentativas - 1);
+      email.setProximaTentativa(LocalDateTime.now().plusSeconds(espera));
+    }
+  }
+}
@@ -1,137 +1,75 @@
 package rei_da_quadra_be.service;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import rei_da_quadra_be.model.User;
+import org.springframework.web.util.HtmlUtils;
+import rei_da_quadra_be.utils.TemplateEmail;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Map;
 
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private static final String ASSUNTO_CONFIRMACAO = "Confirme seu cadastro - Rei da Quadra Club";
+    private static final String ASSUNTO_RECUPERACAO = "Redefinição de Senha - Rei da Quadra Club";
 
-    // Pega o e-mail configurado no application.properties (spring.mail.username)
-    // Isso garante que o 'From' seja o mesmo da autenticação SMTP.
-    @Value("${spring.mail.username}")
-    private String remetente;
+    private static final String LINK_CONFIRMACAO = "http://localhost:4200/confirm-email?token=";
+    // Link aponta para a futura tela onde a pessoa digita a nova senha
+    private static final String LINK_RECUPERACAO = "http://localhost:4200/reset-password?token=";
 
-    public void enviarEmailConfirmacao(User user, String token) throws MessagingException, UnsupportedEncodingException {
+    // Logo hospedada no Imgur pra aparecer no email
+    private static final Map<String, String> CONSTANTES = Map.of("logoUrl", "https://i.imgur.com/xX9K3yG.png");
 
-        String assunto = "Confirme seu cadastro - Rei da Quadra Club";
-        String linkConfirmacao = "http://localhost:4200/confirm-email?token=" + token;
+    // Templates lidos e compilados uma vez no start; a logo já fica embutida no cabeçalho
+    private static final TemplateEmail TEMPLATE_CONFIRMACAO =
+        TemplateEmail.carregar("templates/email/confirmacao-cadastro.html", CONSTANTES, "nome", "link");
+    private static final TemplateEmail TEMPLATE_RECUPERACAO =
+        TemplateEmail.carregar("templates/email/recuperacao-senha.html", CONSTANTES, "nome", "link");
 
-        // Logo hospedada no Imgur pra aparecer no email
-        String logoUrl = "https://i.imgur.com/xX9K3yG.png";
+    private final JavaMailSender mailSender;
 
-        String corpo = """
-            <div style="font-family: Arial, sans-serif; background-color: #f4f4f4; padding: 35px;">
-                <div style="max-width: 650px; margin: auto; background: #ffffff; 
-                            border-radius: 12px; padding: 35px; box-shadow: 0 4px 12px rgba(0,0,0,0.10);">
+    // Remetente com nome personalizado, montado uma vez.
+    // O e-mail vem do application.properties (spring.mail.username),
+    // isso garante que o 'From' seja o mesmo da autenticação SMTP.
+    private final InternetAddress remetente;
 
-                    <div style="text-align: center; margin-bottom: 25px;">
-                        <img src='%s' alt='Rei da Quadra Club' 
-                             style='max-width: 180px; width: 100%%; height: auto;' />
-                    </div>
-
-                    <h2 style="color: #283040; text-align: left; font-size: 22px;">
-                        Olá, <strong>%s</strong>!
-                    </h2>
-
-                    <p style="font-size: 16px; color: #444; line-height: 1.6;">
-                        Seu cadastro no <strong>Rei da Quadra Club</strong> está quase pronto!<br><br>
-                        Por favor, confirme seu e-mail clicando no botão abaixo:
-                    </p>
-
-                    <div style="text-align: center; margin: 30px 0;">
-                        <a href="%s" 
-                           style="background-color: #283040; color: white; text-decoration: none; 
-                                  padding: 15px 35px; border-radius: 6px; 
-                                  font-weight: bold; font-size: 16px; display: inline-block;">
-                           Confirmar meu E-mail
-                        </a>
-                    </div>
-
-                    <hr style="border: none; border-top: 1px solid #ddd; margin: 30px 0;">
+    public EmailService(JavaMailSender mailSender,
+                        @Value("${spring.mail.username}") String remetente) throws UnsupportedEncodingException {
+        this.mailSender = mailSender;
+        this.remetente = new InternetAddress(remetente, "Rei da Quadra Club", "UTF-8");
+    }
 
-                    <p style="font-size: 14px; color: #666; line-height: 1.6;">
-                        Se você não se cadastrou, por favor ignore este e-mail.<br>
-                        Este e-mail foi enviado automaticamente. Não responda a esta mensagem.
-                    </p>
+    public MimeMessage montarEmailConfirmacao(String destinatario, String nome, String token) throws MessagingException {
+        String corpo = TEMPLATE_CONFIRMACAO.renderizar(HtmlUtils.htmlEscape(nome), LINK_CONFIRMACAO + token);
+        return montarMensagem(destinatario, ASSUNTO_CONFIRMACAO, corpo);
+    }
 
-                </div>
-            </div>
-            """.formatted(logoUrl, user.getNome(), linkConfirmacao);
+    public MimeMessage montarEmailRecuperacao(String destinatario, String nome, String token) throws MessagingException {
+        String corpo = TEMPLATE_RECUPERACAO.renderizar(HtmlUtils.htmlEscape(nome), LINK_RECUPERACAO + token);
+        return montarMensagem(destinatario, ASSUNTO_RECUPERACAO, corpo);
+    }
 
+    private MimeMessage montarMensagem(String destinatario, String assunto, String corpo) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
-        // 'true' indica multipart (para HTML) e 'UTF-8' garante acentuação correta
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        // corpo só em HTML, sem anexos: não precisa de multipart. 'UTF-8' garante acentuação correta
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
 
-        helper.setFrom(remetente, "Rei da Quadra Club"); // Configura o remetente com Nome Personalizado
-
-        helper.setTo(user.getEmail());
+        helper.setFrom(remetente);
+        helper.setTo(destinatario);
         helper.setSubject(assunto);
         helper.setText(corpo, true);
 
-        mailSender.send(message);
+        return message;
     }
-    public void enviarEmailRecuperacao(User user, String token) throws MessagingException, UnsupportedEncodingException {
-        String assunto = "Redefinição de Senha - Rei da Quadra Club";
-        // Link aponta para a futura tela onde a pessoa digita a nova senha
-        String linkRecuperacao = "http://localhost:4200/reset-password?token=" + token;
-        String logoUrl = "https://i.imgur.com/xX9K3yG.png";
-
-        String corpo = """
-            <div style="font-family: Arial, sans-serif; background-color: #f4f4f4; padding: 35px;">
-                <div style="max-width: 650px; margin: auto; background: #ffffff; 
-                            border-radius: 12px; padding: 35px; box-shadow: 0 4px 12px rgba(0,0,0,0.10);">
-
-                    <div style="text-align: center; margin-bottom: 25px;">
-                        <img src='%s' alt='Rei da Quadra Club' 
-                             style='max-width: 180px; width: 100%%; height: auto;' />
-                    </div>
-
-                    <h2 style="color: #283040; text-align: left; font-size: 22px;">
-                        Olá, <strong>%s</strong>.
-                    </h2>
-
-                    <p style="font-size: 16px; color: #444; line-height: 1.6;">
-                        Recebemos uma solicitação para redefinir sua senha.<br>
-                        Clique no botão abaixo para criar uma nova senha:
-                    </p>
-
-                    <div style="text-align: center; margin: 30px 0;">
-                        <a href="%s" 
-                           style="background-color: #d32f2f; color: white; text-decoration: none; 
-                                  padding: 15px 35px; border-radius: 6px; 
-                                  font-weight: bold; font-size: 16px; display: inline-block;">
-                           Redefinir Minha Senha
-                        </a>
-                    </div>
-
-                    <hr style="border: none; border-top: 1px solid #ddd; margin: 30px 0;">
-
-                    <p style="font-size: 14px; color: #666; line-height: 1.6;">
-                        Se você não solicitou redefinição de senha, ignore este e-mail. Sua senha permanecerá a mesma.
-                    </p>
-                </div>
-            </div>
-            """.formatted(logoUrl, user.getNome(), linkRecuperacao);
-
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom(remetente, "Rei da Quadra Club"); //Pra mostrar o nome personalizado do remetente
-        helper.setTo(user.getEmail());
-        helper.setSubject(assunto);
-        helper.setText(corpo, true);
 
-        mailSender.send(message);
+    // envia todas as mensagens reaproveitando uma única conexão SMTP
+    public void enviar(MimeMessage... mensagens) {
+        mailSender.send(mensagens);
     }
-}
\ No newline at end of file
+}
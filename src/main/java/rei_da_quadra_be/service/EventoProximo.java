@@ -0,0 +1,70 @@
+package rei_da_quadra_be.service;
+
+import rei_da_quadra_be.service.exception.CursorInvalidoException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Posição de um evento na ordem da busca de próximos: data (em microssegundos, a precisão do
+ * timestamptz), distância e id como desempate final.
+ *
+ * A posição do último evento de uma página é o cursor da próxima, entregue ao cliente codificada
+ * em base64 (opaca); a próxima página busca apenas o que vem depois dela.
+ */
+public record EventoProximo(long id, long instanteMicros, double distanciaKm) {
+
+  public static final Comparator<EventoProximo> ORDEM = Comparator
+    .comparingLong(EventoProximo::instanteMicros)
+    .thenComparingDouble(EventoProximo::distanciaKm)
+    .thenComparingLong(EventoProximo::id);
+
+  private static final int TAMANHO_CURSOR = 3 * Long.BYTES;
+
+  // posição anterior a qualquer evento a partir de inicio: usada na primeira página
+  public static EventoProximo antesDe(OffsetDateTime inicio) {
+    return new EventoProximo(-1, paraMicros(inicio), -1.0);
+  }
+
+  public OffsetDateTime dataHorario() {
+    return Instant.ofEpochSecond(Math.floorDiv(instanteMicros, 1_000_000L), Math.floorMod(instanteMicros, 1_000_000L) * 1_000L)
+      .atOffset(ZoneOffset.UTC);
+  }
+
+  public String paraCursor() {
+    ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CURSOR)
+      .putLong(instanteMicros)
+      .putLong(Double.doubleToLongBits(distanciaKm)) //bits exatos: a comparação no banco é por igualdade
+      .putLong(id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  public static EventoProximo deCursor(String cursor) {
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new CursorInvalidoException("Cursor inválido");
+    }
+    if (bytes.length != TAMANHO_CURSOR) {
+      throw new CursorInvalidoException("Cursor inválido");
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    long instante = buffer.getLong();
+    double distancia = Double.longBitsToDouble(buffer.getLong());
+    long id = buffer.getLong();
+    if (Double.isNaN(distancia)) {
+      throw new CursorInvalidoException("Cursor inválido");
+    }
+    return new EventoProximo(id, instante, distancia);
+  }
+
+  public static long paraMicros(OffsetDateTime data) {
+    Instant instante = data.toInstant();
+    return Math.addExact(Math.multiplyExact(instante.getEpochSecond(), 1_000_000L), instante.getNano() / 1_000L);
+  }
+}
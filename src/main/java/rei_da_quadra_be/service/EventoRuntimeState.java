@@ -0,0 +1,151 @@
+package rei_da_quadra_be.service;
+
+import rei_da_quadra_be.enums.StatusTime;
+import rei_da_quadra_be.model.Inscricao;
+import rei_da_quadra_be.model.Time;
+import rei_da_quadra_be.repository.ResumoTime;
+import rei_da_quadra_be.service.exception.TimeDeEsperaNaoConfiguradoException;
+
+import java.util.*;
+
+/**
+ * Retrato em memória dos times de um evento durante o fim de partida.
+ *
+ * Só os dois times da partida têm o elenco carregado como entidades; o banco (time de espera) é
+ * lido das filas do MotorRodizio e os demais times entram apenas com os totais agregados no banco
+ * (InscricaoRepository.resumirPorTime). Rodízio, Elo e escolha do desafiante leem e alteram só
+ * este retrato. As inscrições e os jogadores carregados são entidades gerenciadas, então o flush
+ * grava apenas as linhas alteradas.
+ */
+final class EventoRuntimeState {
+
+  // Pontuação usada como média de um time sem jogadores
+  private static final double MEDIA_TIME_VAZIO = 1000.0;
+
+  private static final Comparator<Inscricao> POR_ID = Comparator.comparing(Inscricao::getId);
+
+  private final List<Time> times;
+  private final Map<Long, List<Inscricao>> elencos;
+  private final Map<Long, ResumoTime> resumos;
+  private final Time timeEspera;
+
+  private EventoRuntimeState(List<Time> times, Map<Long, List<Inscricao>> elencos, Map<Long, ResumoTime> resumos,
+                             Time timeEspera) {
+    this.times = times;
+    this.elencos = elencos;
+    this.resumos = resumos;
+    this.timeEspera = timeEspera;
+  }
+
+  /**
+   * @param times            todos os times do evento, em ordem de id
+   * @param timesComElenco   times cujo elenco foi carregado
+   * @param inscricoes       inscrições desses times, com jogador, em ordem de id
+   * @param resumos          totais por time do evento
+   */
+  static EventoRuntimeState de(List<Time> times, Collection<Long> timesComElenco, List<Inscricao> inscricoes,
+                               List<ResumoTime> resumos) {
+    Map<Long, List<Inscricao>> elencos = new HashMap<>();
+    for (Long id : timesComElenco) {
+      elencos.put(id, new ArrayList<>());
+    }
+    for (Inscricao inscricao : inscricoes) {
+      elencos.get(inscricao.getTimeAtual().getId()).add(inscricao);
+    }
+    Map<Long, ResumoTime> porTime = new HashMap<>(resumos.size() * 2);
+    for (ResumoTime resumo : resumos) {
+      porTime.put(resumo.timeId(), resumo);
+    }
+    return new EventoRuntimeState(List.copyOf(times), elencos, porTime, timeEspera(times));
+  }
+
+  //primeiro time de espera do evento; null se não houver
+  static Time timeEspera(List<Time> times) {
+    for (Time time : times) {
+      if (Boolean.TRUE.equals(time.getTimeDeEspera())) {
+        return time;
+      }
+    }
+    return null;
+  }
+
+  Time timeEspera() {
+    if (timeEspera == null) {
+      throw new TimeDeEsperaNaoConfiguradoException("Time de espera não configurado");
+    }
+    return timeEspera;
+  }
+
+  //jogadores atualmente no time (a lista reflete as trocas já feitas); exige elenco carregado
+  List<Inscricao> elenco(Time time) {
+    List<Inscricao> elenco = elencos.get(time.getId());
+    if (elenco == null) {
+      throw new IllegalStateException("Elenco do time " + time.getId() + " não foi carregado");
+    }
+    return Collections.unmodifiableList(elenco);
+  }
+
+  //times que podem ser desafiantes: ativos e fora da espera, em ordem de id
+  List<Time> timesAtivos() {
+    return times.stream()
+      .filter(t -> !t.getTimeDeEspera() && t.getStatus() == StatusTime.ATIVO)
+      .toList();
+  }
+
+  //do elenco em memória quando carregado (reflete o fim de partida), senão do resumo do banco
+  int partidasJogadas(Time time) {
+    List<Inscricao> elenco = elencos.get(time.getId());
+    if (elenco == null) {
+      ResumoTime resumo = resumos.get(time.getId());
+      return resumo == null ? 0 : Math.toIntExact(resumo.partidasJogadas());
+    }
+    int soma = 0;
+    for (Inscricao inscricao : elenco) {
+      soma += inscricao.getPartidasJogadas();
+    }
+    return soma;
+  }
+
+  double mediaPontos(Time time) {
+    List<Inscricao> elenco = elencos.get(time.getId());
+    if (elenco == null) {
+      ResumoTime resumo = resumos.get(time.getId());
+      return resumo == null ? MEDIA_TIME_VAZIO : resumo.mediaPontos();
+    }
+    if (elenco.isEmpty()) {
+      return MEDIA_TIME_VAZIO;
+    }
+    double soma = 0;
+    for (Inscricao inscricao : elenco) {
+      soma += inscricao.getJogador().getPontosHabilidade();
+    }
+    return soma / elenco.size();
+  }
+
+  //inscrição do elenco carregado do time, pelo id; null se não estiver nele
+  Inscricao inscricao(Time time, Long inscricaoId) {
+    for (Inscricao inscricao : elenco(time)) {
+      if (inscricao.getId().equals(inscricaoId)) {
+        return inscricao;
+      }
+    }
+    return null;
+  }
+
+  //move a inscrição de time; elencos carregados mantêm a ordem por id, os demais só o registro
+  void mover(Inscricao inscricao, Time destino) {
+    Time origem = inscricao.getTimeAtual();
+    if (origem != null) {
+      List<Inscricao> elencoOrigem = elencos.get(origem.getId());
+      if (elencoOrigem != null) {
+        elencoOrigem.remove(inscricao);
+      }
+    }
+    inscricao.setTimeAtual(destino);
+    List<Inscricao> elencoDestino = elencos.get(destino.getId());
+    if (elencoDestino != null) {
+      int posicao = Collections.binarySearch(elencoDestino, inscricao, POR_ID);
+      elencoDestino.add(posicao < 0 ? -posicao - 1 : posicao, inscricao);
+    }
+  }
+}
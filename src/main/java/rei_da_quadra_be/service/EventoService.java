@@ -9,23 +9,36 @@ import rei_da_quadra_be.model.Evento;
 import rei_da_quadra_be.model.User;
 import rei_da_quadra_be.repository.EventoRepository;
 import rei_da_quadra_be.service.exception.EventoNaoEncontradoException;
+import rei_da_quadra_be.utils.AtualizadorParcial;
+import rei_da_quadra_be.utils.GeoUtils;
 
-import java.lang.reflect.Field;
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class EventoService {
+    private static final double RAIO_BUSCA_KM = 300.0;
+
+    // campos do evento alteráveis via PATCH; id, usuario, dataCriacao e as coleções ficam de fora
+    private static final AtualizadorParcial<Evento> ATUALIZADOR_EVENTO = AtualizadorParcial.para(Evento.class,
+            "dataHorarioEvento", "nome", "localEvento", "latitude", "longitude", "jogadoresPorTime",
+            "totalPartidasDefinidas", "status", "corPrimaria", "corSecundaria");
+
     private final EventoRepository eventoRepository;
+    private final IndiceGeoEventos indiceGeoEventos;
+    private final CacheEventosProximos cacheEventosProximos;
 
     public Evento salvarEvento(Evento evento, User usuario) {
         evento.setUsuario(usuario);
-        return eventoRepository.save(evento);
+        Evento salvo = eventoRepository.save(evento);
+        registrarAlteracao(salvo, null, null);
+        return salvo;
     }
 
     public List<Evento> listarEventosDoUsuario(User usuario) {
@@ -35,26 +48,93 @@ public class EventoService {
     /**
      * Busca eventos próximos (Raio 300km) que ocorrerão nos próximos 100 dias.
      * Filtra apenas eventos com status ATIVO.
+     * Paginada por cursor: sem cursor traz a primeira página; o cursor devolvido (null na última)
+     * traz a seguinte com o mesmo custo, sem reordenar o que já foi entregue.
+     * Com o índice em memória pronto, o banco só carrega os eventos escolhidos por ele.
+     * Buscas repetidas na mesma região e janela de tempo saem do CacheEventosProximos.
      */
-    public List<Evento> buscarEventosProximos(Double lat, Double lon, int limitSize) {
-        OffsetDateTime agora = OffsetDateTime.now();
+    public PaginaEventos buscarEventosProximos(Double lat, Double lon, int limitSize, String cursor) {
+        boolean primeiraPagina = cursor == null || cursor.isBlank();
+        EventoProximo cursorRecebido = primeiraPagina ? null : EventoProximo.deCursor(cursor);
+
+        List<EventoProximo> posicoes = cacheEventosProximos.buscar(lat, lon, limitSize, primeiraPagina ? null : cursor,
+                consulta -> buscarPosicoes(consulta, cursorRecebido, limitSize));
+
+        String proximoCursor = posicoes.size() == limitSize
+                ? posicoes.get(posicoes.size() - 1).paraCursor()
+                : null;
+        return new PaginaEventos(carregarNaOrdem(posicoes), proximoCursor);
+    }
+
+    private List<EventoProximo> buscarPosicoes(CacheEventosProximos.Consulta consulta, EventoProximo cursor, int limitSize) {
+        OffsetDateTime agora = consulta.agora();
         OffsetDateTime limiteData = agora.plusDays(100);
+        Double raio = RAIO_BUSCA_KM; //300km
+        EventoProximo apos = cursor == null ? EventoProximo.antesDe(agora) : cursor;
 
-        // Usa o limite dinâmico recebido do Controller
+        return indiceGeoEventos.isPronto()
+                ? indiceGeoEventos.buscar(consulta.latitude(), consulta.longitude(), raio, apos, limiteData, limitSize)
+                : buscarPosicoesNoBanco(consulta.latitude(), consulta.longitude(), raio, apos, agora, limiteData, limitSize);
+    }
+
+    private List<EventoProximo> buscarPosicoesNoBanco(Double lat, Double lon, Double raio, EventoProximo apos,
+                                                      OffsetDateTime agora, OffsetDateTime limiteData, int limitSize) {
+        // Usa o limite dinâmico recebido do Controller; a página é sempre a 0, o cursor faz o avanço
         PageRequest limit = PageRequest.of(0, limitSize);
-        Double raio = 300.0; //300km
+        GeoUtils.CaixaDelimitadora caixa = GeoUtils.caixaDelimitadora(lat, lon, raio);
+        // a faixa de datas começa no cursor: o índice busca direto a partir da página anterior,
+        // em vez de percorrer desde "agora" tudo o que já foi entregue
+        OffsetDateTime inicio = apos.dataHorario().isAfter(agora) ? apos.dataHorario() : agora;
 
-        return eventoRepository.buscarEventosProximos(
+        List<Object[]> linhas = eventoRepository.buscarEventosProximos(
                 lat,
                 lon,
                 raio,
+                caixa.latMin(),
+                caixa.latMax(),
+                caixa.lonMin(),
+                caixa.lonMax(),
                 StatusEvento.ATIVO,
-                agora,
+                inicio,
                 limiteData,
+                apos.dataHorario(),
+                apos.distanciaKm(),
+                apos.id(),
                 limit
         );
+
+        List<EventoProximo> posicoes = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            posicoes.add(new EventoProximo(
+                    ((Number) linha[0]).longValue(),
+                    ((Number) linha[1]).longValue(),
+                    ((Number) linha[2]).doubleValue()));
+        }
+        return posicoes;
+    }
+
+    // o IN não preserva a ordem dos ids; status rechecado caso outra instância tenha finalizado o evento
+    private List<Evento> carregarNaOrdem(List<EventoProximo> posicoes) {
+        if (posicoes.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = posicoes.stream().map(EventoProximo::id).toList();
+        Map<Long, Evento> porId = new HashMap<>();
+        for (Evento evento : eventoRepository.buscarComUsuarioPorIds(ids)) {
+            porId.put(evento.getId(), evento);
+        }
+        List<Evento> eventos = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Evento evento = porId.get(id);
+            if (evento != null && evento.getStatus() == StatusEvento.ATIVO) {
+                eventos.add(evento);
+            }
+        }
+        return eventos;
     }
 
+    public record PaginaEventos(List<Evento> eventos, String proximoCursor) {}
+
     public Optional<Evento> buscarEventoPorId(Long id) {
         return eventoRepository.findById(id);
     }
@@ -68,6 +148,8 @@ public class EventoService {
         }
 
         eventoRepository.delete(evento);
+        indiceGeoEventos.remover(id);
+        cacheEventosProximos.invalidarAoRedor(evento.getLatitude(), evento.getLongitude(), RAIO_BUSCA_KM);
     }
 
     @Transactional
@@ -81,6 +163,7 @@ public class EventoService {
 
         evento.setStatus(StatusEvento.FINALIZADO);
         eventoRepository.save(evento);
+        registrarAlteracao(evento, null, null);
     }
 
     public Evento atualizaEventoParcial(Long id, Map<String, Object> fields, User usuario) {
@@ -91,37 +174,24 @@ public class EventoService {
             throw new SecurityException("Acesso negado: você não pode alterar um evento de outro usuário.");
         }
 
-        Class<?> clazz = Evento.class;
-
-        // para cada campo da classe evento
-        fields.forEach((key, value) -> {
-            try {
-                if (key.equals("id") || key.equals("usuario")) {
-                    return; // Pula para a próxima iteração
-                }
-
-                Field field = clazz.getDeclaredField(key);
-
-                field.setAccessible(true);
-
-                if (field.getType().equals(LocalDateTime.class) && value instanceof String) {
-                    try {
-                        LocalDateTime parsedDate = LocalDateTime.parse((String) value);
-                        field.set(eventoExistente, parsedDate);
-                    } catch (DateTimeParseException e) {
-                        System.err.println("Formato de data inválido para o campo '" + key + "'.");
-                    }
-                } else {
-                    field.set(eventoExistente, value);
-                }
-
-            } catch (NoSuchFieldException e) {
-                System.err.println("Campo não encontrado na entidade Evento: " + key);
-            } catch (IllegalAccessException e) {
-                System.err.println("Não foi possível acessar o campo: " + key);
-            }
-        });
+        // posição antes da alteração: se o evento mudar de lugar, a região antiga também é invalidada
+        Double latitudeAnterior = eventoExistente.getLatitude();
+        Double longitudeAnterior = eventoExistente.getLongitude();
+
+        // valida o patch inteiro antes de escrever; campo inválido vira CampoInvalidoException (400)
+        ATUALIZADOR_EVENTO.aplicar(eventoExistente, fields);
 
-        return eventoRepository.save(eventoExistente);
+        Evento salvo = eventoRepository.save(eventoExistente);
+        registrarAlteracao(salvo, latitudeAnterior, longitudeAnterior);
+        return salvo;
+    }
+
+    // o índice é atualizado antes de invalidar o cache, para que uma busca refeita já veja o estado novo
+    private void registrarAlteracao(Evento evento, Double latitudeAnterior, Double longitudeAnterior) {
+        indiceGeoEventos.atualizar(evento);
+        cacheEventosProximos.invalidarAoRedor(evento.getLatitude(), evento.getLongitude(), RAIO_BUSCA_KM);
+        if (!Objects.equals(latitudeAnterior, evento.getLatitude()) || !Objects.equals(longitudeAnterior, evento.getLongitude())) {
+            cacheEventosProximos.invalidarAoRedor(latitudeAnterior, longitudeAnterior, RAIO_BUSCA_KM);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.service.exception.EventoOcupadoException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Executa os comandos do ciclo de vida das partidas (iniciar, registrar ação, finalizar...) um de
+ * cada vez por evento, na ordem de chegada; eventos diferentes seguem em paralelo.
+ *
+ * Cada evento tem uma trava justa, criada no primeiro comando e descartada quando ninguém mais a
+ * usa. O comando deve abrir e fechar a própria transação dentro de {@link #executar}: a trava só é
+ * liberada depois do commit, então o próximo comando já lê o estado gravado (ex.: a segunda
+ * finalização da mesma partida encontra o status JOGADA e é recusada).
+ *
+ * Métricas: eventos.comandos.aguardando (comandos na fila, todos os eventos),
+ * eventos.comandos.fila (profundidade da fila do evento na chegada de cada comando) e
+ * eventos.comandos.espera (tempo até a vez do comando).
+ */
+@Component
+public class ExecutorComandosEvento {
+
+  private final ConcurrentHashMap<Long, Trava> travas = new ConcurrentHashMap<>();
+  private final AtomicInteger aguardando = new AtomicInteger();
+  private final long timeoutMs;
+  private final DistributionSummary fila;
+  private final Timer espera;
+
+  public ExecutorComandosEvento(
+    @Value("${eventos.comandos.timeout-ms:10000}") long timeoutMs,
+    MeterRegistry meterRegistry) {
+    this.timeoutMs = timeoutMs;
+    meterRegistry.gauge("eventos.comandos.aguardando", aguardando);
+    meterRegistry.gauge("eventos.comandos.eventos-ativos", travas, ConcurrentHashMap::size);
+    this.fila = DistributionSummary.builder("eventos.comandos.fila").register(meterRegistry);
+    this.espera = Timer.builder("eventos.comandos.espera").register(meterRegistry);
+  }
+
+  /**
+   * Executa o comando quando chegar a vez dele no evento.
+   *
+   * @throws EventoOcupadoException se a vez não chegar dentro de eventos.comandos.timeout-ms
+   */
+  public <T> T executar(Long eventoId, Supplier<T> comando) {
+    Trava trava = travas.compute(eventoId, (id, atual) -> {
+      Trava t = atual != null ? atual : new Trava();
+      t.usuarios++;
+      return t;
+    });
+    try {
+      fila.record(trava.lock.getQueueLength() + (trava.lock.isLocked() ? 1 : 0));
+      aguardar(trava);
+      try {
+        return comando.get();
+      } finally {
+        trava.lock.unlock();
+      }
+    } finally {
+      travas.computeIfPresent(eventoId, (id, t) -> --t.usuarios == 0 ? null : t);
+    }
+  }
+
+  public void executar(Long eventoId, Runnable comando) {
+    executar(eventoId, () -> {
+      comando.run();
+      return null;
+    });
+  }
+
+  private void aguardar(Trava trava) {
+    long inicio = System.nanoTime();
+    aguardando.incrementAndGet();
+    boolean adquiriu;
+    try {
+      adquiriu = trava.lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      adquiriu = false;
+    } finally {
+      aguardando.decrementAndGet();
+      espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+    if (!adquiriu) {
+      throw new EventoOcupadoException("O evento está processando outra operação. Tente novamente.");
+    }
+  }
+
+  // usuarios só é alterado dentro de compute/computeIfPresent, que já serializam por chave
+  private static final class Trava {
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private int usuarios;
+  }
+}
@@ -4,22 +4,31 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import rei_da_quadra_be.dto.HistoricoPontuacaoDTO;
+import rei_da_quadra_be.enums.NivelHabilidade;
 import rei_da_quadra_be.enums.TipoAcaoEmJogo;
 import rei_da_quadra_be.model.HistoricoPontuacao;
 import rei_da_quadra_be.model.Partida;
 import rei_da_quadra_be.model.User;
 import rei_da_quadra_be.repository.HistoricoPontuacaoRepository;
-import rei_da_quadra_be.repository.UserRepository;
+import rei_da_quadra_be.repository.PontuacaoRepository;
+import rei_da_quadra_be.service.rodizio.MotorRodizio;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 public class HistoricoPontuacaoService {
 
     private final HistoricoPontuacaoRepository historicoRepository;
-    private final UserRepository userRepository;
+    private final PontuacaoRepository pontuacaoRepository;
+    private final MotorRodizio motorRodizio;
 
     // -------------------------------------
     // REGISTRO DE ALTERAÇÃO DE PONTOS
@@ -31,24 +40,60 @@ public class HistoricoPontuacaoService {
             TipoAcaoEmJogo acao,
             int variacao
     ) {
-        int antes = jogador.getPontosHabilidade();
-        int depois = antes + variacao;
+        registrarAlteracoes(partida, List.of(new Alteracao(jogador, acao, variacao)));
+    }
+
+    // -------------------------------------
+    // ACERTO DE PONTOS (AÇÃO OU FIM DE PARTIDA)
+    // -------------------------------------
+    // todas as variações num único UPDATE atômico (pontos = pontos + variação); antes/depois do
+    // histórico saem do valor devolvido pelo banco, não da entidade, que pode estar desatualizada
+    // se o jogador pontuou em outro evento ao mesmo tempo. Os inserts do histórico vão em lote.
+    @Transactional
+    public void registrarAlteracoes(Partida partida, List<Alteracao> alteracoes) {
+        SortedMap<Long, Integer> variacoes = new TreeMap<>();
+        for (Alteracao alteracao : alteracoes) {
+            variacoes.merge(alteracao.jogador().getId(), alteracao.variacao(), Integer::sum);
+        }
+        Map<Long, Integer> depois = pontuacaoRepository.incrementar(variacoes);
+
+        //pontuação de cada jogador antes da primeira variação desta chamada
+        Map<Long, Integer> corrente = new HashMap<>(depois.size() * 2);
+        depois.forEach((id, pontos) -> corrente.put(id, pontos - variacoes.get(id)));
 
-        jogador.setPontosHabilidade(depois);
-        userRepository.save(jogador);
+        LocalDateTime agora = LocalDateTime.now();
+        List<HistoricoPontuacao> historicos = new ArrayList<>(alteracoes.size());
+        for (Alteracao alteracao : alteracoes) {
+            User jogador = alteracao.jogador();
+            int antes = corrente.merge(jogador.getId(), alteracao.variacao(), Integer::sum) - alteracao.variacao();
+            historicos.add(novoHistorico(jogador, partida, alteracao.acao(), alteracao.variacao(), antes, agora));
 
+            //só espelha o banco: pontos e nível não são atualizáveis pelo Hibernate
+            int pontos = depois.get(jogador.getId());
+            jogador.setPontosHabilidade(pontos);
+            jogador.setNivelHabilidade(NivelHabilidade.dePontos(pontos));
+        }
+
+        historicoRepository.saveAll(historicos);
+        // desempate do banco no rodízio
+        motorRodizio.pontosAlterados(depois);
+    }
+
+    private static HistoricoPontuacao novoHistorico(User jogador, Partida partida, TipoAcaoEmJogo acao, int variacao,
+                                                    int antes, LocalDateTime data) {
         HistoricoPontuacao h = new HistoricoPontuacao();
         h.setJogador(jogador);
         h.setPartida(partida);
         h.setAcao(acao);
         h.setVariacao(variacao);
         h.setPontosAntes(antes);
-        h.setPontosDepois(depois);
-        h.setDataRegistro(java.time.LocalDateTime.now());
-
-        historicoRepository.save(h);
+        h.setPontosDepois(antes + variacao);
+        h.setDataRegistro(data);
+        return h;
     }
 
+    public record Alteracao(User jogador, TipoAcaoEmJogo acao, int variacao) {}
+
     // -------------------------------------
     // LISTAGEM DO EXTRATO PARA O ANGULAR
     // -------------------------------------
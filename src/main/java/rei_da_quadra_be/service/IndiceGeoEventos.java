@@ -0,0 +1,277 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.enums.StatusEvento;
+import rei_da_quadra_be.model.Evento;
+import rei_da_quadra_be.repository.EventoRepository;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.GeoUtils;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória dos eventos ATIVOS, numa grade de células lat/lon de tamanho fixo.
+ *
+ * Cada célula guarda seus eventos ordenados por data. A busca visita só as células que cruzam o
+ * retângulo do raio e, dentro de cada uma, só o trecho da janela de datas; com o resultado já cheio,
+ * para de ler a célula assim que a data passa da pior data aceita. O banco é consultado apenas
+ * para carregar os eventos escolhidos.
+ *
+ * Construído na subida da aplicação e atualizado pelo EventoService a cada alteração (após o commit).
+ * A reconstrução periódica cobre alterações feitas por outras instâncias e descarta eventos já passados.
+ */
+@Component
+public class IndiceGeoEventos {
+
+  private final EventoRepository eventoRepository;
+  private final boolean habilitado;
+  private final double tamanhoCelula;
+  private final int numLinhas;
+  private final int numColunas;
+
+  // trocada por inteiro na reconstrução; leituras não travam
+  private volatile Grade grade;
+
+  // alterações ocorridas durante uma reconstrução, reaplicadas sobre a grade nova
+  private List<Runnable> pendentesDuranteReconstrucao;
+  private final Object travaReconstrucao = new Object();
+
+  public IndiceGeoEventos(
+    EventoRepository eventoRepository,
+    @Value("${eventos.indice-geo.habilitado:true}") boolean habilitado,
+    @Value("${eventos.indice-geo.tamanho-celula-graus:0.5}") double tamanhoCelula,
+    MeterRegistry meterRegistry) {
+    this.eventoRepository = eventoRepository;
+    this.habilitado = habilitado;
+    this.tamanhoCelula = tamanhoCelula;
+    this.numLinhas = (int) Math.ceil(180.0 / tamanhoCelula);
+    this.numColunas = (int) Math.ceil(360.0 / tamanhoCelula);
+    meterRegistry.gauge("eventos.indice.geo.tamanho", this, i -> i.grade == null ? 0 : i.grade.porId.size());
+  }
+
+  public boolean isPronto() {
+    return habilitado && grade != null;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void construirNaSubida() {
+    if (habilitado) {
+      reconstruir();
+    }
+  }
+
+  @Scheduled(
+    initialDelayString = "${eventos.indice-geo.reconstrucao-ms:300000}",
+    fixedDelayString = "${eventos.indice-geo.reconstrucao-ms:300000}")
+  public void reconstruirPeriodicamente() {
+    if (isPronto()) {
+      reconstruir();
+    }
+  }
+
+  public void reconstruir() {
+    synchronized (travaReconstrucao) {
+      synchronized (this) {
+        pendentesDuranteReconstrucao = new ArrayList<>();
+      }
+
+      //a consulta roda fora da trava do índice para não segurar as atualizações incrementais
+      Grade nova = new Grade();
+      for (Object[] linha : eventoRepository.buscarLocalizacoesAtivas(StatusEvento.ATIVO, OffsetDateTime.now())) {
+        EventoIndexado evento = new EventoIndexado(
+          (Long) linha[0], (Double) linha[1], (Double) linha[2], EventoProximo.paraMicros((OffsetDateTime) linha[3]));
+        nova.inserir(evento, chaveCelula(evento.latitude(), evento.longitude()));
+      }
+
+      synchronized (this) {
+        List<Runnable> pendentes = pendentesDuranteReconstrucao;
+        pendentesDuranteReconstrucao = null;
+        grade = nova;
+        pendentes.forEach(Runnable::run);
+      }
+    }
+  }
+
+  /** Reindexa o evento conforme seu estado atual: entra se ATIVO e localizado, sai caso contrário. */
+  public void atualizar(Evento evento) {
+    Long id = evento.getId();
+    if (id == null) {
+      return;
+    }
+    EventoIndexado indexado = indexavel(evento)
+      ? new EventoIndexado(id, evento.getLatitude(), evento.getLongitude(),
+          EventoProximo.paraMicros(evento.getDataHorarioEvento()))
+      : null;
+    aposCommit(() -> aplicar(id, indexado));
+  }
+
+  public void remover(Long id) {
+    aposCommit(() -> aplicar(id, null));
+  }
+
+  /**
+   * Eventos a até raioKm do ponto, com data até fim e posição posterior a {@code apos},
+   * na ordem da busca no banco: data, distância e id.
+   */
+  public List<EventoProximo> buscar(double lat, double lon, double raioKm,
+                                    EventoProximo apos, OffsetDateTime fim, int limite) {
+    Grade atual = grade;
+    if (atual == null || limite <= 0) {
+      return List.of();
+    }
+    long fimMicros = EventoProximo.paraMicros(fim);
+
+    //heap com o pior candidato no topo: o último aceito pela ordem (data, distância, id)
+    PriorityQueue<EventoProximo> melhores = new PriorityQueue<>(limite + 1, EventoProximo.ORDEM.reversed());
+
+    GeoUtils.CaixaDelimitadora caixa = GeoUtils.caixaDelimitadora(lat, lon, raioKm);
+    int linhaMin = linha(caixa.latMin());
+    int linhaMax = linha(caixa.latMax());
+    int colunaMin = coluna(caixa.lonMin());
+    int colunaMax = coluna(caixa.lonMax());
+
+    for (int l = linhaMin; l <= linhaMax; l++) {
+      for (int c = colunaMin; c <= colunaMax; c++) {
+        EventoIndexado[] eventos = atual.celulas.get((long) l * numColunas + c);
+        if (eventos == null) {
+          continue;
+        }
+        for (int i = primeiroAPartirDe(eventos, apos.instanteMicros()); i < eventos.length; i++) {
+          EventoIndexado e = eventos[i];
+          if (e.instante() > fimMicros) {
+            break;
+          }
+          if (melhores.size() == limite && e.instante() > melhores.peek().instanteMicros()) {
+            break; //o resto da célula é posterior ao pior já aceito
+          }
+          double distancia = GeoUtils.distanciaKm(lat, lon, e.latitude(), e.longitude());
+          if (distancia > raioKm) {
+            continue;
+          }
+          EventoProximo candidato = new EventoProximo(e.id(), e.instante(), distancia);
+          if (EventoProximo.ORDEM.compare(candidato, apos) <= 0) {
+            continue; //já entregue em página anterior
+          }
+          melhores.add(candidato);
+          if (melhores.size() > limite) {
+            melhores.poll();
+          }
+        }
+      }
+    }
+
+    List<EventoProximo> ordenados = new ArrayList<>(melhores);
+    ordenados.sort(EventoProximo.ORDEM);
+    return ordenados;
+  }
+
+  private synchronized void aplicar(Long id, EventoIndexado evento) {
+    Grade atual = grade;
+    if (atual != null) {
+      atual.remover(id);
+      if (evento != null) {
+        atual.inserir(evento, chaveCelula(evento.latitude(), evento.longitude()));
+      }
+    }
+    if (pendentesDuranteReconstrucao != null) {
+      pendentesDuranteReconstrucao.add(() -> aplicar(id, evento));
+    }
+  }
+
+  private void aposCommit(Runnable acao) {
+    if (habilitado) {
+      AposCommit.executar(acao);
+    }
+  }
+
+  private static boolean indexavel(Evento evento) {
+    return evento.getStatus() == StatusEvento.ATIVO
+      && evento.getLatitude() != null
+      && evento.getLongitude() != null
+      && evento.getDataHorarioEvento() != null;
+  }
+
+  private long chaveCelula(double lat, double lon) {
+    return (long) linha(lat) * numColunas + coluna(lon);
+  }
+
+  private int linha(double lat) {
+    return Math.min(numLinhas - 1, Math.max(0, (int) Math.floor((lat + 90.0) / tamanhoCelula)));
+  }
+
+  private int coluna(double lon) {
+    return Math.min(numColunas - 1, Math.max(0, (int) Math.floor((lon + 180.0) / tamanhoCelula)));
+  }
+
+  private static int primeiroAPartirDe(EventoIndexado[] eventos, long instante) {
+    int baixo = 0;
+    int alto = eventos.length;
+    while (baixo < alto) {
+      int meio = (baixo + alto) >>> 1;
+      if (eventos[meio].instante() < instante) {
+        baixo = meio + 1;
+      } else {
+        alto = meio;
+      }
+    }
+    return baixo;
+  }
+
+  // instante em microssegundos, a mesma precisão do timestamptz e do cursor
+  private record EventoIndexado(long id, double latitude, double longitude, long instante) {}
+
+  private static final Comparator<EventoIndexado> POR_DATA = Comparator
+    .comparingLong(EventoIndexado::instante)
+    .thenComparingLong(EventoIndexado::id);
+
+  /*
+   * Células com arrays imutáveis ordenados por data: escrita copia o array da célula (eventos mudam
+   * pouco), leitura percorre sem trava. Escritas são serializadas pelo IndiceGeoEventos.
+   */
+  private static final class Grade {
+    private final Map<Long, EventoIndexado[]> celulas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> celulaPorId = new ConcurrentHashMap<>();
+    private final Map<Long, EventoIndexado> porId = new ConcurrentHashMap<>();
+
+    void inserir(EventoIndexado evento, long chave) {
+      EventoIndexado[] atuais = celulas.getOrDefault(chave, new EventoIndexado[0]);
+      int pos = Arrays.binarySearch(atuais, evento, POR_DATA);
+      int insercao = pos >= 0 ? pos : -pos - 1;
+      EventoIndexado[] novos = new EventoIndexado[atuais.length + 1];
+      System.arraycopy(atuais, 0, novos, 0, insercao);
+      novos[insercao] = evento;
+      System.arraycopy(atuais, insercao, novos, insercao + 1, atuais.length - insercao);
+      celulas.put(chave, novos);
+      celulaPorId.put(evento.id(), chave);
+      porId.put(evento.id(), evento);
+    }
+
+    void remover(Long id) {
+      EventoIndexado evento = porId.remove(id);
+      Long chave = celulaPorId.remove(id);
+      if (evento == null || chave == null) {
+        return;
+      }
+      EventoIndexado[] atuais = celulas.get(chave);
+      int pos = Arrays.binarySearch(atuais, evento, POR_DATA);
+      if (pos < 0) {
+        return;
+      }
+      if (atuais.length == 1) {
+        celulas.remove(chave);
+        return;
+      }
+      EventoIndexado[] novos = new EventoIndexado[atuais.length - 1];
+      System.arraycopy(atuais, 0, novos, 0, pos);
+      System.arraycopy(atuais, pos + 1, novos, pos, atuais.length - pos - 1);
+      celulas.put(chave, novos);
+    }
+  }
+}
@@ -15,6 +15,7 @@ import rei_da_quadra_be.repository.InscricaoRepository;
 import rei_da_quadra_be.repository.UserRepository;
 import rei_da_quadra_be.service.exception.EventoNaoEncontradoException;
 import rei_da_quadra_be.service.exception.RegraDeNegocioException;
+import rei_da_quadra_be.service.rodizio.MotorRodizio;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +29,8 @@ public class InscricaoService {
     private final InscricaoRepository inscricaoRepository;
     private final EventoRepository eventoRepository;
     private final UserRepository userRepository;
+    private final MotorRodizio motorRodizio;
+    private final ElencosPartidas elencosPartidas;
     
     @Transactional(readOnly = true)
     public List<InscricaoResponseDTO> listarInscricoes(Long eventoId, User currentUser) {
@@ -112,6 +115,10 @@ public class InscricaoService {
         }
         
         inscricaoRepository.delete(inscricao);
+        if (inscricao.getTimeAtual() != null) {
+            motorRodizio.invalidarAposCommit(eventoId); //saiu de um time: filas do rodízio relidas do banco
+            elencosPartidas.invalidarEvento(eventoId);
+        }
     }
     
     @Transactional(readOnly = true)
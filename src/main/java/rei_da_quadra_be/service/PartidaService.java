@@ -3,16 +3,25 @@ package rei_da_quadra_be.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei_da_quadra_be.dto.AcaoJogoDTO;
 import rei_da_quadra_be.enums.StatusPartida;
 import rei_da_quadra_be.enums.StatusTime;
 import rei_da_quadra_be.enums.TipoAcaoEmJogo;
 import rei_da_quadra_be.model.*;
+import rei_da_quadra_be.repository.ContadoresDesempenho;
 import rei_da_quadra_be.repository.ParticipacaoDesempenhoRepository;
 import rei_da_quadra_be.repository.PartidaRepository;
+import rei_da_quadra_be.repository.Placar;
+import rei_da_quadra_be.repository.PlacarRepository;
 import rei_da_quadra_be.service.exception.PartidaNaoEncontradaException;
 import rei_da_quadra_be.service.exception.RegraDeNegocioException;
+import rei_da_quadra_be.service.placar.AcaoAoVivo;
+import rei_da_quadra_be.service.placar.GravadorPlacar;
+import rei_da_quadra_be.service.placar.PlacarAoVivo;
+import rei_da_quadra_be.utils.MapaLongLong;
 
-import java.util.List;
+import java.util.*;
 
 /*
 * Essa classe junto a AdmTimesService são o coração da lógica e do projeto
@@ -23,11 +32,22 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class PartidaService {
+  // ações por chamada de registrarAcoes; a fila de um mesário offline cabe com folga
+  private static final int TAMANHO_MAXIMO_LOTE = 500;
+  // calculadas no fim da partida, não registradas pelo mesário
+  private static final Set<TipoAcaoEmJogo> ACOES_DE_ELO =
+    EnumSet.of(TipoAcaoEmJogo.VITORIA_ELO, TipoAcaoEmJogo.EMPATE_ELO, TipoAcaoEmJogo.DERROTA_ELO);
+
   private final PartidaRepository partidaRepository;
   private final ParticipacaoDesempenhoRepository participacaoRepository;
+  private final PlacarRepository placarRepository;
   private final TimeService timeService;
   private final EventoService eventoService;
   private final AdmTimesService admTimesService;
+  private final PlacarAoVivo placarAoVivo;
+  private final ElencosPartidas elencosPartidas;
+  private final GravadorPlacar gravadorPlacar;
+  private final TransactionTemplate transacao;
 
   public List<Partida> listarPartidasDoEvento(Long eventoId) {
     return partidaRepository.findByEventoId(eventoId);
@@ -63,90 +83,136 @@ public class PartidaService {
   public Partida iniciarPartida(Long partidaId) {
     Partida partida = buscarPorId(partidaId);
     partida.setStatus(StatusPartida.EM_ANDAMENTO);
+    elencosPartidas.indexar(partida); //quem joga por qual time, para registrar as ações sem consultas
     return partidaRepository.save(partida);
   }
 
   //registra um gol, assistência ou defesa, atualiza o placar e computa o elo do jogador
-  @Transactional
+  //com o placar ao vivo ativo, só confirma a ação em memória, sem transação; a gravação é feita em lote (ver PlacarAoVivo)
   public void registrarAcao(Long partidaId, Long jogadorId, TipoAcaoEmJogo acao) {
+    if (placarAoVivo.ativo()) {
+      placarAoVivo.registrar(partidaId, jogadorId, acao);
+      return;
+    }
+    transacao.executeWithoutResult(status -> registrarAcaoNoBanco(partidaId, jogadorId, acao));
+  }
+
+  private void registrarAcaoNoBanco(Long partidaId, Long jogadorId, TipoAcaoEmJogo acao) {
     Partida partida = buscarPorId(partidaId);
 
     if (partida.getStatus() != StatusPartida.EM_ANDAMENTO) {
       throw new RegraDeNegocioException("Só é possível registrar ações em partidas em andamento.");
     }
 
-    ParticipacaoDesempenho desempenho = obterOuCriarParticipacao(partida, jogadorId);
+    //cria ou soma na participação numa instrução; uma participação existente mantém o time dela
+    Time time = descobrirTimeDoJogadorNaPartida(partida, jogadorId);
+    ContadoresDesempenho desempenho = placarRepository.somarDesempenho(partidaId, jogadorId, time.getId(),
+      acao == TipoAcaoEmJogo.GOL ? 1 : 0,
+      acao == TipoAcaoEmJogo.ASSISTENCIA ? 1 : 0,
+      acao == TipoAcaoEmJogo.DEFESA ? 1 : 0);
 
-    switch (acao) {
-      case GOL:
-        desempenho.setGols(desempenho.getGols() + 1);
-        atualizarPlacarPartida(partida, desempenho.getTimeNaPartida());
-        break;
-      case ASSISTENCIA:
-        desempenho.setPasses(desempenho.getPasses() + 1);
-        break;
-      case DEFESA:
-        desempenho.setDefesas(desempenho.getDefesas() + 1);
-        break;
-      default:
-        break;
+    if (acao == TipoAcaoEmJogo.GOL) {
+      atualizarPlacarPartida(partida, desempenho.timeId(), 1);
     }
 
-    participacaoRepository.save(desempenho);
-
     admTimesService.computarAcaoJogador(partida, jogadorId, acao);
   }
 
+  /**
+   * Registra de uma vez as ações enfileiradas pelo mesário, na ordem recebida e numa transação só.
+   * A partida é conferida uma vez; cada ação inválida é recusada sozinha, com o motivo, e as
+   * válidas são gravadas juntas: um incremento por jogador, um no placar e a pontuação num acerto.
+   */
+  @Transactional
+  public ResultadoLote registrarAcoes(Long partidaId, List<AcaoJogoDTO> acoes) {
+    if (acoes.size() > TAMANHO_MAXIMO_LOTE) {
+      throw new RegraDeNegocioException("O lote aceita no máximo " + TAMANHO_MAXIMO_LOTE + " ações.");
+    }
+    placarAoVivo.gravarNaTransacao(partidaId, false); //ações pendentes do placar ao vivo vêm antes do lote
+    Partida partida = buscarPorId(partidaId);
+
+    if (partida.getStatus() != StatusPartida.EM_ANDAMENTO) {
+      throw new RegraDeNegocioException("Só é possível registrar ações em partidas em andamento.");
+    }
+
+    MapaLongLong elenco = elencosPartidas.elenco(partida);
+    List<AcaoAoVivo> validas = new ArrayList<>(acoes.size());
+    List<String> recusas = new ArrayList<>(acoes.size());
+    for (int i = 0; i < acoes.size(); i++) {
+      AcaoJogoDTO acao = acoes.get(i);
+      String recusa = null;
+      if (acao == null || acao.getJogadorId() == null || acao.getTipoAcao() == null) {
+        recusa = "Ação sem jogador ou sem tipo.";
+      } else if (ACOES_DE_ELO.contains(acao.getTipoAcao())) {
+        recusa = "Tipo de ação não pode ser registrado durante a partida.";
+      } else {
+        long timeId = elenco.get(acao.getJogadorId(), ElencosPartidas.FORA_DA_PARTIDA);
+        if (timeId == ElencosPartidas.FORA_DA_PARTIDA) {
+          recusa = "Jogador não pertence a nenhum dos times desta partida.";
+        } else {
+          validas.add(new AcaoAoVivo(i + 1, partidaId, acao.getJogadorId(), timeId, acao.getTipoAcao()));
+        }
+      }
+      recusas.add(recusa);
+    }
+
+    if (!validas.isEmpty()) {
+      gravadorPlacar.aplicar(partida, validas);
+    }
+    return new ResultadoLote(partida, Collections.unmodifiableList(recusas));
+  }
+
   // Remove uma ação (desconta gols/assistências/defesas) — não reverte histórico de pontuação
   @Transactional
   public void removerAcao(Long partidaId, Long jogadorId, TipoAcaoEmJogo acao) {
+    placarAoVivo.gravarNaTransacao(partidaId, false); //a ação a remover pode estar só no placar ao vivo
     Partida partida = buscarPorId(partidaId);
 
     if (partida.getStatus() != StatusPartida.EM_ANDAMENTO) {
       throw new RegraDeNegocioException("Só é possível remover ações em partidas em andamento.");
     }
 
-    ParticipacaoDesempenho desempenho = participacaoRepository.findByPartidaIdAndJogadorId(partida.getId(), jogadorId)
-      .orElseThrow(() -> new RegraDeNegocioException("Nenhuma participação encontrada para esse jogador nesta partida."));
-
+    String semAcao;
     switch (acao) {
       case GOL:
-        Integer gols = desempenho.getGols() == null ? 0 : desempenho.getGols();
-        if (gols <= 0) throw new RegraDeNegocioException("Não há gols para remover.");
-        desempenho.setGols(gols - 1);
-        // Atualiza placar da partida
-        Time timeQueMarcou = desempenho.getTimeNaPartida();
-        if (partida.getTimeA().getId().equals(timeQueMarcou.getId())) {
-          partida.setTimeAPlacar(Math.max(0, partida.getTimeAPlacar() - 1));
-        } else {
-          partida.setTimeBPlacar(Math.max(0, partida.getTimeBPlacar() - 1));
-        }
-        partidaRepository.save(partida);
+        semAcao = "Não há gols para remover.";
         break;
       case ASSISTENCIA:
-        Integer passes = desempenho.getPasses() == null ? 0 : desempenho.getPasses();
-        if (passes <= 0) throw new RegraDeNegocioException("Não há assistências para remover.");
-        desempenho.setPasses(passes - 1);
+        semAcao = "Não há assistências para remover.";
         break;
       case DEFESA:
-        Integer defesas = desempenho.getDefesas() == null ? 0 : desempenho.getDefesas();
-        if (defesas <= 0) throw new RegraDeNegocioException("Não há defesas para remover.");
-        desempenho.setDefesas(defesas - 1);
+        semAcao = "Não há defesas para remover.";
         break;
       case FALTA:
       case IMPEDIMENTO:
-        break;
+        exigirParticipacao(partidaId, jogadorId);
+        return;
       default:
+        exigirParticipacao(partidaId, jogadorId);
         throw new RegraDeNegocioException("Tipo de ação não suportado para remoção.");
     }
 
-    participacaoRepository.save(desempenho);
+    //desconta numa instrução, só se o contador não ficar negativo
+    ContadoresDesempenho desempenho = placarRepository.descontarDesempenho(partidaId, jogadorId,
+        acao == TipoAcaoEmJogo.GOL ? 1 : 0,
+        acao == TipoAcaoEmJogo.ASSISTENCIA ? 1 : 0,
+        acao == TipoAcaoEmJogo.DEFESA ? 1 : 0)
+      .orElseThrow(() -> {
+        exigirParticipacao(partidaId, jogadorId);
+        return new RegraDeNegocioException(semAcao);
+      });
+
+    if (acao == TipoAcaoEmJogo.GOL) {
+      // Atualiza placar da partida
+      atualizarPlacarPartida(partida, desempenho.timeId(), -1);
+    }
     // Nota: não alteramos o histórico/histórico de pontuação do jogador ao remover ação
   }
 
   //finaliza a partida, define o vencedor e chama o serviço de rodízio de times
   @Transactional
   public Partida finalizarPartida(Long partidaId) {
+    placarAoVivo.gravarNaTransacao(partidaId, true); //placar completo antes de decidir o vencedor
     Partida partida = buscarPorId(partidaId);
 
     if (partida.getStatus() == StatusPartida.JOGADA) {
@@ -155,6 +221,7 @@ public class PartidaService {
 
     partida.setStatus(StatusPartida.JOGADA);
     partida = partidaRepository.save(partida);
+    elencosPartidas.descartar(partida);
 
     Long idVencedor;
     if (partida.getTimeAPlacar() > partida.getTimeBPlacar()) {
@@ -204,52 +271,56 @@ public class PartidaService {
     nova.setStatus(StatusPartida.EM_ANDAMENTO);
 
     Partida partidaIniciada = partidaRepository.save(nova);
+    elencosPartidas.indexar(partidaIniciada); //elencos já com o rodízio desta finalização
 
     return partidaIniciada;
   }
 
   /* AUXILIARES */
 
+  //evento da partida, sem carregar a partida: usado para escolher a fila de comandos do evento
+  //partida no placar ao vivo já sabe o evento: a ação não consulta o banco só para escolher a vez
+  public Long buscarEventoId(Long partidaId) {
+    Long eventoId = placarAoVivo.eventoDa(partidaId);
+    if (eventoId != null) {
+      return eventoId;
+    }
+    return partidaRepository.buscarEventoId(partidaId)
+      .orElseThrow(() -> new PartidaNaoEncontradaException("Partida não encontrada com id: " + partidaId));
+  }
+
   public Partida buscarPorId(Long id) {
     return partidaRepository.findById(id)
       .orElseThrow(() -> new PartidaNaoEncontradaException("Partida não encontrada com id: " + id));
   }
 
-  //método auxiliar interno para gerenciar a tabela de desempenho
-  private ParticipacaoDesempenho obterOuCriarParticipacao(Partida partida, Long jogadorId) {
-    return participacaoRepository.findByPartidaIdAndJogadorId(partida.getId(), jogadorId)
-      .orElseGet(() -> {
-        ParticipacaoDesempenho nova = new ParticipacaoDesempenho();
-        nova.setPartida(partida);
-
-        User userStub = new User();
-        userStub.setId(jogadorId);
-        nova.setJogador(userStub);
-
-        //descobre qual time o jogador defende nesta partida
-        nova.setTimeNaPartida(descobrirTimeDoJogadorNaPartida(partida, jogadorId));
-
-        return nova;
-      });
+  private void exigirParticipacao(Long partidaId, Long jogadorId) {
+    if (!participacaoRepository.existsByPartidaIdAndJogadorId(partidaId, jogadorId)) {
+      throw new RegraDeNegocioException("Nenhuma participação encontrada para esse jogador nesta partida.");
+    }
   }
 
-  //auxiliar para descobrir se o jogador é do Time A ou B
+  //auxiliar para descobrir se o jogador é do Time A ou B (índice em memória, ver ElencosPartidas)
   private Time descobrirTimeDoJogadorNaPartida(Partida partida, Long jogadorId) {
-    boolean noTimeA = admTimesService.jogadorEstaNoTime(partida.getEvento().getId(), partida.getTimeA().getId(), jogadorId);
-    if (noTimeA) return partida.getTimeA();
-
-    boolean noTimeB = admTimesService.jogadorEstaNoTime(partida.getEvento().getId(), partida.getTimeB().getId(), jogadorId);
-    if (noTimeB) return partida.getTimeB();
+    long timeId = elencosPartidas.timeDoJogador(partida, jogadorId);
+    if (timeId == partida.getTimeA().getId()) return partida.getTimeA();
+    if (timeId == partida.getTimeB().getId()) return partida.getTimeB();
 
     throw new RegraDeNegocioException("Jogador não pertence a nenhum dos times desta partida.");
   }
 
-  private void atualizarPlacarPartida(Partida partida, Time timeQueMarcou) {
-    if (partida.getTimeA().getId().equals(timeQueMarcou.getId())) {
-      partida.setTimeAPlacar(partida.getTimeAPlacar() + 1);
-    } else {
-      partida.setTimeBPlacar(partida.getTimeBPlacar() + 1);
-    }
-    partidaRepository.save(partida);
+  //incremento atômico no banco; a entidade só espelha o placar devolvido (colunas não atualizáveis)
+  private void atualizarPlacarPartida(Partida partida, long timeQueMarcou, int gols) {
+    boolean timeA = partida.getTimeA().getId() == timeQueMarcou;
+    Placar placar = placarRepository.somarPlacar(partida.getId(), timeA ? gols : 0, timeA ? 0 : gols)
+      .orElseThrow(() -> new PartidaNaoEncontradaException("Partida não encontrada com id: " + partida.getId()));
+    partida.setTimeAPlacar(placar.timeA());
+    partida.setTimeBPlacar(placar.timeB());
   }
+
+  /**
+   * @param partida  partida com o placar após o lote
+   * @param recusas  motivo da recusa de cada ação, na ordem do lote; null para as registradas
+   */
+  public record ResultadoLote(Partida partida, List<String> recusas) {}
 }
@@ -2,18 +2,18 @@ package rei_da_quadra_be.service;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.io.UnsupportedEncodingException;
 import java.util.Optional;
 
-import jakarta.mail.MessagingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import rei_da_quadra_be.dto.UserUpdateDTO;
 import rei_da_quadra_be.model.User;
 import rei_da_quadra_be.model.ConfirmationToken;
 import rei_da_quadra_be.repository.UserRepository;
 import rei_da_quadra_be.repository.ConfirmationTokenRepository;
+import rei_da_quadra_be.security.PrincipalCache;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Service
@@ -29,9 +29,14 @@ public class UserService {
   private PasswordEncoder passwordEncoder;
 
   @Autowired
-  private EmailService emailService;
+  private EmailOutboxService emailOutboxService;
 
-  public void registrarUsuario(User user) throws MessagingException, UnsupportedEncodingException {
+  @Autowired
+  private PrincipalCache principalCache;
+
+  // usuário, token e e-mail pendente são gravados juntos; o envio fica com o EmailOutboxService
+  @Transactional
+  public void registrarUsuario(User user) {
     user.setPassword(passwordEncoder.encode(user.getPassword()));
     user.setEnabled(false);
     user.setDataCriacao(LocalDateTime.now());
@@ -40,7 +45,7 @@ public class UserService {
     String token = UUID.randomUUID().toString();
     salvarOuAtualizarToken(user, token);
 
-    emailService.enviarEmailConfirmacao(user, token);
+    emailOutboxService.enfileirarConfirmacao(user, token);
   }
 
   public User atualizarUsuario(User userAtual, UserUpdateDTO dados) {
@@ -60,7 +65,9 @@ public class UserService {
       userAtual.setFotoPerfil(dados.getFotoPerfil());
     }
 
-    return userRepository.save(userAtual);
+    User salvo = userRepository.save(userAtual);
+    principalCache.invalidar(salvo.getEmail());
+    return salvo;
   }
     // SoftDelete
     public void deletarConta(User user) {
@@ -80,14 +87,17 @@ public class UserService {
         // 4. Inutilizar a senha (gera hash de UUID aleatório para impedir login)
         user.setPassword(passwordEncoder.encode(UUID.randomUUID().toString()));
 
-        // 5. Desativar a conta
+        // 5. Desativar a conta e invalidar os tokens já emitidos
         user.setEnabled(false);
+        user.setVersaoToken(user.getVersaoToken() + 1);
 
         // 6. Salvar as alterações (Update ao invés de Delete)
         userRepository.save(user);
+        principalCache.revogarTokens(user.getId(), emailOriginal);
     }
 
-  public void solicitarRecuperacaoSenha(String email) throws MessagingException, UnsupportedEncodingException {
+  @Transactional
+  public void solicitarRecuperacaoSenha(String email) {
     UserDetails userDetails = userRepository.findByEmail(email);
 
     if (userDetails != null && userDetails instanceof User) {
@@ -98,7 +108,7 @@ public class UserService {
       // Agora chamamos o metodo que trata a duplicação
       salvarOuAtualizarToken(user, token);
 
-      emailService.enviarEmailRecuperacao(user, token);
+      emailOutboxService.enfileirarRecuperacao(user, token);
     }
   }
 
@@ -130,7 +140,9 @@ public class UserService {
     // Atualiza a senha do usuário
     User user = confirmationToken.getUser();
     user.setPassword(passwordEncoder.encode(newPassword));
+    user.setVersaoToken(user.getVersaoToken() + 1);
     userRepository.save(user);
+    principalCache.revogarTokens(user.getId(), user.getEmail());
 
     // Deleta o token ou marca como usado para não ser usado de novo
     // Aqui vamos deletar para limpar o banco e garantir uso único
@@ -0,0 +1,245 @@
+package rei_da_quadra_be.service.balanceamento;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Balanceamento por busca local: parte da serpentina e troca jogadores entre times ativos
+ * (simulated annealing) para aproximar as médias de Elo dos times.
+ *
+ * Cada worker roda no ForkJoinPool com a sua semente (semente base + índice do worker) e guarda a
+ * melhor solução que viu; vence a de menor diferença entre a maior e a menor média (empate: menor
+ * energia, depois menor índice do worker). Como a solução inicial também concorre, o resultado
+ * nunca é pior que a serpentina.
+ *
+ * Regras preservadas:
+ * - só há trocas entre times ativos: tamanho dos times e time de espera não mudam;
+ * - um time com craque nunca fica sem craque.
+ *
+ * Sem semente, cada worker para em maxIteracoes ou no fim do orçamento, o que vier primeiro.
+ * Com semente fixa o orçamento é ignorado e os workers param só em maxIteracoes: o resultado
+ * depende apenas da entrada e da semente, não da carga da máquina. É o modo usado nos testes e
+ * para reproduzir uma distribuição; o tempo de resposta passa a ser limitado só por maxIteracoes.
+ */
+public class BalanceadorBuscaLocal implements BalanceadorTimes {
+
+  // de quantas em quantas iterações o relógio é consultado
+  private static final int INTERVALO_RELOGIO = 1024;
+
+  private final ForkJoinPool pool;
+  private final int workers;
+  private final long orcamentoNanos;
+  private final int maxIteracoes;
+  private final Long semente;
+
+  /**
+   * @param semente semente base dos workers; null sorteia uma a cada distribuição. Fixada, desliga
+   *                o orçamento de tempo (ver doc da classe)
+   */
+  public BalanceadorBuscaLocal(ForkJoinPool pool, int workers, long orcamentoMs, int maxIteracoes, Long semente) {
+    this.pool = pool;
+    this.workers = Math.max(1, workers);
+    this.orcamentoNanos = orcamentoMs * 1_000_000L;
+    this.maxIteracoes = maxIteracoes;
+    this.semente = semente;
+  }
+
+  @Override
+  public int[] distribuir(int[] pontos, boolean[] craque, int numTimes, int maxPorTime) {
+    int[] inicial = DistribuicaoSerpentina.distribuir(pontos, craque, numTimes, maxPorTime).timeDe();
+    if (numTimes < 2) {
+      return inicial;
+    }
+
+    Problema problema = new Problema(pontos, craque, numTimes, inicial);
+    if (problema.ativos.length < 2) {
+      return inicial;
+    }
+
+    //com semente fixa o relógio não interrompe a busca, senão o resultado varia com a carga
+    boolean comPrazo = semente == null;
+    long deadline = System.nanoTime() + orcamentoNanos;
+    long base = semente != null ? semente : new SplittableRandom().nextLong();
+    List<Callable<Solucao>> tarefas = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      int indice = w;
+      tarefas.add(() -> problema.buscar(base + indice, indice, maxIteracoes, comPrazo, deadline));
+    }
+
+    Solucao melhor = problema.avaliar(inicial, -1);
+    try {
+      for (Future<Solucao> futuro : pool.invokeAll(tarefas)) {
+        Solucao solucao = futuro.get();
+        if (solucao.melhorQue(melhor)) {
+          melhor = solucao;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Falha no balanceamento dos times", e.getCause());
+    }
+    return melhor.timeDe();
+  }
+
+  /*
+   * Dados imutáveis da distribuição, compartilhados pelos workers.
+   * Energia: soma dos quadrados dos desvios da média de cada time em relação à média geral dos
+   * ativos; a variação de uma troca sai em O(1) e o mínimo coincide com médias iguais.
+   */
+  private static final class Problema {
+
+    private final int[] pontos;
+    private final boolean[] craque;
+    private final int numTimes;
+    private final int[] inicial;
+    private final int[] ativos;
+    private final int[] tamanho;
+    private final double mediaGeral;
+
+    Problema(int[] pontos, boolean[] craque, int numTimes, int[] inicial) {
+      this.pontos = pontos;
+      this.craque = craque;
+      this.numTimes = numTimes;
+      this.inicial = inicial;
+      this.tamanho = new int[numTimes];
+
+      int quantidade = 0;
+      long soma = 0;
+      for (int i = 0; i < inicial.length; i++) {
+        if (inicial[i] != DistribuicaoSerpentina.ESPERA) {
+          tamanho[inicial[i]]++;
+          soma += pontos[i];
+          quantidade++;
+        }
+      }
+      this.ativos = new int[quantidade];
+      int k = 0;
+      for (int i = 0; i < inicial.length; i++) {
+        if (inicial[i] != DistribuicaoSerpentina.ESPERA) {
+          ativos[k++] = i;
+        }
+      }
+      this.mediaGeral = quantidade == 0 ? 0 : (double) soma / quantidade;
+    }
+
+    Solucao buscar(long semente, int worker, int maxIteracoes, boolean comPrazo, long deadline) {
+      SplittableRandom random = new SplittableRandom(semente);
+      int[] timeDe = inicial.clone();
+      long[] soma = new long[numTimes];
+      int[] craques = new int[numTimes];
+      for (int i : ativos) {
+        soma[timeDe[i]] += pontos[i];
+        if (craque[i]) {
+          craques[timeDe[i]]++;
+        }
+      }
+
+      double energia = 0;
+      for (int t = 0; t < numTimes; t++) {
+        energia += desvio(soma[t], t);
+      }
+      double melhorEnergia = energia;
+      int[] melhor = timeDe.clone();
+
+      //temperatura inicial na escala de um desvio médio por time, resfriando até quase zero
+      double temperaturaInicial = Math.max(1.0, energia / numTimes);
+      double resfriamento = Math.log(1e-6);
+
+      for (int it = 0; it < maxIteracoes; it++) {
+        if (comPrazo && (it & (INTERVALO_RELOGIO - 1)) == 0 && System.nanoTime() - deadline >= 0) {
+          break;
+        }
+        int a = ativos[random.nextInt(ativos.length)];
+        int b = ativos[random.nextInt(ativos.length)];
+        int ta = timeDe[a];
+        int tb = timeDe[b];
+        if (ta == tb || pontos[a] == pontos[b]) {
+          continue;
+        }
+        //um time com craque não pode ficar sem
+        if (craque[a] != craque[b] && (craque[a] ? craques[ta] : craques[tb]) == 1) {
+          continue;
+        }
+
+        long d = (long) pontos[b] - pontos[a];
+        double delta = desvio(soma[ta] + d, ta) + desvio(soma[tb] - d, tb) - desvio(soma[ta], ta) - desvio(soma[tb], tb);
+        if (delta > 0) {
+          double temperatura = temperaturaInicial * Math.exp(resfriamento * it / maxIteracoes);
+          if (random.nextDouble() >= Math.exp(-delta / temperatura)) {
+            continue;
+          }
+        }
+
+        timeDe[a] = tb;
+        timeDe[b] = ta;
+        soma[ta] += d;
+        soma[tb] -= d;
+        if (craque[a] != craque[b]) {
+          int sai = craque[a] ? ta : tb;
+          int entra = craque[a] ? tb : ta;
+          craques[sai]--;
+          craques[entra]++;
+        }
+        energia += delta;
+
+        if (energia < melhorEnergia - 1e-9) {
+          melhorEnergia = energia;
+          System.arraycopy(timeDe, 0, melhor, 0, timeDe.length);
+        }
+      }
+      return avaliar(melhor, worker);
+    }
+
+    //recalcula do zero: a energia acumulada por deltas carrega erro de ponto flutuante
+    Solucao avaliar(int[] timeDe, int worker) {
+      long[] soma = new long[numTimes];
+      for (int i : ativos) {
+        soma[timeDe[i]] += pontos[i];
+      }
+      double energia = 0;
+      double maior = Double.NEGATIVE_INFINITY;
+      double menor = Double.POSITIVE_INFINITY;
+      for (int t = 0; t < numTimes; t++) {
+        if (tamanho[t] == 0) {
+          continue;
+        }
+        double media = (double) soma[t] / tamanho[t];
+        maior = Math.max(maior, media);
+        menor = Math.min(menor, media);
+        energia += desvio(soma[t], t);
+      }
+      return new Solucao(timeDe, maior - menor, energia, worker);
+    }
+
+    private double desvio(long soma, int time) {
+      if (tamanho[time] == 0) {
+        return 0;
+      }
+      double diferenca = (double) soma / tamanho[time] - mediaGeral;
+      return diferenca * diferenca;
+    }
+  }
+
+  /**
+   * @param amplitude diferença entre a maior e a menor média de Elo dos times ativos
+   * @param worker    índice do worker (-1 para a serpentina), usado só como desempate
+   */
+  private record Solucao(int[] timeDe, double amplitude, double energia, int worker) {
+
+    boolean melhorQue(Solucao outra) {
+      if (amplitude != outra.amplitude) {
+        return amplitude < outra.amplitude;
+      }
+      if (energia != outra.energia) {
+        return energia < outra.energia;
+      }
+      return worker < outra.worker;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package rei_da_quadra_be.service.balanceamento;
+
+/** Só a serpentina por Elo, sem otimização: o comportamento original da montagem de times. */
+public class BalanceadorSerpentina implements BalanceadorTimes {
+
+  @Override
+  public int[] distribuir(int[] pontos, boolean[] craque, int numTimes, int maxPorTime) {
+    return DistribuicaoSerpentina.distribuir(pontos, craque, numTimes, maxPorTime).timeDe();
+  }
+}
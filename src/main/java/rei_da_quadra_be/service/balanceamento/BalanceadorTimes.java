@@ -0,0 +1,13 @@
+package rei_da_quadra_be.service.balanceamento;
+
+/**
+ * Estratégia de distribuição inicial dos inscritos nos times ativos.
+ *
+ * Entrada e saída por índice do inscrito: {@code pontos[i]} e {@code craque[i]} descrevem o inscrito i,
+ * e o retorno diz o time de cada um (0 a numTimes - 1, ou {@link DistribuicaoSerpentina#ESPERA}).
+ * A implementação em uso é escolhida por times.balanceamento.estrategia (ver BalanceamentoConfig).
+ */
+public interface BalanceadorTimes {
+
+  int[] distribuir(int[] pontos, boolean[] craque, int numTimes, int maxPorTime);
+}
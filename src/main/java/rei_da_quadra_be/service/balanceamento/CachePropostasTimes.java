@@ -0,0 +1,66 @@
+package rei_da_quadra_be.service.balanceamento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.LruCache;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * Propostas de times calculadas pela prévia, guardadas até a confirmação.
+ *
+ * A chave é o evento mais o hash das entradas do balanceamento (inscrições, Elo, craques e
+ * jogadores por time): se qualquer uma mudar, o hash muda e a proposta antiga não é mais usada.
+ * Uma proposta é consumida na confirmação, então não pode ser aplicada duas vezes.
+ */
+@Component
+public class CachePropostasTimes {
+
+  private final LruCache<Chave, int[]> cache;
+
+  public CachePropostasTimes(
+    @Value("${times.preview.ttl-minutos:15}") long ttlMinutos,
+    @Value("${times.preview.tamanho-maximo:500}") int tamanhoMaximo,
+    MeterRegistry meterRegistry) {
+    this.cache = new LruCache<>(tamanhoMaximo, Duration.ofMinutes(ttlMinutos));
+    CacheMetricas.registrar(meterRegistry, "times.propostas", cache);
+  }
+
+  //proposta em cache ou calculada agora; o array devolvido não deve ser alterado
+  public int[] obter(long eventoId, String hash, Supplier<int[]> balancear) {
+    return cache.get(new Chave(eventoId, hash), chave -> balancear.get());
+  }
+
+  //retira a proposta para aplicar; null se expirou ou nunca foi gerada
+  public int[] consumir(long eventoId, String hash) {
+    return cache.remover(new Chave(eventoId, hash));
+  }
+
+  /**
+   * Hash das entradas do balanceamento, na ordem em que são passadas ao balanceador.
+   * SHA-256 truncado em 128 bits, em base64url.
+   */
+  public static String calcularHash(long eventoId, int jogadoresPorTime, long[] inscricaoIds, int[] pontos, boolean[] craque) {
+    ByteBuffer buffer = ByteBuffer.allocate(12 + inscricaoIds.length * 13);
+    buffer.putLong(eventoId).putInt(jogadoresPorTime);
+    for (int i = 0; i < inscricaoIds.length; i++) {
+      buffer.putLong(inscricaoIds[i]).putInt(pontos[i]).put((byte) (craque[i] ? 1 : 0));
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e); //SHA-256 existe em toda JVM
+    }
+  }
+
+  private record Chave(long eventoId, String hash) {}
+}
@@ -0,0 +1,129 @@
+package rei_da_quadra_be.service.balanceamento;
+
+import java.util.Arrays;
+
+/**
+ * Distribuição inicial dos inscritos nos times, toda em memória e em arrays primitivos.
+ *
+ * Regra (a mesma do AdmTimesService original):
+ * 1. craques e demais ordenados por Elo decrescente (empate: ordem de entrada);
+ * 2. cada time ativo recebe um craque; faltando craques, o melhor dos demais;
+ * 3. craques que sobraram vão para o início da fila geral (em ordem inversa);
+ * 4. o restante é distribuído em serpentina (time 1 ao N, depois N ao 1) enquanto houver vaga;
+ *    sem vaga em nenhum time ativo, o jogador vai para o time de espera.
+ *
+ * Contagem e soma de Elo por time ficam em int[]/long[]: nada de consulta ao banco por passada.
+ */
+public final class DistribuicaoSerpentina {
+
+  public static final int ESPERA = -1;
+
+  private DistribuicaoSerpentina() {}
+
+  /**
+   * @param pontos      Elo de cada inscrito
+   * @param craque      se o inscrito é CRAQUE
+   * @param numTimes    quantidade de times ativos
+   * @param maxPorTime  vagas por time ativo
+   * @return o índice do time de cada inscrito ({@link #ESPERA} para o time de espera)
+   */
+  public static Resultado distribuir(int[] pontos, boolean[] craque, int numTimes, int maxPorTime) {
+    int n = pontos.length;
+    int[] timeDe = new int[n];
+    int[] jogadores = new int[numTimes];
+    long[] somaPontos = new long[numTimes];
+    Arrays.fill(timeDe, ESPERA);
+
+    int[] craques = ordenarPorEloDecrescente(pontos, craque, true);
+    int[] outros = ordenarPorEloDecrescente(pontos, craque, false);
+    int ic = 0;
+    int io = 0;
+
+    //garantir 1 craque por time ativo; sem craques, o melhor do geral
+    for (int t = 0; t < numTimes; t++) {
+      if (ic < craques.length) {
+        alocar(craques[ic++], t, pontos, timeDe, jogadores, somaPontos);
+      } else if (io < outros.length) {
+        alocar(outros[io++], t, pontos, timeDe, jogadores, somaPontos);
+      }
+    }
+
+    //fila geral: craques restantes no topo, em ordem inversa, depois os demais
+    int[] fila = new int[(craques.length - ic) + (outros.length - io)];
+    int tamanho = 0;
+    for (int k = craques.length - 1; k >= ic; k--) {
+      fila[tamanho++] = craques[k];
+    }
+    for (int k = io; k < outros.length; k++) {
+      fila[tamanho++] = outros[k];
+    }
+
+    int timesComVaga = 0;
+    for (int t = 0; t < numTimes; t++) {
+      if (jogadores[t] < maxPorTime) {
+        timesComVaga++;
+      }
+    }
+
+    //serpentina
+    int p = 0;
+    boolean ida = true;
+    while (p < tamanho) {
+      if (timesComVaga == 0) {
+        p = tamanho; //todos cheios: o restante fica no time de espera
+        break;
+      }
+      for (int k = 0; k < numTimes && p < tamanho; k++) {
+        int t = ida ? k : numTimes - 1 - k;
+        if (jogadores[t] < maxPorTime) {
+          alocar(fila[p++], t, pontos, timeDe, jogadores, somaPontos);
+          if (jogadores[t] == maxPorTime) {
+            timesComVaga--;
+          }
+        }
+      }
+      ida = !ida;
+    }
+
+    return new Resultado(timeDe, jogadores, somaPontos);
+  }
+
+  private static void alocar(int jogador, int time, int[] pontos, int[] timeDe, int[] jogadores, long[] somaPontos) {
+    timeDe[jogador] = time;
+    jogadores[time]++;
+    somaPontos[time] += pontos[jogador];
+  }
+
+  /*
+   * Ordena os índices do grupo por Elo decrescente, estável pela posição original.
+   * Chave em long: Elo negado nos bits altos, índice nos 31 bits baixos; um sort primitivo resolve.
+   */
+  private static int[] ordenarPorEloDecrescente(int[] pontos, boolean[] craque, boolean grupoCraque) {
+    int quantidade = 0;
+    for (boolean c : craque) {
+      if (c == grupoCraque) {
+        quantidade++;
+      }
+    }
+    long[] chaves = new long[quantidade];
+    int k = 0;
+    for (int i = 0; i < pontos.length; i++) {
+      if (craque[i] == grupoCraque) {
+        chaves[k++] = (-(long) pontos[i] << 31) | i;
+      }
+    }
+    Arrays.sort(chaves);
+    int[] indices = new int[quantidade];
+    for (int j = 0; j < quantidade; j++) {
+      indices[j] = (int) (chaves[j] & Integer.MAX_VALUE);
+    }
+    return indices;
+  }
+
+  /**
+   * @param timeDe      time de cada inscrito, na ordem de entrada
+   * @param jogadores   quantidade de jogadores por time ativo
+   * @param somaPontos  soma do Elo por time ativo
+   */
+  public record Resultado(int[] timeDe, int[] jogadores, long[] somaPontos) {}
+}
@@ -0,0 +1,7 @@
+package rei_da_quadra_be.service.exception;
+
+public class CampoInvalidoException extends RuntimeException {
+  public CampoInvalidoException(String message) {
+    super(message);
+  }
+}
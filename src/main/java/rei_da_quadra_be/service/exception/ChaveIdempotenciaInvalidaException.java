@@ -0,0 +1,7 @@
+package rei_da_quadra_be.service.exception;
+
+public class ChaveIdempotenciaInvalidaException extends RuntimeException {
+  public ChaveIdempotenciaInvalidaException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package rei_da_quadra_be.service.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+  public CursorInvalidoException(String message) {
+    super(message);
+  }
+}
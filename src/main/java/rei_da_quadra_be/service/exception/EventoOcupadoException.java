@@ -0,0 +1,7 @@
+package rei_da_quadra_be.service.exception;
+
+public class EventoOcupadoException extends RuntimeException {
+  public EventoOcupadoException(String message) {
+    super(message);
+  }
+}
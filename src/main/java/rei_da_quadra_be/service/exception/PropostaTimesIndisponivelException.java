@@ -0,0 +1,7 @@
+package rei_da_quadra_be.service.exception;
+
+public class PropostaTimesIndisponivelException extends RuntimeException {
+  public PropostaTimesIndisponivelException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,26 @@
+package rei_da_quadra_be.service.placar;
+
+import rei_da_quadra_be.enums.TipoAcaoEmJogo;
+
+/**
+ * Ação confirmada pelo placar ao vivo e ainda não (ou já) gravada no banco.
+ *
+ * @param sequencia número da ação na partida, crescente; a partida guarda a última gravada
+ * @param timeId    time do jogador na partida, resolvido na confirmação
+ */
+public record AcaoAoVivo(long sequencia, long partidaId, long jogadorId, long timeId, TipoAcaoEmJogo tipo) {
+
+  //uma linha do diário: sequencia;partida;jogador;time;TIPO
+  String linha() {
+    return sequencia + ";" + partidaId + ";" + jogadorId + ";" + timeId + ";" + tipo.name() + "\n";
+  }
+
+  static AcaoAoVivo deLinha(String linha) {
+    String[] campos = linha.split(";");
+    if (campos.length != 5) {
+      throw new IllegalArgumentException("Linha inválida no diário: " + linha);
+    }
+    return new AcaoAoVivo(Long.parseLong(campos[0]), Long.parseLong(campos[1]), Long.parseLong(campos[2]),
+      Long.parseLong(campos[3]), TipoAcaoEmJogo.valueOf(campos[4]));
+  }
+}
@@ -0,0 +1,206 @@
+package rei_da_quadra_be.service.placar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Diário local, só de acréscimo, das ações confirmadas pelo placar ao vivo.
+ *
+ * Cada ação é escrita (e, com sincronizar, forçada ao disco) antes de ser confirmada ao cliente.
+ * Na subida, o que estiver no diário é regravado; a sequência guardada na partida descarta o que
+ * já tinha chegado ao banco.
+ *
+ * O arquivo corrente vira um segmento fechado (arquivo.1, arquivo.2, ...) ao passar de
+ * tamanhoSegmento bytes. Cada segmento guarda a maior sequência de cada partida que contém e é
+ * apagado quando todas já estão no banco, mesmo com outras partidas ainda em jogo. Quando não há
+ * nada pendente, o arquivo corrente é esvaziado.
+ */
+final class DiarioAcoes implements AutoCloseable {
+
+  private final Path arquivo;
+  private final boolean sincronizar;
+  private final long tamanhoSegmento;
+  //segmentos fechados, do mais antigo ao mais novo
+  private final ArrayDeque<Segmento> segmentos = new ArrayDeque<>();
+  //maior sequência anotada por partida no arquivo corrente
+  private final Map<Long, Long> ultimaPorPartida = new HashMap<>();
+  private FileChannel canal;
+  private long proximoSegmento;
+
+  DiarioAcoes(Path arquivo, boolean sincronizar, long tamanhoSegmento) throws IOException {
+    this.arquivo = arquivo;
+    this.sincronizar = sincronizar;
+    this.tamanhoSegmento = tamanhoSegmento;
+    Path diretorio = arquivo.toAbsolutePath().getParent();
+    if (diretorio != null) {
+      Files.createDirectories(diretorio);
+    }
+    //segmentos deixados pela execução anterior
+    List<Path> existentes = segmentosNoDisco();
+    for (Path segmento : existentes) {
+      segmentos.addLast(new Segmento(segmento, ultimasPorPartida(lerArquivo(segmento))));
+    }
+    this.proximoSegmento = existentes.isEmpty() ? 1 : numeroDo(existentes.get(existentes.size() - 1)) + 1;
+    if (Files.exists(arquivo)) {
+      ultimaPorPartida.putAll(ultimasPorPartida(lerArquivo(arquivo)));
+    }
+    this.canal = abrir();
+  }
+
+  synchronized void anotar(AcaoAoVivo acao) {
+    ByteBuffer buffer = ByteBuffer.wrap(acao.linha().getBytes(StandardCharsets.US_ASCII));
+    try {
+      while (buffer.hasRemaining()) {
+        canal.write(buffer);
+      }
+      if (sincronizar) {
+        canal.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao anotar ação no diário " + arquivo, e);
+    }
+    ultimaPorPartida.merge(acao.partidaId(), acao.sequencia(), Math::max);
+  }
+
+  //ações anotadas, na ordem: segmentos fechados e depois o arquivo corrente
+  synchronized List<AcaoAoVivo> ler() {
+    List<AcaoAoVivo> acoes = new ArrayList<>();
+    for (Segmento segmento : segmentos) {
+      acoes.addAll(lerArquivo(segmento.arquivo()));
+    }
+    acoes.addAll(lerArquivo(arquivo));
+    return acoes;
+  }
+
+  //fecha o arquivo corrente como segmento se ele passou do tamanho; chamado fora do caminho da ação
+  synchronized void rotacionarSeCheio() {
+    try {
+      if (canal.size() < tamanhoSegmento) {
+        return;
+      }
+      canal.force(false);
+      canal.close();
+      Path segmento = arquivo.resolveSibling(arquivo.getFileName() + "." + proximoSegmento++);
+      Files.move(arquivo, segmento, StandardCopyOption.ATOMIC_MOVE);
+      segmentos.addLast(new Segmento(segmento, Map.copyOf(ultimaPorPartida)));
+      ultimaPorPartida.clear();
+      canal = abrir();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao rotacionar o diário " + arquivo, e);
+    }
+  }
+
+  /**
+   * Apaga os segmentos fechados cujas ações já estão todas no banco.
+   *
+   * @param gravadaAte última sequência gravada da partida (Long.MAX_VALUE se não há nada dela em memória)
+   */
+  synchronized void descartarSegmentos(ToLongFunction<Long> gravadaAte) {
+    Iterator<Segmento> iterator = segmentos.iterator();
+    while (iterator.hasNext()) {
+      Segmento segmento = iterator.next();
+      boolean gravado = segmento.ultimaPorPartida().entrySet().stream()
+        .allMatch(e -> gravadaAte.applyAsLong(e.getKey()) >= e.getValue());
+      if (!gravado) {
+        continue;
+      }
+      try {
+        Files.deleteIfExists(segmento.arquivo());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Falha ao apagar o segmento " + segmento.arquivo(), e);
+      }
+      iterator.remove();
+    }
+  }
+
+  synchronized void esvaziar() {
+    try {
+      if (canal.size() > 0) {
+        canal.truncate(0);
+        if (sincronizar) {
+          canal.force(false);
+        }
+      }
+      ultimaPorPartida.clear();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao esvaziar o diário " + arquivo, e);
+    }
+  }
+
+  synchronized int quantidadeSegmentos() {
+    return segmentos.size();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    canal.close();
+  }
+
+  private FileChannel abrir() throws IOException {
+    return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private List<Path> segmentosNoDisco() throws IOException {
+    List<Path> encontrados = new ArrayList<>();
+    try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(arquivo.toAbsolutePath().getParent(),
+      arquivo.getFileName() + ".*")) {
+      for (Path candidato : arquivos) {
+        if (numeroDo(candidato) > 0) {
+          encontrados.add(candidato);
+        }
+      }
+    }
+    encontrados.sort(Comparator.comparingLong(this::numeroDo));
+    return encontrados;
+  }
+
+  //número do segmento pelo sufixo; 0 se o nome não for de segmento
+  private long numeroDo(Path segmento) {
+    String sufixo = segmento.getFileName().toString().substring(arquivo.getFileName().toString().length() + 1);
+    try {
+      return Long.parseLong(sufixo);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  //uma última linha incompleta (queda no meio da escrita) é ignorada
+  private static List<AcaoAoVivo> lerArquivo(Path origem) {
+    List<AcaoAoVivo> acoes = new ArrayList<>();
+    try {
+      String conteudo = Files.readString(origem, StandardCharsets.US_ASCII);
+      int inicio = 0;
+      int fim;
+      while ((fim = conteudo.indexOf('\n', inicio)) >= 0) {
+        String linha = conteudo.substring(inicio, fim);
+        if (!linha.isBlank()) {
+          acoes.add(AcaoAoVivo.deLinha(linha));
+        }
+        inicio = fim + 1;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao ler o diário " + origem, e);
+    }
+    return acoes;
+  }
+
+  private static Map<Long, Long> ultimasPorPartida(List<AcaoAoVivo> acoes) {
+    Map<Long, Long> ultimas = new HashMap<>();
+    for (AcaoAoVivo acao : acoes) {
+      ultimas.merge(acao.partidaId(), acao.sequencia(), Math::max);
+    }
+    return ultimas;
+  }
+
+  private record Segmento(Path arquivo, Map<Long, Long> ultimaPorPartida) {}
+}
@@ -0,0 +1,128 @@
+package rei_da_quadra_be.service.placar;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import rei_da_quadra_be.enums.StatusPartida;
+import rei_da_quadra_be.model.Partida;
+import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.repository.ContadoresDesempenho;
+import rei_da_quadra_be.repository.PartidaRepository;
+import rei_da_quadra_be.repository.Placar;
+import rei_da_quadra_be.repository.PlacarRepository;
+import rei_da_quadra_be.repository.UserRepository;
+import rei_da_quadra_be.service.AdmTimesService;
+import rei_da_quadra_be.service.ElencosPartidas;
+import rei_da_quadra_be.service.HistoricoPontuacaoService;
+import rei_da_quadra_be.service.exception.PartidaNaoEncontradaException;
+import rei_da_quadra_be.utils.MapaLongLong;
+
+import java.util.*;
+
+/**
+ * Leitura e gravação em lote do placar ao vivo: o mesmo efeito de PartidaService.registrarAcao
+ * ação por ação, com um incremento atômico por jogador, um no placar, um select de jogadores e a
+ * pontuação num único acerto.
+ */
+@Component
+@RequiredArgsConstructor
+public class GravadorPlacar {
+
+  private final PartidaRepository partidaRepository;
+  private final PlacarRepository placarRepository;
+  private final ElencosPartidas elencosPartidas;
+  private final UserRepository userRepository;
+  private final HistoricoPontuacaoService historicoService;
+
+  //o que o placar ao vivo precisa para validar ações sem ir ao banco
+  @Transactional(readOnly = true)
+  public DadosPartida carregar(Long partidaId) {
+    Partida partida = partidaRepository.findById(partidaId)
+      .orElseThrow(() -> new PartidaNaoEncontradaException("Partida não encontrada com id: " + partidaId));
+    return new DadosPartida(partida.getEvento().getId(), partida.getTimeA().getId(), partida.getTimeB().getId(),
+      partida.getStatus(), partida.getUltimaAcaoAoVivo(), elencosPartidas.elenco(partida));
+  }
+
+  /**
+   * Grava as ações em ordem de sequência. As que a partida já tem (sequência até a última
+   * gravada) são ignoradas, então regravar um lote ou o diário inteiro não duplica nada.
+   */
+  @Transactional
+  public void gravar(Long partidaId, List<AcaoAoVivo> acoes) {
+    Partida partida = partidaRepository.findById(partidaId)
+      .orElseThrow(() -> new PartidaNaoEncontradaException("Partida não encontrada com id: " + partidaId));
+    long ultima = partida.getUltimaAcaoAoVivo();
+    List<AcaoAoVivo> novas = acoes.stream().filter(a -> a.sequencia() > ultima).toList();
+    if (novas.isEmpty()) {
+      return;
+    }
+    aplicar(partida, novas);
+    partida.setUltimaAcaoAoVivo(novas.get(novas.size() - 1).sequencia());
+  }
+
+  /**
+   * Aplica ações já validadas (jogador no elenco da partida, ação que pontua) na transação corrente.
+   * Também usado pelo registro em lote de PartidaService; lá a sequência é só a posição no lote.
+   */
+  public void aplicar(Partida partida, List<AcaoAoVivo> acoes) {
+    Long partidaId = partida.getId();
+    //contadores somados por jogador: um incremento atômico por jogador e um no placar
+    Map<Long, int[]> somas = new LinkedHashMap<>();
+    Map<Long, Long> timeDoJogador = new HashMap<>();
+    for (AcaoAoVivo acao : acoes) {
+      int[] soma = somas.computeIfAbsent(acao.jogadorId(), id -> new int[3]);
+      switch (acao.tipo()) {
+        case GOL:
+          soma[0]++;
+          break;
+        case ASSISTENCIA:
+          soma[1]++;
+          break;
+        case DEFESA:
+          soma[2]++;
+          break;
+        default:
+          break;
+      }
+      timeDoJogador.putIfAbsent(acao.jogadorId(), acao.timeId());
+    }
+
+    int golsA = 0;
+    int golsB = 0;
+    long timeA = partida.getTimeA().getId();
+    for (Map.Entry<Long, int[]> entrada : somas.entrySet()) {
+      int[] soma = entrada.getValue();
+      ContadoresDesempenho desempenho = placarRepository.somarDesempenho(partidaId, entrada.getKey(),
+        timeDoJogador.get(entrada.getKey()), soma[0], soma[1], soma[2]);
+      //o gol conta para o time da participação, como no registro direto
+      if (desempenho.timeId() == timeA) {
+        golsA += soma[0];
+      } else {
+        golsB += soma[0];
+      }
+    }
+    if (golsA + golsB > 0) {
+      Placar placar = placarRepository.somarPlacar(partidaId, golsA, golsB).orElseThrow();
+      partida.setTimeAPlacar(placar.timeA());
+      partida.setTimeBPlacar(placar.timeB());
+    }
+
+    Map<Long, User> jogadores = new HashMap<>();
+    for (User user : userRepository.findAllById(somas.keySet())) {
+      jogadores.put(user.getId(), user);
+    }
+    List<HistoricoPontuacaoService.Alteracao> alteracoes = new ArrayList<>(acoes.size());
+    for (AcaoAoVivo acao : acoes) {
+      alteracoes.add(new HistoricoPontuacaoService.Alteracao(jogadores.get(acao.jogadorId()), acao.tipo(),
+        AdmTimesService.pontosDaAcao(acao.tipo())));
+    }
+    historicoService.registrarAlteracoes(partida, alteracoes);
+  }
+
+  /**
+   * @param ultimaAcao    sequência da última ação já gravada na partida
+   * @param timeDoJogador time (A ou B da partida) de cada jogador que pode registrar ações (ElencosPartidas)
+   */
+  public record DadosPartida(Long eventoId, long timeAId, long timeBId, StatusPartida status, long ultimaAcao,
+                             MapaLongLong timeDoJogador) {}
+}
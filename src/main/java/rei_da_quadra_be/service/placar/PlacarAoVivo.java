@@ -0,0 +1,381 @@
+package rei_da_quadra_be.service.placar;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.enums.StatusPartida;
+import rei_da_quadra_be.enums.TipoAcaoEmJogo;
+import rei_da_quadra_be.service.AdmTimesService;
+import rei_da_quadra_be.service.ElencosPartidas;
+import rei_da_quadra_be.service.ExecutorComandosEvento;
+import rei_da_quadra_be.service.exception.PartidaNaoEncontradaException;
+import rei_da_quadra_be.service.exception.RegraDeNegocioException;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.MapaLongLong;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Placar ao vivo (opcional, partidas.placar-ao-vivo.ativo): as ações de jogo são validadas e
+ * confirmadas em memória, sem consultas por ação, e gravadas no banco em lote (write-behind).
+ *
+ * - cada ação é anotada no diário local (DiarioAcoes) antes da confirmação;
+ * - a gravação roda a cada partidas.placar-ao-vivo.intervalo-ms, ou assim que uma partida junta
+ *   partidas.placar-ao-vivo.lote-maximo ações, sempre na vez do evento (ExecutorComandosEvento);
+ *   roda numa thread própria (não no agendador do Spring, dividido com o envio de e-mails) e só
+ *   pede a vez do evento para partidas com ações pendentes;
+ * - remover ação e finalizar a partida gravam antes as pendentes, na mesma transação;
+ * - na subida, o diário é regravado; a partida guarda a última sequência gravada, então nada é
+ *   aplicado duas vezes;
+ * - o diário é dividido em segmentos de partidas.placar-ao-vivo.tamanho-segmento-kb, apagados
+ *   quando as ações de todas as partidas neles já estão no banco: uma partida parada não segura o
+ *   diário das outras;
+ * - uma partida sem ações há partidas.placar-ao-vivo.ociosa-minutos e sem nada pendente sai da
+ *   memória (partida abandonada sem finalizar); a próxima ação a carrega de novo do banco.
+ *
+ * Enquanto uma ação não é gravada, placar e pontuação lidos do banco ficam atrasados em até um
+ * intervalo. Métricas: partidas.placar-ao-vivo.pendentes e partidas.placar-ao-vivo.falhas.
+ */
+@Component
+public class PlacarAoVivo {
+
+  private final boolean ativo;
+  private final int loteMaximo;
+  private final long ociosaNanos;
+  private final GravadorPlacar gravador;
+  private final ExecutorComandosEvento comandosEvento;
+  private final DiarioAcoes diario;
+
+  private final ConcurrentHashMap<Long, EstadoPartida> partidas = new ConcurrentHashMap<>();
+  //anotar + enfileirar de um lado, conferir que não há pendências + esvaziar o diário do outro
+  private final Object travaDiario = new Object();
+  private final AtomicInteger pendentes = new AtomicInteger();
+  private final AtomicInteger emGravacao = new AtomicInteger();
+  private final Counter falhas;
+  //gravação periódica e dos lotes cheios, uma de cada vez
+  private final ScheduledExecutorService gravacao;
+  private final long intervaloMs;
+
+  public PlacarAoVivo(
+    @Value("${partidas.placar-ao-vivo.ativo:false}") boolean ativo,
+    @Value("${partidas.placar-ao-vivo.diretorio:./dados/placar}") String diretorio,
+    @Value("${partidas.placar-ao-vivo.sincronizar-disco:true}") boolean sincronizarDisco,
+    @Value("${partidas.placar-ao-vivo.intervalo-ms:500}") long intervaloMs,
+    @Value("${partidas.placar-ao-vivo.lote-maximo:50}") int loteMaximo,
+    @Value("${partidas.placar-ao-vivo.tamanho-segmento-kb:4096}") long tamanhoSegmentoKb,
+    @Value("${partidas.placar-ao-vivo.ociosa-minutos:30}") long ociosaMinutos,
+    GravadorPlacar gravador,
+    ExecutorComandosEvento comandosEvento,
+    MeterRegistry meterRegistry) throws IOException {
+    this.ativo = ativo;
+    this.intervaloMs = intervaloMs;
+    this.loteMaximo = loteMaximo;
+    this.ociosaNanos = TimeUnit.MINUTES.toNanos(ociosaMinutos);
+    this.gravador = gravador;
+    this.comandosEvento = comandosEvento;
+    this.diario = ativo ? new DiarioAcoes(Path.of(diretorio, "acoes.log"), sincronizarDisco, tamanhoSegmentoKb * 1024) : null;
+    this.gravacao = ativo ? Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "placar-ao-vivo");
+      thread.setDaemon(true);
+      return thread;
+    }) : null;
+    meterRegistry.gauge("partidas.placar-ao-vivo.pendentes", pendentes);
+    this.falhas = Counter.builder("partidas.placar-ao-vivo.falhas").register(meterRegistry);
+  }
+
+  public boolean ativo() {
+    return ativo;
+  }
+
+  //evento da partida em memória (null se ela não está no placar ao vivo), sem consultar o banco
+  public Long eventoDa(Long partidaId) {
+    if (!ativo) {
+      return null;
+    }
+    EstadoPartida estado = partidas.get(partidaId);
+    return estado != null ? estado.eventoId : null;
+  }
+
+  /**
+   * Valida e confirma a ação; a gravação no banco fica para depois. Chamado na vez do evento.
+   *
+   * @throws RegraDeNegocioException partida fora de andamento ou jogador fora dos dois times
+   */
+  public void registrar(Long partidaId, Long jogadorId, TipoAcaoEmJogo tipo) {
+    AdmTimesService.pontosDaAcao(tipo); //rejeita as ações de Elo, como o registro direto
+
+    EstadoPartida estado;
+    boolean loteCheio;
+    while (true) {
+      estado = partidas.get(partidaId);
+      if (estado == null) {
+        GravadorPlacar.DadosPartida dados = gravador.carregar(partidaId);
+        if (dados.status() != StatusPartida.EM_ANDAMENTO) {
+          throw new RegraDeNegocioException("Só é possível registrar ações em partidas em andamento.");
+        }
+        estado = partidas.computeIfAbsent(partidaId, id -> new EstadoPartida(id, dados));
+      }
+
+      synchronized (estado) {
+        //saiu da memória por ociosidade entre a busca e a trava: carrega de novo
+        if (estado.descartada) {
+          continue;
+        }
+        if (estado.encerrada) {
+          throw new RegraDeNegocioException("Só é possível registrar ações em partidas em andamento.");
+        }
+        long timeId = estado.timeDoJogador.get(jogadorId, ElencosPartidas.FORA_DA_PARTIDA);
+        if (timeId == ElencosPartidas.FORA_DA_PARTIDA) {
+          throw new RegraDeNegocioException("Jogador não pertence a nenhum dos times desta partida.");
+        }
+        AcaoAoVivo acao = new AcaoAoVivo(estado.ultimaSequencia + 1, partidaId, jogadorId, timeId, tipo);
+        synchronized (travaDiario) {
+          diario.anotar(acao);
+          estado.ultimaSequencia = acao.sequencia();
+          estado.pendentes.addLast(acao);
+          pendentes.incrementAndGet();
+        }
+        estado.ultimoUso = System.nanoTime();
+        loteCheio = estado.pendentes.size() >= loteMaximo;
+      }
+      break;
+    }
+    if (loteCheio) {
+      EstadoPartida cheia = estado;
+      gravacao.execute(() -> gravarEmSegundoPlano(cheia));
+    }
+  }
+
+  /**
+   * Grava as ações pendentes da partida na transação corrente, antes de um comando que lê o
+   * placar do banco. Com {@code encerrar}, a partida deixa de aceitar ações (finalização).
+   */
+  public void gravarNaTransacao(Long partidaId, boolean encerrar) {
+    EstadoPartida estado = partidas.get(partidaId);
+    if (estado == null) {
+      return;
+    }
+    if (encerrar) {
+      synchronized (estado) {
+        estado.encerrada = true;
+      }
+      AposCommit.executar(() -> partidas.remove(partidaId, estado));
+      AposCommit.seDesfeita(() -> {
+        synchronized (estado) {
+          estado.encerrada = false;
+        }
+      });
+    }
+    List<AcaoAoVivo> lote = drenar(estado);
+    if (lote.isEmpty()) {
+      return;
+    }
+    AposCommit.seDesfeita(() -> devolver(estado, lote));
+    gravador.gravar(partidaId, lote);
+    AposCommit.executar(() -> confirmar(estado, lote));
+  }
+
+  //chamado a cada intervalo pela thread de gravação, depois da recuperação do diário
+  public void gravarPendentes() {
+    if (!ativo) {
+      return;
+    }
+    long agora = System.nanoTime();
+    for (EstadoPartida estado : partidas.values()) {
+      boolean semPendentes;
+      synchronized (estado) {
+        semPendentes = estado.pendentes.isEmpty();
+      }
+      //partida sem nada a gravar não disputa a vez do evento com o mesário
+      if (!semPendentes) {
+        gravarEmSegundoPlano(estado);
+      }
+      descartarSeParada(estado, agora);
+    }
+    synchronized (travaDiario) {
+      if (pendentes.get() == 0 && emGravacao.get() == 0) {
+        diario.esvaziar();
+      }
+    }
+    diario.rotacionarSeCheio();
+    diario.descartarSegmentos(this::gravadaAte);
+  }
+
+  //regrava o diário deixado por uma queda; ações já gravadas são descartadas pela sequência.
+  //Partida que não existe mais (evento apagado, banco recriado) ou ação de um time que não é A nem B
+  //da partida (id reaproveitado por outra partida) é ignorada: a subida não para por causa do diário
+  @EventListener(ApplicationReadyEvent.class)
+  public void recuperarDiario() {
+    if (!ativo) {
+      return;
+    }
+    Map<Long, List<AcaoAoVivo>> porPartida = new LinkedHashMap<>();
+    for (AcaoAoVivo acao : diario.ler()) {
+      porPartida.computeIfAbsent(acao.partidaId(), id -> new ArrayList<>()).add(acao);
+    }
+    porPartida.forEach((partidaId, acoes) -> {
+      GravadorPlacar.DadosPartida dados;
+      try {
+        dados = gravador.carregar(partidaId);
+      } catch (PartidaNaoEncontradaException e) {
+        System.out.println("Placar ao vivo: partida " + partidaId + " do diário não existe; "
+          + acoes.size() + " ações ignoradas");
+        return;
+      }
+      EstadoPartida estado = new EstadoPartida(partidaId, dados);
+      estado.encerrada = dados.status() != StatusPartida.EM_ANDAMENTO;
+      estado.recuperadaJaFinalizada = estado.encerrada;
+      int deOutroTime = 0;
+      for (AcaoAoVivo acao : acoes) {
+        if (acao.timeId() != dados.timeAId() && acao.timeId() != dados.timeBId()) {
+          deOutroTime++;
+        } else if (acao.sequencia() > estado.ultimaSequencia) {
+          estado.ultimaSequencia = acao.sequencia();
+          estado.pendentes.addLast(acao);
+          pendentes.incrementAndGet();
+        }
+      }
+      if (deOutroTime > 0) {
+        System.out.println("Placar ao vivo: " + deOutroTime + " ações do diário com time fora da partida "
+          + partidaId + " ignoradas");
+      }
+      partidas.put(partidaId, estado);
+    });
+    gravarPendentes();
+    gravacao.scheduleWithFixedDelay(() -> {
+      try {
+        gravarPendentes();
+      } catch (RuntimeException e) {
+        //uma rodada com erro (diário, banco) não cancela as próximas
+        falhas.increment();
+      }
+    }, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+  }
+
+  //última gravação na parada normal; o que falhar continua no diário
+  @PreDestroy
+  public void encerrar() throws IOException {
+    if (ativo) {
+      gravacao.shutdown();
+      try {
+        gravacao.awaitTermination(intervaloMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      gravarPendentes();
+      diario.close();
+    }
+  }
+
+  //transação própria na vez do evento; falha devolve o lote para a próxima rodada
+  private void gravarEmSegundoPlano(EstadoPartida estado) {
+    try {
+      comandosEvento.executar(estado.eventoId, () -> {
+        List<AcaoAoVivo> lote = drenar(estado);
+        if (lote.isEmpty()) {
+          return;
+        }
+        try {
+          gravador.gravar(estado.partidaId, lote);
+          confirmar(estado, lote);
+        } catch (RuntimeException e) {
+          devolver(estado, lote);
+          throw e;
+        }
+      });
+    } catch (RuntimeException e) {
+      falhas.increment();
+    }
+  }
+
+  private List<AcaoAoVivo> drenar(EstadoPartida estado) {
+    synchronized (estado) {
+      List<AcaoAoVivo> lote = new ArrayList<>(estado.pendentes);
+      estado.pendentes.clear();
+      //primeiro soma em gravação: pendentes + em gravação nunca passa por zero com ações no ar
+      estado.emGravacao += lote.size();
+      emGravacao.addAndGet(lote.size());
+      pendentes.addAndGet(-lote.size());
+      return lote;
+    }
+  }
+
+  private void devolver(EstadoPartida estado, List<AcaoAoVivo> lote) {
+    synchronized (estado) {
+      for (int i = lote.size() - 1; i >= 0; i--) {
+        estado.pendentes.addFirst(lote.get(i));
+      }
+      pendentes.addAndGet(lote.size());
+      estado.emGravacao -= lote.size();
+      emGravacao.addAndGet(-lote.size());
+    }
+  }
+
+  //lote no banco: avança a marca que libera os segmentos do diário
+  private void confirmar(EstadoPartida estado, List<AcaoAoVivo> lote) {
+    synchronized (estado) {
+      estado.gravadaAte = Math.max(estado.gravadaAte, lote.get(lote.size() - 1).sequencia());
+      estado.emGravacao -= lote.size();
+      emGravacao.addAndGet(-lote.size());
+    }
+  }
+
+  //fora da memória, a partida não tem nada pendente: tudo o que anotou já está no banco
+  private long gravadaAte(Long partidaId) {
+    EstadoPartida estado = partidas.get(partidaId);
+    if (estado == null) {
+      return Long.MAX_VALUE;
+    }
+    synchronized (estado) {
+      return estado.gravadaAte;
+    }
+  }
+
+  //partida recuperada já finalizada ou ociosa, sem nada pendente nem em gravação, sai do mapa
+  private void descartarSeParada(EstadoPartida estado, long agora) {
+    synchronized (estado) {
+      boolean parada = estado.recuperadaJaFinalizada || agora - estado.ultimoUso >= ociosaNanos;
+      if (parada && estado.pendentes.isEmpty() && estado.emGravacao == 0) {
+        estado.descartada = true;
+        partidas.remove(estado.partidaId, estado);
+      }
+    }
+  }
+
+  //estado de uma partida com placar ao vivo; campos mutáveis protegidos pelo próprio objeto
+  private static final class EstadoPartida {
+    final long partidaId;
+    final Long eventoId;
+    final MapaLongLong timeDoJogador;
+    final ArrayDeque<AcaoAoVivo> pendentes = new ArrayDeque<>();
+    long ultimaSequencia;
+    //última sequência no banco, gravada por esta instância ou antes dela
+    long gravadaAte;
+    int emGravacao;
+    long ultimoUso = System.nanoTime();
+    boolean encerrada;
+    //partida que já estava finalizada quando o diário foi recuperado: sai do mapa depois de gravada
+    boolean recuperadaJaFinalizada;
+    //fora do mapa: quem ainda a tinha em mãos deve buscar de novo
+    boolean descartada;
+
+    EstadoPartida(long partidaId, GravadorPlacar.DadosPartida dados) {
+      this.partidaId = partidaId;
+      this.eventoId = dados.eventoId();
+      this.timeDoJogador = dados.timeDoJogador();
+      this.ultimaSequencia = dados.ultimaAcao();
+      this.gravadaAte = dados.ultimaAcao();
+    }
+  }
+}
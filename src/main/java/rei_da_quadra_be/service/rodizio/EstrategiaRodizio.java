@@ -0,0 +1,19 @@
+package rei_da_quadra_be.service.rodizio;
+
+import java.util.List;
+
+/**
+ * Regras do rodízio entre partidas, separadas da persistência: o AdmTimesService monta as
+ * entradas a partir das inscrições e aplica o resultado nas entidades. A troca de jogadores
+ * entre banco e time perdedor fica com o MotorRodizio (FilaRodizio).
+ */
+public interface EstrategiaRodizio {
+
+  /**
+   * Próximo desafiante entre os times ativos (sem o time de espera), excluindo o vencedor.
+   *
+   * @param vencedorId id do vencedor; null em caso de empate
+   * @param perdedorId devolvido quando não há outro candidato
+   */
+  long escolherDesafiante(List<TimeRodizio> timesAtivos, Long vencedorId, long perdedorId);
+}
@@ -0,0 +1,176 @@
+package rei_da_quadra_be.service.rodizio;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filas de prioridade do rodízio de um evento: um heap indexado para o banco e um por time.
+ *
+ * Regras do rodízio com tickets, sem reordenar listas a cada partida:
+ * - banco: quem jogou menos primeiro, desempate por menor Elo e depois ordem de inscrição;
+ * - time: quem jogou mais primeiro, desempate pela ordem de inscrição.
+ * Escolher k trocas custa O(k log n); atualizar partidas ou Elo de um jogador, O(log n).
+ *
+ * A troca é feita em duas etapas: {@link #planejarTroca} só consulta (quem entra e quem sai)
+ * e {@link #aplicarTroca} move os tickets, depois que a troca foi gravada no banco.
+ */
+public final class FilaRodizio {
+
+  static final Comparator<Ticket> ORDEM_BANCO = Comparator
+    .comparingInt((Ticket t) -> t.partidasJogadas)
+    .thenComparingInt(t -> t.pontos)
+    .thenComparingLong(t -> t.inscricaoId);
+
+  static final Comparator<Ticket> ORDEM_TIME = Comparator
+    .comparingInt((Ticket t) -> -t.partidasJogadas)
+    .thenComparingLong(t -> t.inscricaoId);
+
+  private final Map<Long, Ticket> porInscricao = new HashMap<>();
+  private final Map<Long, Ticket> porJogador = new HashMap<>();
+  private final Map<Long, HeapIndexado> heaps = new HashMap<>();
+  private Long timeEsperaId;
+
+  public synchronized void adicionar(long inscricaoId, long jogadorId, long timeId, boolean timeDeEspera,
+                                     int partidasJogadas, int pontos) {
+    if (timeDeEspera) {
+      timeEsperaId = timeId;
+    }
+    Ticket ticket = new Ticket(inscricaoId, jogadorId, partidasJogadas, pontos);
+    ticket.timeId = timeId;
+    porInscricao.put(inscricaoId, ticket);
+    porJogador.put(jogadorId, ticket);
+    heap(timeId, timeDeEspera).inserir(ticket);
+  }
+
+  public synchronized int tamanho() {
+    return porInscricao.size();
+  }
+
+  //valores absolutos: aplicar duas vezes o mesmo estado não muda nada
+  public synchronized void atualizar(long inscricaoId, int partidasJogadas, int pontos) {
+    Ticket ticket = porInscricao.get(inscricaoId);
+    if (ticket != null && (ticket.partidasJogadas != partidasJogadas || ticket.pontos != pontos)) {
+      ticket.partidasJogadas = partidasJogadas;
+      ticket.pontos = pontos;
+      heaps.get(ticket.timeId).atualizado(ticket);
+    }
+  }
+
+  public synchronized void atualizarPartidas(long inscricaoId, int partidasJogadas) {
+    Ticket ticket = porInscricao.get(inscricaoId);
+    if (ticket != null) {
+      atualizar(inscricaoId, partidasJogadas, ticket.pontos);
+    }
+  }
+
+  public synchronized void atualizarPontos(long jogadorId, int pontos) {
+    Ticket ticket = porJogador.get(jogadorId);
+    if (ticket != null) {
+      atualizar(ticket.inscricaoId, ticket.partidasJogadas, pontos);
+    }
+  }
+
+  /**
+   * Quem sai do banco para o time perdedor e quem do time perdedor vai para o banco, em
+   * quantidades iguais e no máximo {@code tamanhoTime}. Não altera as filas.
+   */
+  public synchronized Troca planejarTroca(long timePerdedorId, int tamanhoTime) {
+    HeapIndexado banco = timeEsperaId == null ? null : heaps.get(timeEsperaId);
+    HeapIndexado perdedor = heaps.get(timePerdedorId);
+    if (banco == null || banco.tamanho() == 0) {
+      return new Troca(List.of(), List.of());
+    }
+
+    List<Ticket> entram = retirar(banco, tamanhoTime);
+    List<Ticket> saem = perdedor == null ? List.of() : retirar(perdedor, entram.size());
+    for (Ticket ticket : entram) {
+      banco.inserir(ticket);
+    }
+    for (Ticket ticket : saem) {
+      perdedor.inserir(ticket);
+    }
+    return new Troca(ids(entram), ids(saem));
+  }
+
+  /**
+   * Move os tickets conforme a troca. Retorna false se as filas não conhecem algum dos
+   * inscritos no time esperado (estado divergente do banco); nesse caso nada é alterado.
+   */
+  public synchronized boolean aplicarTroca(Troca troca, long timePerdedorId) {
+    if (troca.entram().isEmpty() && troca.saem().isEmpty()) {
+      return true;
+    }
+    if (timeEsperaId == null || !todosNoTime(troca.entram(), timeEsperaId) || !todosNoTime(troca.saem(), timePerdedorId)) {
+      return false;
+    }
+    for (Long id : troca.entram()) {
+      mover(porInscricao.get(id), timePerdedorId, false);
+    }
+    for (Long id : troca.saem()) {
+      mover(porInscricao.get(id), timeEsperaId, true);
+    }
+    return true;
+  }
+
+  private boolean todosNoTime(List<Long> inscricaoIds, long timeId) {
+    for (Long id : inscricaoIds) {
+      Ticket ticket = porInscricao.get(id);
+      if (ticket == null || ticket.timeId != timeId) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void mover(Ticket ticket, long destino, boolean destinoEspera) {
+    heaps.get(ticket.timeId).remover(ticket);
+    ticket.timeId = destino;
+    heap(destino, destinoEspera).inserir(ticket);
+  }
+
+  private HeapIndexado heap(long timeId, boolean espera) {
+    return heaps.computeIfAbsent(timeId, id -> new HeapIndexado(espera ? ORDEM_BANCO : ORDEM_TIME));
+  }
+
+  private static List<Ticket> retirar(HeapIndexado heap, int quantidade) {
+    int total = Math.min(quantidade, heap.tamanho());
+    List<Ticket> retirados = new ArrayList<>(total);
+    for (int i = 0; i < total; i++) {
+      retirados.add(heap.retirarTopo());
+    }
+    return retirados;
+  }
+
+  private static List<Long> ids(List<Ticket> tickets) {
+    List<Long> ids = new ArrayList<>(tickets.size());
+    for (Ticket ticket : tickets) {
+      ids.add(ticket.inscricaoId);
+    }
+    return ids;
+  }
+
+  /**
+   * @param entram ids das inscrições que saem do banco, na ordem de prioridade
+   * @param saem   ids das inscrições do time perdedor que vão para o banco
+   */
+  public record Troca(List<Long> entram, List<Long> saem) {}
+
+  static final class Ticket {
+    final long inscricaoId;
+    final long jogadorId;
+    int partidasJogadas;
+    int pontos;
+    long timeId;
+    int posicao = -1; //posição no heap do time atual
+
+    Ticket(long inscricaoId, long jogadorId, int partidasJogadas, int pontos) {
+      this.inscricaoId = inscricaoId;
+      this.jogadorId = jogadorId;
+      this.partidasJogadas = partidasJogadas;
+      this.pontos = pontos;
+    }
+  }
+}
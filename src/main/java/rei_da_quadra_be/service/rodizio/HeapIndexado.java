@@ -0,0 +1,103 @@
+package rei_da_quadra_be.service.rodizio;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Heap binário em que cada elemento guarda a própria posição no array: além de inserir e
+ * retirar o topo, permite remover ou reposicionar um elemento qualquer em O(log n).
+ * Não é thread-safe; quem usa (FilaRodizio) sincroniza.
+ */
+final class HeapIndexado {
+
+  private final Comparator<FilaRodizio.Ticket> ordem;
+  private FilaRodizio.Ticket[] elementos = new FilaRodizio.Ticket[8];
+  private int tamanho;
+
+  HeapIndexado(Comparator<FilaRodizio.Ticket> ordem) {
+    this.ordem = ordem;
+  }
+
+  int tamanho() {
+    return tamanho;
+  }
+
+  void inserir(FilaRodizio.Ticket ticket) {
+    if (tamanho == elementos.length) {
+      elementos = Arrays.copyOf(elementos, tamanho * 2);
+    }
+    elementos[tamanho] = ticket;
+    ticket.posicao = tamanho;
+    tamanho++;
+    subir(ticket.posicao);
+  }
+
+  FilaRodizio.Ticket retirarTopo() {
+    FilaRodizio.Ticket topo = elementos[0];
+    remover(topo);
+    return topo;
+  }
+
+  void remover(FilaRodizio.Ticket ticket) {
+    int posicao = ticket.posicao;
+    int ultimo = --tamanho;
+    if (posicao != ultimo) {
+      colocar(elementos[ultimo], posicao);
+      elementos[ultimo] = null;
+      reposicionar(posicao);
+    } else {
+      elementos[ultimo] = null;
+    }
+    ticket.posicao = -1;
+  }
+
+  //chamar depois de alterar a chave (partidas/pontos) de um elemento que está no heap
+  void atualizado(FilaRodizio.Ticket ticket) {
+    reposicionar(ticket.posicao);
+  }
+
+  private void reposicionar(int posicao) {
+    if (posicao > 0 && ordem.compare(elementos[posicao], elementos[(posicao - 1) / 2]) < 0) {
+      subir(posicao);
+    } else {
+      descer(posicao);
+    }
+  }
+
+  private void subir(int posicao) {
+    FilaRodizio.Ticket ticket = elementos[posicao];
+    while (posicao > 0) {
+      int pai = (posicao - 1) / 2;
+      if (ordem.compare(ticket, elementos[pai]) >= 0) {
+        break;
+      }
+      colocar(elementos[pai], posicao);
+      posicao = pai;
+    }
+    colocar(ticket, posicao);
+  }
+
+  private void descer(int posicao) {
+    FilaRodizio.Ticket ticket = elementos[posicao];
+    while (true) {
+      int filho = 2 * posicao + 1;
+      if (filho >= tamanho) {
+        break;
+      }
+      if (filho + 1 < tamanho && ordem.compare(elementos[filho + 1], elementos[filho]) < 0) {
+        filho++;
+      }
+      if (ordem.compare(elementos[filho], ticket) >= 0) {
+        break;
+      }
+      colocar(elementos[filho], posicao);
+      posicao = filho;
+    }
+    colocar(ticket, posicao);
+  }
+
+  private void colocar(FilaRodizio.Ticket ticket, int posicao) {
+    elementos[posicao] = ticket;
+    ticket.posicao = posicao;
+  }
+}
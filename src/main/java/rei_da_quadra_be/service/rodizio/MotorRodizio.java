@@ -0,0 +1,113 @@
+package rei_da_quadra_be.service.rodizio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import rei_da_quadra_be.enums.StatusEvento;
+import rei_da_quadra_be.repository.InscricaoRepository;
+import rei_da_quadra_be.repository.TicketRodizio;
+import rei_da_quadra_be.utils.AposCommit;
+import rei_da_quadra_be.utils.CacheMetricas;
+import rei_da_quadra_be.utils.LruCache;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Mantém as filas do rodízio (FilaRodizio) de cada evento em memória.
+ *
+ * As filas são reconstruídas a partir das inscrições (uma consulta em colunas) na subida da
+ * aplicação, para os eventos ativos com times, ou no primeiro uso. Depois disso, o rodízio só
+ * consulta as filas e as alterações gravadas no banco são repassadas a elas incrementalmente,
+ * sempre após o commit. Rollback descarta as filas do evento, que voltam a ser lidas do banco.
+ */
+@Component
+public class MotorRodizio {
+
+  private final InscricaoRepository inscricaoRepository;
+  private final boolean preCarregar;
+  private final LruCache<Long, FilaRodizio> filas;
+
+  public MotorRodizio(
+    InscricaoRepository inscricaoRepository,
+    @Value("${rodizio.motor.pre-carregar:true}") boolean preCarregar,
+    @Value("${rodizio.motor.max-eventos:1000}") int maxEventos,
+    @Value("${rodizio.motor.ttl-horas:12}") long ttlHoras,
+    MeterRegistry meterRegistry) {
+    this.inscricaoRepository = inscricaoRepository;
+    this.preCarregar = preCarregar;
+    this.filas = new LruCache<>(maxEventos, Duration.ofHours(ttlHoras));
+    CacheMetricas.registrar(meterRegistry, "rodizio.filas", filas);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void carregarNaSubida() {
+    if (preCarregar) {
+      for (Long eventoId : inscricaoRepository.buscarEventosComTimes(StatusEvento.ATIVO)) {
+        filas.put(eventoId, construir(eventoId));
+      }
+    }
+  }
+
+  /**
+   * Quem entra do banco e quem sai do time perdedor. Não altera as filas: depois de gravar a
+   * troca, chamar {@link #confirmarTroca}.
+   */
+  public FilaRodizio.Troca planejarTroca(Long eventoId, long timePerdedorId, int tamanhoTime) {
+    FilaRodizio fila = filas.get(eventoId, this::construir);
+    AposCommit.seDesfeita(() -> invalidar(eventoId));
+    return fila.planejarTroca(timePerdedorId, tamanhoTime);
+  }
+
+  public void confirmarTroca(Long eventoId, FilaRodizio.Troca troca, long timePerdedorId) {
+    AposCommit.executar(() -> {
+      FilaRodizio fila = filas.get(eventoId);
+      if (fila != null && !fila.aplicarTroca(troca, timePerdedorId)) {
+        invalidar(eventoId);
+      }
+    });
+  }
+
+  //partidas jogadas atuais por inscrição (valores absolutos), aplicadas após o commit
+  public void partidasAlteradas(Long eventoId, Map<Long, Integer> partidasPorInscricao) {
+    AposCommit.executar(() -> {
+      FilaRodizio fila = filas.get(eventoId);
+      if (fila != null) {
+        partidasPorInscricao.forEach(fila::atualizarPartidas);
+      }
+    });
+  }
+
+  public void pontosAlterados(Long jogadorId, int pontos) {
+    pontosAlterados(Map.of(jogadorId, pontos));
+  }
+
+  //o Elo é do jogador, não da inscrição: vale para todos os eventos em que ele está
+  public void pontosAlterados(Map<Long, Integer> pontosPorJogador) {
+    AposCommit.executar(() -> {
+      for (FilaRodizio fila : filas.valores()) {
+        pontosPorJogador.forEach(fila::atualizarPontos);
+      }
+    });
+  }
+
+  //times remontados ou inscrições removidas: as filas voltam a ser lidas do banco
+  public void invalidar(Long eventoId) {
+    filas.invalidar(eventoId);
+  }
+
+  public void invalidarAposCommit(Long eventoId) {
+    AposCommit.executar(() -> invalidar(eventoId));
+  }
+
+  private FilaRodizio construir(Long eventoId) {
+    FilaRodizio fila = new FilaRodizio();
+    for (TicketRodizio ticket : inscricaoRepository.listarTicketsRodizio(eventoId)) {
+      fila.adicionar(ticket.inscricaoId(), ticket.jogadorId(), ticket.timeId(), ticket.timeDeEspera(),
+        ticket.partidasJogadas(), ticket.pontosHabilidade());
+    }
+    return fila;
+  }
+}
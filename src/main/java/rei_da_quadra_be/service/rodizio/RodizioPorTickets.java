@@ -0,0 +1,29 @@
+package rei_da_quadra_be.service.rodizio;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rodízio com tickets, a regra original do AdmTimesService: o desafiante é o time ativo, fora o
+ * vencedor, com menos partidas somadas (empate: o primeiro). Quem entra e quem sai do time
+ * perdedor é decidido pela FilaRodizio.
+ */
+@Component
+public class RodizioPorTickets implements EstrategiaRodizio {
+
+  @Override
+  public long escolherDesafiante(List<TimeRodizio> timesAtivos, Long vencedorId, long perdedorId) {
+    //a preferência por quem ainda não jogou (soma zero) já sai do menor total
+    TimeRodizio escolhido = null;
+    for (TimeRodizio time : timesAtivos) {
+      if (vencedorId != null && time.id() == vencedorId) {
+        continue;
+      }
+      if (escolhido == null || time.partidasJogadas() < escolhido.partidasJogadas()) {
+        escolhido = time;
+      }
+    }
+    return escolhido != null ? escolhido.id() : perdedorId;
+  }
+}
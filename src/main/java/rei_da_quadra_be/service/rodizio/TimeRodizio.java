@@ -0,0 +1,9 @@
+package rei_da_quadra_be.service.rodizio;
+
+/**
+ * Time ativo candidato a desafiante.
+ *
+ * @param id               id do time
+ * @param partidasJogadas  soma das partidas jogadas pelos jogadores que estão no time
+ */
+public record TimeRodizio(long id, int partidasJogadas) {}
@@ -0,0 +1,44 @@
+package rei_da_quadra_be.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma ação em memória (índice, cache) para depois do commit da transação corrente,
+ * para que leitores nunca vejam uma alteração que ainda pode sofrer rollback.
+ * Fora de transação, executa na hora.
+ */
+public final class AposCommit {
+
+  private AposCommit() {}
+
+  public static void executar(Runnable acao) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          acao.run();
+        }
+      });
+    } else {
+      acao.run();
+    }
+  }
+
+  /**
+   * Executa a ação se a transação corrente terminar em rollback, para descartar um estado em
+   * memória alterado dentro dela. Fora de transação, não faz nada.
+   */
+  public static void seDesfeita(Runnable acao) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            acao.run();
+          }
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package rei_da_quadra_be.utils;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.JoinColumn;
+import rei_da_quadra_be.service.exception.CampoInvalidoException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Aplica atualizações parciais (PATCH) vindas como Map campo -> valor JSON numa entidade.
+ *
+ * A tabela de campos é montada uma vez por entidade: para cada campo permitido guarda um
+ * MethodHandle de escrita e o conversor do tipo do campo. Aplicar um patch é só consultar o mapa,
+ * converter e escrever, sem getDeclaredField/setAccessible por requisição.
+ *
+ * O patch é validado por inteiro antes de qualquer escrita: campo desconhecido, não permitido,
+ * valor de tipo errado ou null em coluna obrigatória rejeitam a requisição toda com
+ * {@link CampoInvalidoException}, sem alterar a entidade.
+ */
+public final class AtualizadorParcial<T> {
+
+  // mesmo fuso do ObjectMapper (JacksonConfig) para datas enviadas sem offset
+  private static final ZoneId FUSO_PADRAO = ZoneId.of("America/Sao_Paulo");
+
+  // aceita com ou sem fração de segundo e com ou sem offset, como o JacksonConfig
+  private static final DateTimeFormatter FORMATO_DATA = new DateTimeFormatterBuilder()
+    .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+    .optionalStart()
+    .appendOffsetId()
+    .optionalEnd()
+    .toFormatter();
+
+  private final Class<T> tipo;
+  private final Set<String> camposDeclarados;
+  private final Map<String, Campo> campos;
+
+  private AtualizadorParcial(Class<T> tipo, Set<String> camposDeclarados, Map<String, Campo> campos) {
+    this.tipo = tipo;
+    this.camposDeclarados = camposDeclarados;
+    this.campos = campos;
+  }
+
+  /**
+   * Monta o atualizador da entidade; só os campos listados em {@code permitidos} podem ser alterados.
+   * Falha já na subida se algum campo não existir ou tiver tipo sem conversor.
+   */
+  public static <T> AtualizadorParcial<T> para(Class<T> tipo, String... permitidos) {
+    MethodHandles.Lookup lookup;
+    try {
+      lookup = MethodHandles.privateLookupIn(tipo, MethodHandles.lookup());
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Sem acesso aos campos de " + tipo.getName(), e);
+    }
+
+    Set<String> declarados = new HashSet<>();
+    for (Field field : tipo.getDeclaredFields()) {
+      if (!Modifier.isStatic(field.getModifiers())) {
+        declarados.add(field.getName());
+      }
+    }
+
+    Map<String, Campo> campos = new HashMap<>();
+    for (String nome : permitidos) {
+      try {
+        Field field = tipo.getDeclaredField(nome);
+        MethodHandle setter = lookup.unreflectSetter(field)
+          .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        campos.put(nome, new Campo(setter, conversor(field.getType()), aceitaNulo(field)));
+      } catch (NoSuchFieldException | IllegalAccessException e) {
+        throw new IllegalStateException("Campo " + nome + " inválido em " + tipo.getName(), e);
+      }
+    }
+    return new AtualizadorParcial<>(tipo, Set.copyOf(declarados), Map.copyOf(campos));
+  }
+
+  public void aplicar(T alvo, Map<String, Object> valores) {
+    List<String> erros = new ArrayList<>();
+    List<Map.Entry<Campo, Object>> escritas = new ArrayList<>(valores.size());
+
+    valores.forEach((nome, valor) -> {
+      Campo campo = campos.get(nome);
+      if (campo == null) {
+        erros.add(camposDeclarados.contains(nome)
+          ? "campo '" + nome + "' não pode ser alterado"
+          : "campo '" + nome + "' não existe em " + tipo.getSimpleName());
+        return;
+      }
+      if (valor == null) {
+        if (campo.aceitaNulo()) {
+          escritas.add(new AbstractMap.SimpleEntry<>(campo, null));
+        } else {
+          erros.add("campo '" + nome + "' é obrigatório");
+        }
+        return;
+      }
+      try {
+        escritas.add(new AbstractMap.SimpleEntry<>(campo, campo.conversor().apply(valor)));
+      } catch (RuntimeException e) {
+        erros.add("valor inválido para o campo '" + nome + "': " + valor);
+      }
+    });
+
+    if (!erros.isEmpty()) {
+      throw new CampoInvalidoException(String.join("; ", erros));
+    }
+
+    for (Map.Entry<Campo, Object> escrita : escritas) {
+      try {
+        escrita.getKey().setter().invokeExact((Object) alvo, escrita.getValue());
+      } catch (Throwable e) {
+        throw new IllegalStateException("Falha ao escrever campo de " + tipo.getSimpleName(), e);
+      }
+    }
+  }
+
+  private static boolean aceitaNulo(Field field) {
+    if (field.getType().isPrimitive()) {
+      return false;
+    }
+    Column column = field.getAnnotation(Column.class);
+    if (column != null) {
+      return column.nullable();
+    }
+    JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+    return joinColumn == null || joinColumn.nullable();
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Function<Object, Object> conversor(Class<?> tipo) {
+    if (tipo == String.class) {
+      return valor -> (String) valor;
+    }
+    if (tipo == Integer.class || tipo == int.class) {
+      return valor -> Math.toIntExact(inteiro(valor));
+    }
+    if (tipo == Long.class || tipo == long.class) {
+      return AtualizadorParcial::inteiro;
+    }
+    if (tipo == Double.class || tipo == double.class) {
+      return valor -> ((Number) valor).doubleValue();
+    }
+    if (tipo == Boolean.class || tipo == boolean.class) {
+      return valor -> (Boolean) valor;
+    }
+    if (tipo.isEnum()) {
+      Class<? extends Enum> tipoEnum = (Class<? extends Enum>) tipo;
+      return valor -> Enum.valueOf(tipoEnum, ((String) valor).trim().toUpperCase(Locale.ROOT));
+    }
+    if (tipo == OffsetDateTime.class) {
+      return valor -> {
+        TemporalAccessor data = FORMATO_DATA.parse((String) valor);
+        return data.isSupported(ChronoField.OFFSET_SECONDS)
+          ? OffsetDateTime.from(data)
+          : LocalDateTime.from(data).atZone(FUSO_PADRAO).toOffsetDateTime();
+      };
+    }
+    if (tipo == LocalDateTime.class) {
+      return valor -> LocalDateTime.from(FORMATO_DATA.parse((String) valor));
+    }
+    throw new IllegalStateException("Tipo sem conversor para atualização parcial: " + tipo.getName());
+  }
+
+  // JSON chega como Integer, Long ou BigInteger; número com casas decimais não é aceito
+  private static long inteiro(Object valor) {
+    Number numero = (Number) valor;
+    if (numero instanceof Double || numero instanceof Float) {
+      double d = numero.doubleValue();
+      if (d != Math.rint(d)) {
+        throw new ArithmeticException("Número não inteiro: " + valor);
+      }
+      return (long) d;
+    }
+    if (numero instanceof BigDecimal decimal) {
+      return decimal.longValueExact();
+    }
+    if (numero instanceof BigInteger grande) {
+      return grande.longValueExact();
+    }
+    return numero.longValue();
+  }
+
+  private record Campo(MethodHandle setter, Function<Object, Object> conversor, boolean aceitaNulo) {}
+}
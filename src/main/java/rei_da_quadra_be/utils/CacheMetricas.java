@@ -0,0 +1,34 @@
+package rei_da_quadra_be.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publica tamanho, acertos, falhas e taxa de acerto de um {@link LruCache} no Micrometer
+ * (visíveis em /actuator/metrics/cache.*, filtrando pela tag "cache").
+ */
+public final class CacheMetricas {
+
+  private CacheMetricas() {}
+
+  public static void registrar(MeterRegistry registry, String nome, LruCache<?, ?> cache) {
+    Gauge.builder("cache.size", cache, LruCache::tamanho)
+      .tag("cache", nome)
+      .register(registry);
+
+    Gauge.builder("cache.hit.ratio", cache, LruCache::taxaDeAcerto)
+      .tag("cache", nome)
+      .register(registry);
+
+    FunctionCounter.builder("cache.gets", cache, LruCache::getAcertos)
+      .tag("cache", nome)
+      .tag("result", "hit")
+      .register(registry);
+
+    FunctionCounter.builder("cache.gets", cache, LruCache::getFalhas)
+      .tag("cache", nome)
+      .tag("result", "miss")
+      .register(registry);
+  }
+}
@@ -0,0 +1,49 @@
+package rei_da_quadra_be.utils;
+
+/**
+ * Cálculos geográficos usados na busca de eventos próximos.
+ *
+ * A distância é a mesma lei esférica dos cossenos usada na query (raio médio da Terra de 6371 km),
+ * para que o filtro em memória e o do banco concordem.
+ */
+public class GeoUtils {
+
+    public static final double RAIO_TERRA_KM = 6371.0;
+
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double cos = Math.cos(phi1) * Math.cos(phi2) * Math.cos(Math.toRadians(lon2) - Math.toRadians(lon1))
+                + Math.sin(phi1) * Math.sin(phi2);
+        //arredondamento pode passar de 1 em pontos quase iguais, o que daria NaN no acos
+        return RAIO_TERRA_KM * Math.acos(Math.max(-1.0, Math.min(1.0, cos)));
+    }
+
+    /**
+     * Menor retângulo lat/lon que contém o círculo de raio raioKm em torno do ponto.
+     * Serve de pré-filtro indexável: tudo fora dele está garantidamente fora do raio.
+     */
+    public static CaixaDelimitadora caixaDelimitadora(double lat, double lon, double raioKm) {
+        double raioAngular = raioKm / RAIO_TERRA_KM;
+        double deltaLat = Math.toDegrees(raioAngular);
+        double latMin = lat - deltaLat;
+        double latMax = lat + deltaLat;
+
+        //círculo alcança um polo: qualquer longitude pode estar dentro do raio
+        if (latMin <= -90.0 || latMax >= 90.0) {
+            return new CaixaDelimitadora(Math.max(latMin, -90.0), Math.min(latMax, 90.0), -180.0, 180.0);
+        }
+
+        double deltaLon = Math.toDegrees(Math.asin(Math.sin(raioAngular) / Math.cos(Math.toRadians(lat))));
+        double lonMin = lon - deltaLon;
+        double lonMax = lon + deltaLon;
+
+        //atravessa o antimeridiano: raro para o uso do app, abre a faixa inteira em vez de dividir em duas
+        if (lonMin < -180.0 || lonMax > 180.0) {
+            return new CaixaDelimitadora(latMin, latMax, -180.0, 180.0);
+        }
+        return new CaixaDelimitadora(latMin, latMax, lonMin, lonMax);
+    }
+
+    public record CaixaDelimitadora(double latMin, double latMax, double lonMin, double lonMax) {}
+}
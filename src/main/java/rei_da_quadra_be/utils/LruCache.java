@@ -0,0 +1,165 @@
+package rei_da_quadra_be.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache em memória limitado por quantidade de entradas (LRU) e por tempo de vida (TTL).
+ *
+ * Pensado para caches pequenos e quentes (principal autenticado, tokens, consultas repetidas),
+ * onde uma única trava curta custa bem menos que a ida ao banco que ela evita.
+ * Guarda contadores de acerto/falha para exposição como métricas.
+ */
+public class LruCache<K, V> {
+
+  private final int capacidade;
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entrada<V>> mapa;
+  // incrementada a cada invalidação (protegida pela trava do mapa); ver get(chave, loader)
+  private long geracao;
+
+  private final LongAdder acertos = new LongAdder();
+  private final LongAdder falhas = new LongAdder();
+
+  public LruCache(int capacidade, Duration ttl) {
+    if (capacidade <= 0) {
+      throw new IllegalArgumentException("A capacidade do cache deve ser positiva");
+    }
+    this.capacidade = capacidade;
+    this.ttlNanos = ttl.toNanos();
+    //accessOrder = true: cada leitura move a entrada para o fim, a mais antiga é a menos usada
+    this.mapa = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+        return size() > LruCache.this.capacidade;
+      }
+    };
+  }
+
+  //retorna o valor em cache ou null se não existir/expirou
+  public V get(K chave) {
+    synchronized (mapa) {
+      return buscar(chave);
+    }
+  }
+
+  /**
+   * Busca no cache e, em caso de falha, carrega pelo loader fora da trava.
+   * Valores nulos retornados pelo loader não são armazenados, nem os carregados enquanto
+   * alguma invalidação acontecia: o loader pode ter lido o estado anterior a ela.
+   */
+  public V get(K chave, Function<? super K, ? extends V> loader) {
+    long geracaoInicial;
+    synchronized (mapa) {
+      V valor = buscar(chave);
+      if (valor != null) {
+        return valor;
+      }
+      geracaoInicial = geracao;
+    }
+    V valor = loader.apply(chave);
+    if (valor != null) {
+      synchronized (mapa) {
+        if (geracao == geracaoInicial) {
+          mapa.put(chave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        }
+      }
+    }
+    return valor;
+  }
+
+  public void put(K chave, V valor) {
+    synchronized (mapa) {
+      mapa.put(chave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+    }
+  }
+
+  //retira e retorna o valor (null se não existir/expirou): para entradas que só podem ser usadas uma vez
+  public V remover(K chave) {
+    synchronized (mapa) {
+      Entrada<V> entrada = mapa.remove(chave);
+      return entrada == null || entrada.expiraEm - System.nanoTime() <= 0 ? null : entrada.valor;
+    }
+  }
+
+  public void invalidar(K chave) {
+    synchronized (mapa) {
+      geracao++;
+      mapa.remove(chave);
+    }
+  }
+
+  //remove todas as entradas cuja chave satisfaz o predicado
+  public void invalidarSe(Predicate<? super K> predicado) {
+    synchronized (mapa) {
+      geracao++;
+      mapa.keySet().removeIf(predicado);
+    }
+  }
+
+  public void limpar() {
+    synchronized (mapa) {
+      geracao++;
+      mapa.clear();
+    }
+  }
+
+  //cópia dos valores presentes (inclusive os já expirados ainda não removidos)
+  public List<V> valores() {
+    synchronized (mapa) {
+      List<V> valores = new ArrayList<>(mapa.size());
+      for (Entrada<V> entrada : mapa.values()) {
+        valores.add(entrada.valor);
+      }
+      return valores;
+    }
+  }
+
+  public int tamanho() {
+    synchronized (mapa) {
+      return mapa.size();
+    }
+  }
+
+  public int getCapacidade() {
+    return capacidade;
+  }
+
+  public long getAcertos() {
+    return acertos.sum();
+  }
+
+  public long getFalhas() {
+    return falhas.sum();
+  }
+
+  public double taxaDeAcerto() {
+    long a = acertos.sum();
+    long total = a + falhas.sum();
+    return total == 0 ? 0.0 : (double) a / total;
+  }
+
+  //chamado com a trava do mapa
+  private V buscar(K chave) {
+    Entrada<V> entrada = mapa.get(chave);
+    if (entrada == null) {
+      falhas.increment();
+      return null;
+    }
+    if (entrada.expiraEm - System.nanoTime() <= 0) {
+      mapa.remove(chave);
+      falhas.increment();
+      return null;
+    }
+    acertos.increment();
+    return entrada.valor;
+  }
+
+  private record Entrada<V>(V valor, long expiraEm) {}
+}
@@ -0,0 +1,114 @@
+package rei_da_quadra_be.utils;
+
+/**
+ * Mapa long -> long em arrays primitivos, com endereçamento aberto (sondagem linear).
+ *
+ * Sem boxing nem um objeto por entrada: uma consulta é um hash e, em geral, uma ou duas
+ * posições do array. Pensado para índices montados uma vez e depois só lidos (ex.: jogador ->
+ * time de uma partida); escritas concorrentes com leituras exigem sincronização externa.
+ */
+public final class MapaLongLong {
+
+  private static final long VAZIO = 0L;
+
+  private long[] chaves;
+  private long[] valores;
+  private int mascara;
+  private int tamanho;
+  //a chave 0 é o marcador de posição livre, então fica fora dos arrays
+  private boolean temZero;
+  private long valorZero;
+
+  public MapaLongLong(int capacidadeEsperada) {
+    //fator de carga até 0.5: sondagens curtas
+    int capacidade = Integer.highestOneBit(Math.max(4, capacidadeEsperada * 2 - 1)) << 1;
+    alocar(capacidade);
+  }
+
+  public void put(long chave, long valor) {
+    if (chave == VAZIO) {
+      if (!temZero) {
+        tamanho++;
+      }
+      temZero = true;
+      valorZero = valor;
+      return;
+    }
+    int i = posicao(chave);
+    while (chaves[i] != VAZIO) {
+      if (chaves[i] == chave) {
+        valores[i] = valor;
+        return;
+      }
+      i = (i + 1) & mascara;
+    }
+    chaves[i] = chave;
+    valores[i] = valor;
+    if (++tamanho * 2 > chaves.length) {
+      crescer();
+    }
+  }
+
+  public long get(long chave, long padrao) {
+    if (chave == VAZIO) {
+      return temZero ? valorZero : padrao;
+    }
+    int i = posicao(chave);
+    long atual;
+    while ((atual = chaves[i]) != VAZIO) {
+      if (atual == chave) {
+        return valores[i];
+      }
+      i = (i + 1) & mascara;
+    }
+    return padrao;
+  }
+
+  public boolean contem(long chave) {
+    if (chave == VAZIO) {
+      return temZero;
+    }
+    int i = posicao(chave);
+    long atual;
+    while ((atual = chaves[i]) != VAZIO) {
+      if (atual == chave) {
+        return true;
+      }
+      i = (i + 1) & mascara;
+    }
+    return false;
+  }
+
+  public int tamanho() {
+    return tamanho;
+  }
+
+  private int posicao(long chave) {
+    //mistura os bits (ids sequenciais caem em posições espalhadas)
+    long h = chave * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mascara;
+  }
+
+  private void alocar(int capacidade) {
+    chaves = new long[capacidade];
+    valores = new long[capacidade];
+    mascara = capacidade - 1;
+  }
+
+  private void crescer() {
+    long[] chavesAntigas = chaves;
+    long[] valoresAntigos = valores;
+    alocar(chaves.length * 2);
+    tamanho = temZero ? 1 : 0;
+    for (int i = 0; i < chavesAntigas.length; i++) {
+      if (chavesAntigas[i] != VAZIO) {
+        put(chavesAntigas[i], valoresAntigos[i]);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "MapaLongLong{tamanho=" + tamanho + ", capacidade=" + chaves.length + "}";
+  }
+}
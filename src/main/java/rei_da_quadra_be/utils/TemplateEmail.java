@@ -0,0 +1,111 @@
+package rei_da_quadra_be.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template de texto com marcadores no formato {{nome}}, compilado uma única vez.
+ *
+ * Na compilação o texto é quebrado em trechos literais e posições de variáveis; as constantes
+ * (ex.: URL da logo) já entram no literal, de modo que cabeçalho e rodapé viram um único trecho.
+ * Renderizar é só concatenar trechos em um StringBuilder já dimensionado, sem reparsear o formato
+ * como o String.formatted fazia a cada e-mail.
+ */
+public final class TemplateEmail {
+
+  private static final String ABRE = "{{";
+  private static final String FECHA = "}}";
+
+  // trechos[i] vem antes da variável indices[i]; o último trecho fecha o texto
+  private final String[] trechos;
+  private final int[] indices;
+  private final int quantidadeVariaveis;
+  private final int tamanhoLiterais;
+
+  private TemplateEmail(String[] trechos, int[] indices, int quantidadeVariaveis) {
+    this.trechos = trechos;
+    this.indices = indices;
+    this.quantidadeVariaveis = quantidadeVariaveis;
+    this.tamanhoLiterais = Arrays.stream(trechos).mapToInt(String::length).sum();
+  }
+
+  /**
+   * @param constantes marcadores resolvidos já na compilação
+   * @param variaveis  marcadores resolvidos em {@link #renderizar(String...)}, nesta ordem
+   */
+  public static TemplateEmail compilar(String texto, Map<String, String> constantes, String... variaveis) {
+    List<String> nomes = List.of(variaveis);
+    List<String> trechos = new ArrayList<>();
+    List<Integer> indices = new ArrayList<>();
+
+    StringBuilder literal = new StringBuilder();
+    int pos = 0;
+    while (true) {
+      int inicio = texto.indexOf(ABRE, pos);
+      if (inicio < 0) {
+        literal.append(texto, pos, texto.length());
+        break;
+      }
+      int fim = texto.indexOf(FECHA, inicio + ABRE.length());
+      if (fim < 0) {
+        throw new IllegalArgumentException("Marcador sem fechamento na posição " + inicio);
+      }
+      literal.append(texto, pos, inicio);
+      String nome = texto.substring(inicio + ABRE.length(), fim).trim();
+
+      if (constantes.containsKey(nome)) {
+        literal.append(constantes.get(nome));
+      } else {
+        int indice = nomes.indexOf(nome);
+        if (indice < 0) {
+          throw new IllegalArgumentException("Marcador sem valor: " + nome);
+        }
+        trechos.add(literal.toString());
+        indices.add(indice);
+        literal.setLength(0);
+      }
+      pos = fim + FECHA.length();
+    }
+    trechos.add(literal.toString());
+
+    return new TemplateEmail(
+      trechos.toArray(new String[0]),
+      indices.stream().mapToInt(Integer::intValue).toArray(),
+      variaveis.length);
+  }
+
+  public static TemplateEmail carregar(String recurso, Map<String, String> constantes, String... variaveis) {
+    try (InputStream in = TemplateEmail.class.getClassLoader().getResourceAsStream(recurso)) {
+      if (in == null) {
+        throw new IllegalStateException("Template não encontrado: " + recurso);
+      }
+      return compilar(new String(in.readAllBytes(), StandardCharsets.UTF_8), constantes, variaveis);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public String renderizar(String... valores) {
+    if (valores.length != quantidadeVariaveis) {
+      throw new IllegalArgumentException(
+        "Esperados " + quantidadeVariaveis + " valores, recebidos " + valores.length);
+    }
+
+    int tamanho = tamanhoLiterais;
+    for (int indice : indices) {
+      tamanho += valores[indice].length();
+    }
+
+    StringBuilder sb = new StringBuilder(tamanho);
+    for (int i = 0; i < indices.length; i++) {
+      sb.append(trechos[i]).append(valores[indices[i]]);
+    }
+    return sb.append(trechos[trechos.length - 1]).toString();
+  }
+}
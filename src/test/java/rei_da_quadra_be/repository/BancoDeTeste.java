@@ -0,0 +1,81 @@
+package rei_da_quadra_be.repository;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * PostgreSQL de verdade para os testes de repositório, num schema próprio criado antes dos testes
+ * da classe e apagado no fim. Sem banco acessível, os testes da classe são ignorados.
+ *
+ * Conexão: a do application.properties, ou a de -Dbanco.teste.url, -Dbanco.teste.usuario e
+ * -Dbanco.teste.senha. Uso: {@code @RegisterExtension static final BancoDeTeste banco = new BancoDeTeste("teste_x");}
+ * e as tabelas criadas num {@code @BeforeAll} da classe, que roda depois do schema pronto.
+ */
+class BancoDeTeste implements BeforeAllCallback, AfterAllCallback {
+
+  private final String schema;
+  private DriverManagerDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  BancoDeTeste(String prefixoSchema) {
+    this.schema = prefixoSchema + "_" + System.nanoTime();
+  }
+
+  @Override
+  public void beforeAll(ExtensionContext context) {
+    Properties aplicacao = propriedadesDaAplicacao();
+    String url = System.getProperty("banco.teste.url", aplicacao.getProperty("spring.datasource.url"));
+    dataSource = new DriverManagerDataSource(url,
+      System.getProperty("banco.teste.usuario", aplicacao.getProperty("spring.datasource.username")),
+      System.getProperty("banco.teste.senha", aplicacao.getProperty("spring.datasource.password")));
+    try (Connection ignored = dataSource.getConnection()) {
+      //banco acessível
+    } catch (Exception e) {
+      assumeTrue(false, "PostgreSQL indisponível: " + e.getMessage());
+    }
+
+    new JdbcTemplate(dataSource).execute("CREATE SCHEMA " + schema);
+    dataSource.setUrl(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @Override
+  public void afterAll(ExtensionContext context) {
+    if (jdbcTemplate != null) {
+      jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+    }
+  }
+
+  JdbcTemplate jdbcTemplate() {
+    return jdbcTemplate;
+  }
+
+  TransactionTemplate transacao() {
+    return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+  }
+
+  private static Properties propriedadesDaAplicacao() {
+    Properties propriedades = new Properties();
+    try (InputStream entrada = BancoDeTeste.class.getResourceAsStream("/application.properties")) {
+      if (entrada != null) {
+        propriedades.load(entrada);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return propriedades;
+  }
+}
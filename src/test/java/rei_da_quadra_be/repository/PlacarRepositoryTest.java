@@ -0,0 +1,122 @@
+package rei_da_quadra_be.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Gols, passes e defesas registrados ao mesmo tempo na mesma partida, contra um PostgreSQL de
+ * verdade (BancoDeTeste).
+ */
+class PlacarRepositoryTest {
+
+  private static final int THREADS = 32;
+  private static final int ACOES_POR_THREAD = 100;
+  private static final int JOGADORES = 10;
+  private static final long PARTIDA = 1;
+  private static final long TIME_A = 10;
+  private static final long TIME_B = 20;
+
+  @RegisterExtension
+  static final BancoDeTeste banco = new BancoDeTeste("teste_placar");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void criarTabelas() {
+    jdbcTemplate = banco.jdbcTemplate();
+    jdbcTemplate.execute("CREATE TABLE partida (partida_id BIGINT PRIMARY KEY, time_a_id BIGINT NOT NULL, " +
+      "time_b_id BIGINT NOT NULL, time_a_placar INTEGER NOT NULL, time_b_placar INTEGER NOT NULL)");
+    jdbcTemplate.execute("CREATE TABLE participacao_desempenho (participacao_id BIGSERIAL PRIMARY KEY, " +
+      "partida_id BIGINT NOT NULL, jogador_id BIGINT NOT NULL, time_id_na_partida BIGINT NOT NULL, " +
+      "gols INTEGER NOT NULL, passes INTEGER NOT NULL, defesas INTEGER NOT NULL, " +
+      "CONSTRAINT uk_participacao_partida_jogador UNIQUE (partida_id, jogador_id))");
+    jdbcTemplate.update("INSERT INTO partida VALUES (?, ?, ?, 0, 0)", PARTIDA, TIME_A, TIME_B);
+  }
+
+  //jogadores ímpares no time A, pares no time B
+  private static long timeDo(long jogador) {
+    return jogador % 2 == 1 ? TIME_A : TIME_B;
+  }
+
+  @Test
+  void registrosConcorrentesNaoPerdemGols() throws Exception {
+    PlacarRepository repository = new PlacarRepository(jdbcTemplate);
+    TransactionTemplate transacao = banco.transacao();
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch largada = new CountDownLatch(1);
+    List<Future<int[][]>> resultados = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      long semente = t;
+      resultados.add(executor.submit(() -> {
+        Random random = new Random(semente);
+        int[][] soma = new int[JOGADORES + 1][3];
+        largada.await();
+        for (int k = 0; k < ACOES_POR_THREAD; k++) {
+          long jogador = 1 + random.nextInt(JOGADORES);
+          int tipo = random.nextInt(3);
+          transacao.executeWithoutResult(status -> {
+            ContadoresDesempenho contadores = repository.somarDesempenho(PARTIDA, jogador, timeDo(jogador),
+              tipo == 0 ? 1 : 0, tipo == 1 ? 1 : 0, tipo == 2 ? 1 : 0);
+            if (tipo == 0) {
+              boolean timeA = contadores.timeId() == TIME_A;
+              repository.somarPlacar(PARTIDA, timeA ? 1 : 0, timeA ? 0 : 1).orElseThrow();
+            }
+          });
+          soma[(int) jogador][tipo]++;
+        }
+        return soma;
+      }));
+    }
+    largada.countDown();
+    int[][] esperado = new int[JOGADORES + 1][3];
+    for (Future<int[][]> resultado : resultados) {
+      int[][] soma = resultado.get(2, TimeUnit.MINUTES);
+      for (int j = 1; j <= JOGADORES; j++) {
+        for (int tipo = 0; tipo < 3; tipo++) {
+          esperado[j][tipo] += soma[j][tipo];
+        }
+      }
+    }
+    executor.shutdown();
+
+    int golsA = 0;
+    int golsB = 0;
+    for (long j = 1; j <= JOGADORES; j++) {
+      Map<String, Object> linha = jdbcTemplate.queryForMap("SELECT time_id_na_partida, gols, passes, defesas " +
+        "FROM participacao_desempenho WHERE partida_id = ? AND jogador_id = ?", PARTIDA, j);
+      assertEquals(timeDo(j), ((Number) linha.get("time_id_na_partida")).longValue());
+      assertEquals(esperado[(int) j][0], ((Number) linha.get("gols")).intValue());
+      assertEquals(esperado[(int) j][1], ((Number) linha.get("passes")).intValue());
+      assertEquals(esperado[(int) j][2], ((Number) linha.get("defesas")).intValue());
+      if (timeDo(j) == TIME_A) {
+        golsA += esperado[(int) j][0];
+      } else {
+        golsB += esperado[(int) j][0];
+      }
+    }
+    assertEquals(JOGADORES, jdbcTemplate.queryForObject("SELECT count(*) FROM participacao_desempenho", Integer.class));
+    assertEquals(new Placar(golsA, golsB), repository.somarPlacar(PARTIDA, 0, 0).orElseThrow());
+  }
+
+  @Test
+  void descontoNaoDeixaContadorNegativo() {
+    PlacarRepository repository = new PlacarRepository(jdbcTemplate);
+    long jogador = 99;
+
+    assertTrue(repository.descontarDesempenho(PARTIDA, jogador, 1, 0, 0).isEmpty());
+    repository.somarDesempenho(PARTIDA, jogador, TIME_A, 0, 1, 0);
+    assertTrue(repository.descontarDesempenho(PARTIDA, jogador, 1, 0, 0).isEmpty());
+    assertEquals(new ContadoresDesempenho(TIME_A, 0, 0, 0),
+      repository.descontarDesempenho(PARTIDA, jogador, 0, 1, 0).orElseThrow());
+    jdbcTemplate.update("DELETE FROM participacao_desempenho WHERE jogador_id = ?", jogador);
+  }
+}
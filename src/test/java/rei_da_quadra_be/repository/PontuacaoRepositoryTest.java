@@ -0,0 +1,92 @@
+package rei_da_quadra_be.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei_da_quadra_be.enums.NivelHabilidade;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Finalizações concorrentes com jogadores em comum, contra um PostgreSQL de verdade (BancoDeTeste).
+ */
+class PontuacaoRepositoryTest {
+
+  private static final int THREADS = 32;
+  private static final int TRANSACOES_POR_THREAD = 100;
+  private static final int JOGADORES = 20;
+  private static final int POR_TRANSACAO = 6;
+  private static final int PONTOS_INICIAIS = 1000;
+
+  @RegisterExtension
+  static final BancoDeTeste banco = new BancoDeTeste("teste_pontuacao");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void criarTabelas() {
+    jdbcTemplate = banco.jdbcTemplate();
+    jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, pontos_habilidade INTEGER NOT NULL, " +
+      "nivel_habilidade SMALLINT NOT NULL)");
+    for (long id = 1; id <= JOGADORES; id++) {
+      jdbcTemplate.update("INSERT INTO users VALUES (?, ?, 1)", id, PONTOS_INICIAIS);
+    }
+  }
+
+  @Test
+  void incrementosConcorrentesNaoSePerdem() throws Exception {
+    PontuacaoRepository repository = new PontuacaoRepository(jdbcTemplate);
+    TransactionTemplate transacao = banco.transacao();
+
+    //pontos antes de cada incremento, por jogador: com variações positivas, nunca se repetem
+    Map<Long, Set<Integer>> antesPorJogador = new ConcurrentHashMap<>();
+    long[] somaVariacoes = new long[JOGADORES + 1];
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch largada = new CountDownLatch(1);
+    List<Future<long[]>> resultados = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      long semente = t;
+      resultados.add(executor.submit(() -> {
+        Random random = new Random(semente);
+        long[] soma = new long[JOGADORES + 1];
+        largada.await();
+        for (int k = 0; k < TRANSACOES_POR_THREAD; k++) {
+          SortedMap<Long, Integer> variacoes = new TreeMap<>();
+          while (variacoes.size() < POR_TRANSACAO) {
+            variacoes.put(1L + random.nextInt(JOGADORES), 1 + random.nextInt(9));
+          }
+          Map<Long, Integer> depois = transacao.execute(status -> repository.incrementar(variacoes));
+          variacoes.forEach((id, variacao) -> {
+            soma[Math.toIntExact(id)] += variacao;
+            assertTrue(antesPorJogador.computeIfAbsent(id, x -> ConcurrentHashMap.newKeySet())
+              .add(depois.get(id) - variacao), "duas transações partiram da mesma pontuação");
+          });
+        }
+        return soma;
+      }));
+    }
+    largada.countDown();
+    for (Future<long[]> resultado : resultados) {
+      long[] soma = resultado.get(2, TimeUnit.MINUTES);
+      for (int id = 1; id <= JOGADORES; id++) {
+        somaVariacoes[id] += soma[id];
+      }
+    }
+    executor.shutdown();
+
+    for (long id = 1; id <= JOGADORES; id++) {
+      Map<String, Object> linha = jdbcTemplate.queryForMap(
+        "SELECT pontos_habilidade, nivel_habilidade FROM users WHERE id = ?", id);
+      int pontos = ((Number) linha.get("pontos_habilidade")).intValue();
+      assertEquals(PONTOS_INICIAIS + somaVariacoes[(int) id], pontos);
+      assertEquals(NivelHabilidade.dePontos(pontos).ordinal(),
+        ((Number) linha.get("nivel_habilidade")).intValue());
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheEventosProximosTest {
+
+  private CacheEventosProximos cache;
+  private final AtomicInteger buscas = new AtomicInteger();
+  private final Function<CacheEventosProximos.Consulta, List<EventoProximo>> busca = consulta -> {
+    buscas.incrementAndGet();
+    return List.of(new EventoProximo(1, 0, 1.0));
+  };
+
+  @BeforeEach
+  void setUp() {
+    cache = new CacheEventosProximos(true, 0.01, 3600, 100, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void pontosNaMesmaCelulaCompartilhamOResultado() {
+    cache.buscar(-16.68691, -49.26481, 20, null, busca);
+    cache.buscar(-16.68699, -49.26489, 20, null, busca);
+    assertEquals(1, buscas.get());
+
+    cache.buscar(-16.68691, -49.26481, 50, null, busca); //outro limite, outra entrada
+    assertEquals(2, buscas.get());
+  }
+
+  @Test
+  void alteracaoInvalidaSoAsCelulasAoAlcanceDoRaio() {
+    cache.buscar(-16.6869, -49.2648, 20, null, busca); //Goiânia
+    cache.buscar(-3.7319, -38.5267, 20, null, busca);  //Fortaleza
+
+    cache.invalidarAoRedor(-15.7939, -47.8828, 300.0); //Brasília, ~175 km de Goiânia
+
+    cache.buscar(-16.6869, -49.2648, 20, null, busca);
+    cache.buscar(-3.7319, -38.5267, 20, null, busca);
+    assertEquals(3, buscas.get());
+  }
+}
@@ -0,0 +1,233 @@
+package rei_da_quadra_be.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import rei_da_quadra_be.dto.PartidaResponseDTO;
+import rei_da_quadra_be.model.ChaveIdempotencia;
+import rei_da_quadra_be.model.ChaveIdempotenciaId;
+import rei_da_quadra_be.repository.ChaveIdempotenciaRepository;
+import rei_da_quadra_be.service.exception.ChaveIdempotenciaInvalidaException;
+import rei_da_quadra_be.utils.AposCommit;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ComandosIdempotentesTest {
+
+  private static final String ESCOPO = "POST /api/partidas/7/finalizar";
+  private static final long USUARIO = 3L;
+
+  //tabela chave_idempotencia em memória
+  private final Map<ChaveIdempotenciaId, ChaveIdempotencia> tabela = new ConcurrentHashMap<>();
+  //reservas ainda sem commit: invisíveis para findById, como no banco
+  private final Map<ChaveIdempotenciaId, ChaveIdempotencia> reservadas = new ConcurrentHashMap<>();
+  private final AtomicInteger execucoes = new AtomicInteger();
+  private ChaveIdempotenciaRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(ChaveIdempotenciaRepository.class);
+    when(repository.findById(any())).thenAnswer(inv ->
+      Optional.ofNullable(tabela.get(inv.<ChaveIdempotenciaId>getArgument(0))));
+    //ON CONFLICT DO NOTHING; a reserva aparece na tabela no commit e some se a transação for desfeita
+    when(repository.reservar(any(), any(), any(), any())).thenAnswer(inv -> {
+      ChaveIdempotenciaId id = new ChaveIdempotenciaId(inv.getArgument(0), inv.getArgument(1));
+      ChaveIdempotencia registro = new ChaveIdempotencia();
+      registro.setUsuarioId(id.getUsuarioId());
+      registro.setChave(id.getChave());
+      registro.setEscopo(inv.getArgument(2));
+      registro.setStatus(0);
+      if (tabela.containsKey(id) || reservadas.putIfAbsent(id, registro) != null) {
+        return 0;
+      }
+      AposCommit.executar(() -> tabela.put(id, reservadas.remove(id)));
+      AposCommit.seDesfeita(() -> reservadas.remove(id, registro));
+      return 1;
+    });
+    when(repository.gravarResposta(any(), any(), anyInt(), any())).thenAnswer(inv -> {
+      ChaveIdempotencia registro = reservadas.get(new ChaveIdempotenciaId(inv.getArgument(0), inv.getArgument(1)));
+      registro.setStatus(inv.getArgument(2));
+      registro.setCorpo(inv.getArgument(3));
+      return 1;
+    });
+  }
+
+  @Test
+  void repeticaoDevolveARespostaOriginalSemExecutar() {
+    ComandosIdempotentes comandos = novo();
+
+    ResponseEntity<PartidaResponseDTO> primeira = finalizar(comandos, "chave-1");
+    AtomicInteger consultasEvento = new AtomicInteger();
+    ResponseEntity<PartidaResponseDTO> repetida = comandos.executar(USUARIO, "chave-1", ESCOPO, PartidaResponseDTO.class,
+      () -> (long) consultasEvento.incrementAndGet(), this::comando);
+
+    assertEquals(1, execucoes.get());
+    assertEquals(0, consultasEvento.get(), "a repetição não entra na fila do evento");
+    assertEquals(primeira.getBody(), repetida.getBody());
+    assertNull(primeira.getHeaders().getFirst(ComandosIdempotentes.CABECALHO_REPETIDA));
+    assertEquals("true", repetida.getHeaders().getFirst(ComandosIdempotentes.CABECALHO_REPETIDA));
+  }
+
+  @Test
+  void respostaGuardadaNoBancoValeAposReiniciar() {
+    finalizar(novo(), "chave-1");
+
+    ResponseEntity<PartidaResponseDTO> repetida = finalizar(novo(), "chave-1");
+
+    assertEquals(1, execucoes.get());
+    assertEquals(3, repetida.getBody().getTimeAPlacar());
+  }
+
+  @Test
+  void repeticoesSimultaneasExecutamUmaVez() throws Exception {
+    ComandosIdempotentes comandos = novo();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    CountDownLatch largada = new CountDownLatch(1);
+    List<Future<ResponseEntity<PartidaResponseDTO>>> respostas = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      respostas.add(pool.submit(() -> {
+        largada.await();
+        return finalizar(comandos, "chave-1");
+      }));
+    }
+    largada.countDown();
+    for (Future<ResponseEntity<PartidaResponseDTO>> resposta : respostas) {
+      assertEquals(3, resposta.get(10, TimeUnit.SECONDS).getBody().getTimeAPlacar());
+    }
+    pool.shutdown();
+
+    assertEquals(1, execucoes.get());
+  }
+
+  @Test
+  void falhaNaoGuardaNadaERepeticaoExecutaDeNovo() {
+    ComandosIdempotentes comandos = novo();
+    assertThrows(IllegalStateException.class, () -> comandos.executar(USUARIO, "chave-1", ESCOPO, PartidaResponseDTO.class,
+      () -> 1L, () -> {
+        throw new IllegalStateException("banco fora");
+      }));
+    assertTrue(tabela.isEmpty());
+    assertTrue(reservadas.isEmpty());
+
+    finalizar(comandos, "chave-1");
+    assertEquals(1, execucoes.get());
+  }
+
+  @Test
+  void chaveDeOutraRequisicaoERecusada() {
+    ComandosIdempotentes comandos = novo();
+    finalizar(comandos, "chave-1");
+
+    assertThrows(ChaveIdempotenciaInvalidaException.class, () -> comandos.executar(USUARIO, "chave-1",
+      "POST /api/partidas/8/finalizar", PartidaResponseDTO.class, () -> 1L, this::comando));
+    assertThrows(ChaveIdempotenciaInvalidaException.class, () -> finalizar(comandos, " "));
+    assertEquals(1, execucoes.get());
+  }
+
+  @Test
+  void chaveGravadaPorOutraInstanciaNaReservaViraRepeticao() {
+    ComandosIdempotentes comandos = novo();
+    //a outra instância fez commit entre a consulta desta e a reserva
+    ChaveIdempotenciaId id = new ChaveIdempotenciaId(USUARIO, "chave-1");
+    ChaveIdempotencia gravada = new ChaveIdempotencia();
+    gravada.setUsuarioId(USUARIO);
+    gravada.setChave("chave-1");
+    gravada.setEscopo(ESCOPO);
+    gravada.setStatus(200);
+    gravada.setCorpo("{\"id\":7,\"timeAPlacar\":3}");
+    when(repository.findById(id)).thenReturn(Optional.empty()).thenReturn(Optional.empty())
+      .thenAnswer(inv -> Optional.ofNullable(tabela.get(id)));
+    tabela.put(id, gravada);
+
+    ResponseEntity<PartidaResponseDTO> resposta = finalizar(comandos, "chave-1");
+
+    assertEquals(0, execucoes.get());
+    assertEquals(3, resposta.getBody().getTimeAPlacar());
+    assertEquals("true", resposta.getHeaders().getFirst(ComandosIdempotentes.CABECALHO_REPETIDA));
+  }
+
+  @Test
+  void reservaSemRespostaNaoERepetida() {
+    ComandosIdempotentes comandos = novo();
+    //linha reservada sem resposta gravada (status 0) nunca vira repetição
+    ChaveIdempotencia reservada = new ChaveIdempotencia();
+    reservada.setUsuarioId(USUARIO);
+    reservada.setChave("chave-1");
+    reservada.setEscopo(ESCOPO);
+    reservada.setStatus(0);
+    ChaveIdempotenciaId id = new ChaveIdempotenciaId(USUARIO, "chave-1");
+    tabela.put(id, reservada);
+    when(repository.findById(id)).thenReturn(Optional.of(reservada)).thenReturn(Optional.of(reservada))
+      .thenAnswer(inv -> Optional.ofNullable(tabela.get(id)));
+    tabela.remove(id);
+
+    ResponseEntity<PartidaResponseDTO> resposta = finalizar(comandos, "chave-1");
+
+    assertEquals(1, execucoes.get());
+    assertEquals(200, resposta.getStatusCode().value());
+    assertNull(resposta.getHeaders().getFirst(ComandosIdempotentes.CABECALHO_REPETIDA));
+  }
+
+  @Test
+  void mesmaChaveDeOutroUsuarioEOutroComando() {
+    ComandosIdempotentes comandos = novo();
+    finalizar(comandos, "chave-1");
+
+    ResponseEntity<PartidaResponseDTO> outro = comandos.executar(USUARIO + 1, "chave-1", ESCOPO,
+      PartidaResponseDTO.class, () -> 1L, this::comando);
+
+    assertEquals(2, execucoes.get());
+    assertNull(outro.getHeaders().getFirst(ComandosIdempotentes.CABECALHO_REPETIDA));
+  }
+
+  private ResponseEntity<PartidaResponseDTO> finalizar(ComandosIdempotentes comandos, String chave) {
+    return comandos.executar(USUARIO, chave, ESCOPO, PartidaResponseDTO.class, () -> 1L, this::comando);
+  }
+
+  private ResponseEntity<PartidaResponseDTO> comando() {
+    execucoes.incrementAndGet();
+    PartidaResponseDTO dto = new PartidaResponseDTO();
+    dto.setId(7L);
+    dto.setStatus("JOGADA");
+    dto.setTimeAPlacar(3);
+    dto.setTimeBPlacar(1);
+    return ResponseEntity.ok(dto);
+  }
+
+  private ComandosIdempotentes novo() {
+    return new ComandosIdempotentes(new ExecutorComandosEvento(5_000, new SimpleMeterRegistry()), repository,
+      new ObjectMapper(), new TransacaoEmMemoria(), 100, 24, new SimpleMeterRegistry());
+  }
+
+  //sem banco: só o ciclo de vida da transação, para os callbacks de commit e rollback
+  private static class TransacaoEmMemoria extends AbstractPlatformTransactionManager {
+    @Override
+    protected Object doGetTransaction() {
+      return new HashMap<>();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+  }
+}
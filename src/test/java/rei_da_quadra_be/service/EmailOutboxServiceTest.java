@@ -0,0 +1,126 @@
+package rei_da_quadra_be.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei_da_quadra_be.enums.StatusEmail;
+import rei_da_quadra_be.enums.TipoEmail;
+import rei_da_quadra_be.model.EmailPendente;
+import rei_da_quadra_be.repository.EmailPendenteRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxServiceTest {
+
+  // servidor SMTP em memória, no mesmo processo do teste
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+  private EmailPendenteRepository repository;
+  private JavaMailSenderImpl mailSender;
+  private EmailOutboxService outbox;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    repository = mock(EmailPendenteRepository.class);
+
+    mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("127.0.0.1");
+    mailSender.setPort(greenMail.getSmtp().getPort());
+
+    EmailService emailService = new EmailService(mailSender, "contato@reidaquadra.com");
+
+    outbox = new EmailOutboxService();
+    ReflectionTestUtils.setField(outbox, "emailRepository", repository);
+    ReflectionTestUtils.setField(outbox, "emailService", emailService);
+    ReflectionTestUtils.setField(outbox, "tamanhoLote", 50);
+    ReflectionTestUtils.setField(outbox, "maxTentativas", 3);
+    ReflectionTestUtils.setField(outbox, "backoffInicialSegundos", 30L);
+    ReflectionTestUtils.setField(outbox, "reservaSegundos", 600L);
+    ReflectionTestUtils.setField(outbox, "transacao", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+  }
+
+  @Test
+  void enviaOLoteEMarcaComoEnviado() throws Exception {
+    EmailPendente confirmacao = pendente(TipoEmail.CONFIRMACAO_CADASTRO, "ana@teste.com");
+    EmailPendente recuperacao = pendente(TipoEmail.RECUPERACAO_SENHA, "bruno@teste.com");
+    when(repository.buscarLoteParaEnvio(any(), anyInt())).thenReturn(List.of(confirmacao, recuperacao));
+
+    outbox.despacharPendentes();
+
+    MimeMessage[] recebidas = greenMail.getReceivedMessages();
+    assertEquals(2, recebidas.length);
+    assertEquals("Confirme seu cadastro - Rei da Quadra Club", recebidas[0].getSubject());
+    assertEquals("Redefinição de Senha - Rei da Quadra Club", recebidas[1].getSubject());
+    String corpo = (String) recebidas[0].getContent();
+    assertTrue(corpo.contains("Olá, <strong>Jogador</strong>!"));
+    assertTrue(corpo.contains("http://localhost:4200/confirm-email?token=token-123"));
+    assertTrue(corpo.contains("https://i.imgur.com/xX9K3yG.png"));
+
+    assertEquals(StatusEmail.ENVIADO, confirmacao.getStatus());
+    assertEquals(StatusEmail.ENVIADO, recuperacao.getStatus());
+    assertNotNull(confirmacao.getDataEnvio());
+  }
+
+  @Test
+  void reservaOLoteAntesDoEnvioEGravaOResultadoDepois() {
+    EmailPendente email = pendente(TipoEmail.CONFIRMACAO_CADASTRO, "ana@teste.com");
+    when(repository.buscarLoteParaEnvio(any(), anyInt())).thenReturn(List.of(email));
+    List<String> gravacoes = new ArrayList<>();
+    when(repository.saveAll(anyList())).thenAnswer(inv -> {
+      //estado no momento de cada gravação: reserva (antes do SMTP) e resultado (depois)
+      gravacoes.add(email.getStatus() + " " + email.getProximaTentativa().isAfter(LocalDateTime.now().plusSeconds(500))
+        + " " + greenMail.getReceivedMessages().length);
+      return inv.getArgument(0);
+    });
+
+    outbox.despacharPendentes();
+
+    assertEquals(List.of("PENDENTE true 0", "ENVIADO true 1"), gravacoes);
+  }
+
+  @Test
+  void falhaDeConexaoReagendaComBackoffEDepoisDesiste() {
+    mailSender.setPort(1); // nada escutando
+    EmailPendente email = pendente(TipoEmail.CONFIRMACAO_CADASTRO, "ana@teste.com");
+    when(repository.buscarLoteParaEnvio(any(), anyInt())).thenReturn(List.of(email));
+
+    outbox.despacharPendentes();
+
+    assertEquals(StatusEmail.PENDENTE, email.getStatus());
+    assertEquals(1, email.getTentativas());
+    assertTrue(email.getProximaTentativa().isAfter(LocalDateTime.now().plusSeconds(20)));
+    assertNotNull(email.getUltimoErro());
+
+    outbox.despacharPendentes();
+    outbox.despacharPendentes();
+
+    assertEquals(StatusEmail.FALHOU, email.getStatus());
+    assertEquals(3, email.getTentativas());
+  }
+
+  private EmailPendente pendente(TipoEmail tipo, String destinatario) {
+    EmailPendente email = new EmailPendente();
+    email.setTipo(tipo);
+    email.setDestinatario(destinatario);
+    email.setNomeDestinatario("Jogador");
+    email.setToken("token-123");
+    return email;
+  }
+}
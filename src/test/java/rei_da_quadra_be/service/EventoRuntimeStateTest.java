@@ -0,0 +1,84 @@
+package rei_da_quadra_be.service;
+
+import org.junit.jupiter.api.Test;
+import rei_da_quadra_be.enums.StatusTime;
+import rei_da_quadra_be.model.Inscricao;
+import rei_da_quadra_be.model.Time;
+import rei_da_quadra_be.model.User;
+import rei_da_quadra_be.repository.ResumoTime;
+import rei_da_quadra_be.service.exception.TimeDeEsperaNaoConfiguradoException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventoRuntimeStateTest {
+
+  @Test
+  void trocasAtualizamElencosMediasEPartidas() {
+    Time timeA = time(1, false, StatusTime.ATIVO);
+    Time espera = time(2, true, StatusTime.ESPERA);
+    Inscricao a3 = inscricao(3, timeA, 1000, 2);
+    Inscricao a1 = inscricao(1, timeA, 1200, 1); //fora de ordem no fetch
+    Inscricao e2 = inscricao(2, espera, 800, 0);
+
+    EventoRuntimeState estado = EventoRuntimeState.de(List.of(timeA, espera), List.of(1L, 2L), List.of(a1, e2, a3), List.of());
+
+    assertEquals(List.of(a1, a3), estado.elenco(timeA));
+    assertEquals(1100.0, estado.mediaPontos(timeA));
+    assertEquals(3, estado.partidasJogadas(timeA));
+    assertEquals(List.of(timeA), estado.timesAtivos());
+
+    estado.mover(e2, timeA);
+    estado.mover(a3, espera);
+
+    assertEquals(List.of(a1, e2), estado.elenco(timeA));
+    assertEquals(List.of(a3), estado.elenco(espera));
+    assertSame(timeA, e2.getTimeAtual());
+    assertEquals(1000.0, estado.mediaPontos(timeA));
+  }
+
+  @Test
+  void timeVazioTemMediaPadraoEEsperaEObrigatoria() {
+    Time vazio = time(1, false, StatusTime.ATIVO);
+    EventoRuntimeState estado = EventoRuntimeState.de(List.of(vazio), List.of(1L), List.of(), List.of());
+
+    assertEquals(1000.0, estado.mediaPontos(vazio));
+    assertThrows(TimeDeEsperaNaoConfiguradoException.class, estado::timeEspera);
+  }
+
+  @Test
+  void timesSemElencoCarregadoUsamOsTotaisDoBanco() {
+    Time carregado = time(1, false, StatusTime.ATIVO);
+    Time resumido = time(2, false, StatusTime.ATIVO);
+    Inscricao inscricao = inscricao(10, carregado, 1000, 4);
+
+    EventoRuntimeState estado = EventoRuntimeState.de(List.of(carregado, resumido), List.of(1L), List.of(inscricao),
+      List.of(new ResumoTime(1L, 99L, 1L, 1.0), new ResumoTime(2L, 7L, 5L, 1350.0)));
+
+    assertEquals(4, estado.partidasJogadas(carregado)); //o elenco em memória prevalece
+    assertEquals(7, estado.partidasJogadas(resumido));
+    assertEquals(1350.0, estado.mediaPontos(resumido));
+    assertThrows(IllegalStateException.class, () -> estado.elenco(resumido));
+  }
+
+  private static Time time(long id, boolean espera, StatusTime status) {
+    Time time = new Time();
+    time.setId(id);
+    time.setTimeDeEspera(espera);
+    time.setStatus(status);
+    return time;
+  }
+
+  private static Inscricao inscricao(long id, Time time, int pontos, int partidas) {
+    User jogador = new User();
+    jogador.setPontosHabilidade(pontos);
+    Inscricao inscricao = new Inscricao();
+    inscricao.setId(id);
+    inscricao.setJogador(jogador);
+    inscricao.setTimeAtual(time);
+    inscricao.setPartidasJogadas(partidas);
+    time.getInscricoes().add(inscricao);
+    return inscricao;
+  }
+}
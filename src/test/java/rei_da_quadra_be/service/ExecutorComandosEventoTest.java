@@ -0,0 +1,89 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import rei_da_quadra_be.service.exception.EventoOcupadoException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorComandosEventoTest {
+
+  private final ExecutorComandosEvento executor = new ExecutorComandosEvento(5_000, new SimpleMeterRegistry());
+
+  @Test
+  void comandosDoMesmoEventoNuncaSeSobrepoem() throws Exception {
+    AtomicInteger emExecucao = new AtomicInteger();
+    AtomicInteger maximo = new AtomicInteger();
+    int[] contador = {0}; //sem sincronização própria: só a trava do evento protege
+
+    ExecutorService pool = Executors.newFixedThreadPool(16);
+    List<Future<?>> futuros = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      futuros.add(pool.submit(() -> executor.executar(1L, () -> {
+        maximo.accumulateAndGet(emExecucao.incrementAndGet(), Math::max);
+        contador[0]++;
+        emExecucao.decrementAndGet();
+      })));
+    }
+    for (Future<?> futuro : futuros) {
+      futuro.get(10, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+
+    assertEquals(1, maximo.get());
+    assertEquals(400, contador[0]);
+  }
+
+  @Test
+  void eventosDiferentesSeguemEmParalelo() throws Exception {
+    CountDownLatch ambosDentro = new CountDownLatch(2);
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+
+    Future<Boolean> a = pool.submit(() -> executor.executar(1L, () -> aguardar(ambosDentro)));
+    Future<Boolean> b = pool.submit(() -> executor.executar(2L, () -> aguardar(ambosDentro)));
+
+    assertTrue(a.get(5, TimeUnit.SECONDS));
+    assertTrue(b.get(5, TimeUnit.SECONDS));
+    pool.shutdown();
+  }
+
+  @Test
+  void recusaQuandoAVezNaoChegaNoPrazo() throws Exception {
+    ExecutorComandosEvento curto = new ExecutorComandosEvento(50, new SimpleMeterRegistry());
+    CountDownLatch dentro = new CountDownLatch(1);
+    CountDownLatch liberar = new CountDownLatch(1);
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    Future<?> ocupado = pool.submit(() -> curto.executar(1L, () -> {
+      dentro.countDown();
+      try {
+        liberar.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+    dentro.await();
+
+    assertThrows(EventoOcupadoException.class, () -> curto.executar(1L, () -> {}));
+
+    liberar.countDown();
+    ocupado.get(5, TimeUnit.SECONDS);
+    pool.shutdown();
+    assertEquals("ok", curto.executar(1L, () -> "ok")); //a trava foi liberada
+  }
+
+  //só retorna true se a outra thread também chegar: com as duas no mesmo evento, travaria
+  private static boolean aguardar(CountDownLatch latch) {
+    latch.countDown();
+    try {
+      return latch.await(3, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package rei_da_quadra_be.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rei_da_quadra_be.enums.StatusEvento;
+import rei_da_quadra_be.model.Evento;
+import rei_da_quadra_be.repository.EventoRepository;
+import rei_da_quadra_be.utils.GeoUtils;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceGeoEventosTest {
+
+  private static final double LAT = -16.6869;
+  private static final double LON = -49.2648;
+  private static final double RAIO = 300.0;
+
+  private final OffsetDateTime agora = OffsetDateTime.of(2026, 1, 10, 12, 0, 0, 0, ZoneOffset.ofHours(-3));
+  private final List<Evento> eventos = new ArrayList<>();
+  private IndiceGeoEventos indice;
+
+  @BeforeEach
+  void setUp() {
+    Random random = new Random(42);
+    for (long id = 1; id <= 5_000; id++) {
+      //datas em horas cheias para forçar empates e exercitar o desempate por distância
+      eventos.add(evento(id, -22 + random.nextDouble() * 11, -55 + random.nextDouble() * 11,
+        agora.plusHours(random.nextInt(24 * 150))));
+    }
+
+    EventoRepository repository = mock(EventoRepository.class);
+    when(repository.buscarLocalizacoesAtivas(any(), any())).thenAnswer(inv -> eventos.stream()
+      .map(e -> new Object[]{e.getId(), e.getLatitude(), e.getLongitude(), e.getDataHorarioEvento()})
+      .toList());
+
+    indice = new IndiceGeoEventos(repository, true, 0.5, new SimpleMeterRegistry());
+    indice.reconstruir();
+  }
+
+  @Test
+  void buscaIgualAForcaBruta() {
+    assertEquals(forcaBruta(20), ids(primeiraPagina(20)));
+    assertEquals(forcaBruta(500), ids(primeiraPagina(500)));
+  }
+
+  @Test
+  void paginasPorCursorCobremOResultadoSemRepetir() {
+    List<Long> percorridos = new ArrayList<>();
+    List<EventoProximo> pagina = primeiraPagina(7);
+    while (!pagina.isEmpty()) {
+      pagina.forEach(p -> percorridos.add(p.id()));
+      EventoProximo cursor = EventoProximo.deCursor(pagina.get(pagina.size() - 1).paraCursor());
+      pagina = indice.buscar(LAT, LON, RAIO, cursor, agora.plusDays(100), 7);
+    }
+    assertEquals(forcaBruta(Integer.MAX_VALUE), percorridos);
+  }
+
+  @Test
+  void atualizacoesIncrementaisRefletemNaBusca() {
+    Evento primeiro = evento(9_001, LAT, LON, agora.plusMinutes(1));
+    eventos.add(primeiro);
+    indice.atualizar(primeiro);
+    assertEquals(List.of(9_001L), ids(primeiraPagina(1)));
+
+    primeiro.setStatus(StatusEvento.FINALIZADO);
+    eventos.remove(primeiro);
+    indice.atualizar(primeiro);
+    assertEquals(forcaBruta(20), ids(primeiraPagina(20)));
+
+    Long removido = forcaBruta(1).get(0);
+    eventos.removeIf(e -> e.getId().equals(removido));
+    indice.remover(removido);
+    assertEquals(forcaBruta(20), ids(primeiraPagina(20)));
+  }
+
+  private List<EventoProximo> primeiraPagina(int limite) {
+    return indice.buscar(LAT, LON, RAIO, EventoProximo.antesDe(agora), agora.plusDays(100), limite);
+  }
+
+  private static List<Long> ids(List<EventoProximo> posicoes) {
+    return posicoes.stream().map(EventoProximo::id).toList();
+  }
+
+  private List<Long> forcaBruta(int limite) {
+    OffsetDateTime fim = agora.plusDays(100);
+    return eventos.stream()
+      .filter(e -> !e.getDataHorarioEvento().isBefore(agora) && !e.getDataHorarioEvento().isAfter(fim))
+      .filter(e -> distancia(e) <= RAIO)
+      .sorted(Comparator.comparing((Evento e) -> e.getDataHorarioEvento().toInstant())
+        .thenComparingDouble(this::distancia)
+        .thenComparing(Evento::getId))
+      .limit(limite)
+      .map(Evento::getId)
+      .toList();
+  }
+
+  private double distancia(Evento e) {
+    return GeoUtils.distanciaKm(LAT, LON, e.getLatitude(), e.getLongitude());
+  }
+
+  private static Evento evento(long id, double lat, double lon, OffsetDateTime data) {
+    Evento evento = new Evento();
+    evento.setId(id);
+    evento.setLatitude(lat);
+    evento.setLongitude(lon);
+    evento.setDataHorarioEvento(data);
+    evento.setStatus(StatusEvento.ATIVO);
+    return evento;
+  }
+}
@@ -0,0 +1,130 @@
+package rei_da_quadra_be.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rei_da_quadra_be.dto.AcaoJogoDTO;
+import rei_da_quadra_be.enums.StatusPartida;
+import rei_da_quadra_be.enums.TipoAcaoEmJogo;
+import rei_da_quadra_be.model.Partida;
+import rei_da_quadra_be.repository.ParticipacaoDesempenhoRepository;
+import rei_da_quadra_be.repository.PartidaRepository;
+import rei_da_quadra_be.repository.PlacarRepository;
+import rei_da_quadra_be.service.exception.RegraDeNegocioException;
+import rei_da_quadra_be.service.placar.AcaoAoVivo;
+import rei_da_quadra_be.service.placar.GravadorPlacar;
+import rei_da_quadra_be.service.placar.PlacarAoVivo;
+import rei_da_quadra_be.utils.MapaLongLong;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PartidaServiceTest {
+
+  private static final long PARTIDA = 7L;
+
+  private PartidaRepository partidaRepository;
+  private GravadorPlacar gravadorPlacar;
+  private PartidaService service;
+  private Partida partida;
+
+  @BeforeEach
+  void setUp() {
+    partidaRepository = mock(PartidaRepository.class);
+    gravadorPlacar = mock(GravadorPlacar.class);
+    ElencosPartidas elencosPartidas = mock(ElencosPartidas.class);
+
+    partida = new Partida();
+    partida.setStatus(StatusPartida.EM_ANDAMENTO);
+    when(partidaRepository.findById(PARTIDA)).thenReturn(Optional.of(partida));
+    //jogador 10 no time 100, jogador 20 no time 200
+    MapaLongLong elenco = new MapaLongLong(2);
+    elenco.put(10L, 100L);
+    elenco.put(20L, 200L);
+    when(elencosPartidas.elenco(partida)).thenReturn(elenco);
+
+    service = new PartidaService(partidaRepository, mock(ParticipacaoDesempenhoRepository.class),
+      mock(PlacarRepository.class), mock(TimeService.class), mock(EventoService.class), mock(AdmTimesService.class),
+      mock(PlacarAoVivo.class), elencosPartidas, gravadorPlacar,
+      new TransactionTemplate(mock(PlatformTransactionManager.class)));
+  }
+
+  @Test
+  void recusaCadaAcaoInvalidaComOMotivoEAplicaSoAsValidas() {
+    List<AcaoJogoDTO> lote = Arrays.asList(
+      acao(10L, TipoAcaoEmJogo.GOL),
+      null,
+      acao(null, TipoAcaoEmJogo.GOL),
+      acao(20L, null),
+      acao(10L, TipoAcaoEmJogo.VITORIA_ELO),
+      acao(99L, TipoAcaoEmJogo.DEFESA),
+      acao(20L, TipoAcaoEmJogo.ASSISTENCIA));
+
+    PartidaService.ResultadoLote resultado = service.registrarAcoes(PARTIDA, lote);
+
+    //uma posição por ação enviada, na ordem do lote; null = registrada
+    assertEquals(Arrays.asList(
+      null,
+      "Ação sem jogador ou sem tipo.",
+      "Ação sem jogador ou sem tipo.",
+      "Ação sem jogador ou sem tipo.",
+      "Tipo de ação não pode ser registrado durante a partida.",
+      "Jogador não pertence a nenhum dos times desta partida.",
+      null), resultado.recusas());
+
+    ArgumentCaptor<List<AcaoAoVivo>> aplicadas = ArgumentCaptor.captor();
+    verify(gravadorPlacar).aplicar(eq(partida), aplicadas.capture());
+    assertEquals(List.of(
+      new AcaoAoVivo(1, PARTIDA, 10L, 100L, TipoAcaoEmJogo.GOL),
+      new AcaoAoVivo(7, PARTIDA, 20L, 200L, TipoAcaoEmJogo.ASSISTENCIA)), aplicadas.getValue());
+  }
+
+  @Test
+  void loteSemAcaoValidaNaoAplicaNada() {
+    PartidaService.ResultadoLote resultado = service.registrarAcoes(PARTIDA,
+      List.of(acao(99L, TipoAcaoEmJogo.GOL), acao(10L, TipoAcaoEmJogo.DERROTA_ELO)));
+
+    assertEquals(2, resultado.recusas().size());
+    assertTrue(resultado.recusas().stream().allMatch(recusa -> recusa != null));
+    verify(gravadorPlacar, never()).aplicar(any(), anyList());
+  }
+
+  @Test
+  void loteAcimaDoLimiteERecusadoInteiro() {
+    List<AcaoJogoDTO> limite = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      limite.add(acao(10L, TipoAcaoEmJogo.DEFESA));
+    }
+    assertEquals(500, service.registrarAcoes(PARTIDA, limite).recusas().size());
+
+    limite.add(acao(10L, TipoAcaoEmJogo.DEFESA));
+    assertThrows(RegraDeNegocioException.class, () -> service.registrarAcoes(PARTIDA, limite));
+    verify(partidaRepository, times(1)).findById(PARTIDA);
+    verify(gravadorPlacar, times(1)).aplicar(any(), anyList());
+  }
+
+  @Test
+  void partidaForaDeAndamentoRecusaOLote() {
+    partida.setStatus(StatusPartida.JOGADA);
+
+    assertThrows(RegraDeNegocioException.class,
+      () -> service.registrarAcoes(PARTIDA, List.of(acao(10L, TipoAcaoEmJogo.GOL))));
+    verify(gravadorPlacar, never()).aplicar(any(), anyList());
+  }
+
+  private static AcaoJogoDTO acao(Long jogadorId, TipoAcaoEmJogo tipo) {
+    AcaoJogoDTO acao = new AcaoJogoDTO();
+    acao.setJogadorId(jogadorId);
+    acao.setTipoAcao(tipo);
+    return acao;
+  }
+}
@@ -0,0 +1,130 @@
+package rei_da_quadra_be.service.balanceamento;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceadorBuscaLocalTest {
+
+  private static ForkJoinPool pool;
+
+  @BeforeAll
+  static void criarPool() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  static void encerrarPool() {
+    pool.shutdown();
+  }
+
+  //orçamento folgado: os workers param pelo limite de iterações, então a semente decide tudo
+  private BalanceadorBuscaLocal balanceador(long semente) {
+    return new BalanceadorBuscaLocal(pool, 4, 60_000, 20_000, semente);
+  }
+
+  @Test
+  void mantemCraquesEEsperaSemPiorarASerpentina() {
+    Random random = new Random(11);
+    for (int rodada = 0; rodada < 50; rodada++) {
+      int porTime = 2 + random.nextInt(5);
+      int n = porTime * 2 + random.nextInt(80);
+      int[] pontos = new int[n];
+      boolean[] craque = new boolean[n];
+      for (int i = 0; i < n; i++) {
+        pontos[i] = 800 + random.nextInt(1200);
+        craque[i] = random.nextInt(5) == 0;
+      }
+      int numTimes = n / porTime;
+
+      int[] serpentina = DistribuicaoSerpentina.distribuir(pontos, craque, numTimes, porTime).timeDe();
+      int[] otimizado = balanceador(rodada).distribuir(pontos, craque, numTimes, porTime);
+
+      int[] jogadores = new int[numTimes];
+      int[] craquesSerpentina = contarCraques(serpentina, craque, numTimes);
+      int[] craquesOtimizado = contarCraques(otimizado, craque, numTimes);
+      for (int i = 0; i < n; i++) {
+        assertEquals(serpentina[i] == DistribuicaoSerpentina.ESPERA, otimizado[i] == DistribuicaoSerpentina.ESPERA);
+        if (otimizado[i] != DistribuicaoSerpentina.ESPERA) {
+          jogadores[otimizado[i]]++;
+        }
+      }
+      for (int t = 0; t < numTimes; t++) {
+        assertEquals(porTime, jogadores[t]);
+        assertTrue(craquesSerpentina[t] == 0 || craquesOtimizado[t] > 0, "time " + t + " ficou sem craque");
+      }
+      assertTrue(amplitude(otimizado, pontos, numTimes) <= amplitude(serpentina, pontos, numTimes));
+    }
+  }
+
+  @Test
+  void mesmaSementeMesmoResultado() {
+    Random random = new Random(3);
+    int n = 200;
+    int[] pontos = new int[n];
+    boolean[] craque = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      pontos[i] = 500 + random.nextInt(2000);
+      craque[i] = i % 9 == 0;
+    }
+
+    int[] primeiro = balanceador(42).distribuir(pontos, craque, 40, 5);
+    int[] segundo = balanceador(42).distribuir(pontos, craque, 40, 5);
+
+    assertArrayEquals(primeiro, segundo);
+    int[] serpentina = DistribuicaoSerpentina.distribuir(pontos, craque, 40, 5).timeDe();
+    assertTrue(amplitude(primeiro, pontos, 40) < amplitude(serpentina, pontos, 40));
+  }
+
+  @Test
+  void sementeFixaIgnoraOrcamento() {
+    Random random = new Random(5);
+    int n = 120;
+    int[] pontos = new int[n];
+    boolean[] craque = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      pontos[i] = 500 + random.nextInt(2000);
+      craque[i] = i % 7 == 0;
+    }
+
+    //orçamento zerado: sem semente pararia na primeira iteração
+    int[] semOrcamento = new BalanceadorBuscaLocal(pool, 4, 0, 20_000, 42L)
+      .distribuir(pontos, craque, 24, 5);
+
+    assertArrayEquals(balanceador(42).distribuir(pontos, craque, 24, 5), semOrcamento);
+  }
+
+  private static int[] contarCraques(int[] timeDe, boolean[] craque, int numTimes) {
+    int[] craques = new int[numTimes];
+    for (int i = 0; i < timeDe.length; i++) {
+      if (craque[i] && timeDe[i] != DistribuicaoSerpentina.ESPERA) {
+        craques[timeDe[i]]++;
+      }
+    }
+    return craques;
+  }
+
+  private static double amplitude(int[] timeDe, int[] pontos, int numTimes) {
+    long[] soma = new long[numTimes];
+    int[] jogadores = new int[numTimes];
+    for (int i = 0; i < timeDe.length; i++) {
+      if (timeDe[i] != DistribuicaoSerpentina.ESPERA) {
+        soma[timeDe[i]] += pontos[i];
+        jogadores[timeDe[i]]++;
+      }
+    }
+    double maior = Double.NEGATIVE_INFINITY;
+    double menor = Double.POSITIVE_INFINITY;
+    for (int t = 0; t < numTimes; t++) {
+      double media = (double) soma[t] / jogadores[t];
+      maior = Math.max(maior, media);
+      menor = Math.min(menor, media);
+    }
+    return maior - menor;
+  }
+}
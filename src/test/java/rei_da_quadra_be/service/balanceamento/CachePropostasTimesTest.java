@@ -0,0 +1,40 @@
+package rei_da_quadra_be.service.balanceamento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePropostasTimesTest {
+
+  private final CachePropostasTimes cache = new CachePropostasTimes(15, 10, new SimpleMeterRegistry());
+
+  @Test
+  void hashMudaComQualquerEntradaDoBalanceamento() {
+    long[] ids = {1, 2, 3, 4};
+    int[] pontos = {1000, 1200, 900, 1500};
+    boolean[] craque = {false, true, false, false};
+    String hash = CachePropostasTimes.calcularHash(7, 2, ids, pontos, craque);
+
+    assertEquals(hash, CachePropostasTimes.calcularHash(7, 2, ids.clone(), pontos.clone(), craque.clone()));
+    assertNotEquals(hash, CachePropostasTimes.calcularHash(7, 2, ids, new int[]{1000, 1200, 901, 1500}, craque));
+    assertNotEquals(hash, CachePropostasTimes.calcularHash(7, 2, ids, pontos, new boolean[]{false, false, false, false}));
+    assertNotEquals(hash, CachePropostasTimes.calcularHash(7, 2, new long[]{1, 2, 3, 5}, pontos, craque));
+    assertNotEquals(hash, CachePropostasTimes.calcularHash(7, 3, ids, pontos, craque));
+  }
+
+  @Test
+  void propostaECalculadaUmaVezEConsumidaNaConfirmacao() {
+    AtomicInteger calculos = new AtomicInteger();
+    int[] proposta = {0, 1, 1, 0};
+
+    cache.obter(7, "h", () -> { calculos.incrementAndGet(); return proposta; });
+    cache.obter(7, "h", () -> { calculos.incrementAndGet(); return proposta; });
+    assertEquals(1, calculos.get());
+
+    assertSame(proposta, cache.consumir(7, "h"));
+    assertNull(cache.consumir(7, "h"));
+  }
+}
@@ -0,0 +1,92 @@
+package rei_da_quadra_be.service.balanceamento;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DistribuicaoSerpentinaTest {
+
+  @Test
+  void mesmoResultadoDaDistribuicaoOriginal() {
+    Random random = new Random(7);
+    for (int rodada = 0; rodada < 200; rodada++) {
+      int porTime = 2 + random.nextInt(6);
+      int n = porTime * 2 + random.nextInt(120);
+      int[] pontos = new int[n];
+      boolean[] craque = new boolean[n];
+      for (int i = 0; i < n; i++) {
+        pontos[i] = random.nextInt(40) * 100; //valores repetidos para exercitar o desempate
+        craque[i] = random.nextInt(4) == 0;
+      }
+      int numTimes = n / porTime;
+
+      DistribuicaoSerpentina.Resultado resultado = DistribuicaoSerpentina.distribuir(pontos, craque, numTimes, porTime);
+
+      assertArrayEquals(referencia(pontos, craque, numTimes, porTime), resultado.timeDe());
+      for (int t = 0; t < numTimes; t++) {
+        assertEquals(porTime, resultado.jogadores()[t]);
+      }
+    }
+  }
+
+  //o algoritmo como era no AdmTimesService, com filas e contagem por time recalculada a cada passada
+  private static int[] referencia(int[] pontos, boolean[] craque, int numTimes, int maxPorTime) {
+    int n = pontos.length;
+    int[] timeDe = new int[n];
+    Arrays.fill(timeDe, DistribuicaoSerpentina.ESPERA);
+    List<Integer> indices = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      indices.add(i);
+    }
+    Comparator<Integer> porElo = Comparator.comparingInt(i -> -pontos[i]);
+    Queue<Integer> filaCraques = new LinkedList<>(indices.stream().filter(i -> craque[i]).sorted(porElo).toList());
+    Queue<Integer> filaGeral = new LinkedList<>(indices.stream().filter(i -> !craque[i]).sorted(porElo).toList());
+
+    for (int t = 0; t < numTimes; t++) {
+      if (!filaCraques.isEmpty()) {
+        timeDe[filaCraques.poll()] = t;
+      } else if (!filaGeral.isEmpty()) {
+        timeDe[filaGeral.poll()] = t;
+      }
+    }
+    while (!filaCraques.isEmpty()) {
+      List<Integer> temp = new ArrayList<>();
+      temp.add(filaCraques.poll());
+      temp.addAll(filaGeral);
+      filaGeral = new LinkedList<>(temp);
+    }
+
+    boolean ida = true;
+    while (!filaGeral.isEmpty()) {
+      boolean temVaga = false;
+      for (int t = 0; t < numTimes; t++) {
+        temVaga |= contar(timeDe, t) < maxPorTime;
+      }
+      if (!temVaga) {
+        filaGeral.poll();
+        continue;
+      }
+      for (int k = 0; k < numTimes; k++) {
+        int t = ida ? k : numTimes - 1 - k;
+        if (!filaGeral.isEmpty() && contar(timeDe, t) < maxPorTime) {
+          timeDe[filaGeral.poll()] = t;
+        }
+      }
+      ida = !ida;
+    }
+    return timeDe;
+  }
+
+  private static int contar(int[] timeDe, int time) {
+    int total = 0;
+    for (int t : timeDe) {
+      if (t == time) {
+        total++;
+      }
+    }
+    return total;
+  }
+}
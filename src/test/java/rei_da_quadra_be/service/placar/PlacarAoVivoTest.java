@@ -0,0 +1,212 @@
+package rei_da_quadra_be.service.placar;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rei_da_quadra_be.enums.StatusPartida;
+import rei_da_quadra_be.enums.TipoAcaoEmJogo;
+import rei_da_quadra_be.service.ExecutorComandosEvento;
+import rei_da_quadra_be.service.exception.PartidaNaoEncontradaException;
+import rei_da_quadra_be.service.exception.RegraDeNegocioException;
+import rei_da_quadra_be.utils.MapaLongLong;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PlacarAoVivoTest {
+
+  private static final long PARTIDA = 7L;
+
+  @TempDir
+  Path diretorio;
+
+  private final List<List<AcaoAoVivo>> gravados = new ArrayList<>();
+  private GravadorPlacar gravador;
+
+  @BeforeEach
+  void setUp() {
+    gravador = mock(GravadorPlacar.class);
+    when(gravador.carregar(PARTIDA)).thenReturn(
+      new GravadorPlacar.DadosPartida(1L, 100L, 200L, StatusPartida.EM_ANDAMENTO, 0, elenco()));
+    doAnswer(inv -> gravados.add(List.copyOf(inv.getArgument(1)))).when(gravador).gravar(any(), anyList());
+  }
+
+  @Test
+  void confirmaEmMemoriaEGravaEmLote() {
+    PlacarAoVivo placar = novoPlacar();
+    placar.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+    placar.registrar(PARTIDA, 20L, TipoAcaoEmJogo.DEFESA);
+    verify(gravador, never()).gravar(any(), anyList());
+    verify(gravador, times(1)).carregar(PARTIDA);
+    assertEquals(1L, placar.eventoDa(PARTIDA), "o evento sai da memória, para a vez do evento");
+    assertNull(placar.eventoDa(8L));
+
+    placar.gravarPendentes();
+
+    assertEquals(1, gravados.size());
+    assertEquals(List.of(1L, 2L), gravados.get(0).stream().map(AcaoAoVivo::sequencia).toList());
+    assertEquals(200L, gravados.get(0).get(1).timeId());
+    assertEquals(0, tamanhoDiario(), "sem pendências, o diário é esvaziado");
+  }
+
+  @Test
+  void falhaNaGravacaoDevolveOLote() {
+    PlacarAoVivo placar = novoPlacar();
+    placar.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+    doThrow(new IllegalStateException("banco fora")).doAnswer(inv -> gravados.add(List.copyOf(inv.getArgument(1))))
+      .when(gravador).gravar(any(), anyList());
+
+    placar.gravarPendentes();
+    assertTrue(gravados.isEmpty());
+    assertTrue(tamanhoDiario() > 0);
+
+    placar.registrar(PARTIDA, 20L, TipoAcaoEmJogo.ASSISTENCIA);
+    placar.gravarPendentes();
+    assertEquals(List.of(1L, 2L), gravados.get(0).stream().map(AcaoAoVivo::sequencia).toList());
+  }
+
+  @Test
+  void diarioRecuperadoNaSubidaSoComOQueFaltaGravar() {
+    PlacarAoVivo antes = novoPlacar();
+    antes.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+    antes.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+    antes.registrar(PARTIDA, 20L, TipoAcaoEmJogo.FALTA);
+    //queda: nada foi gravado pela instância anterior, mas a ação 1 já estava no banco
+    when(gravador.carregar(PARTIDA)).thenReturn(
+      new GravadorPlacar.DadosPartida(1L, 100L, 200L, StatusPartida.EM_ANDAMENTO, 1, elenco()));
+
+    PlacarAoVivo depois = novoPlacar();
+    depois.recuperarDiario();
+
+    assertEquals(List.of(2L, 3L), gravados.get(0).stream().map(AcaoAoVivo::sequencia).toList());
+    depois.registrar(PARTIDA, 20L, TipoAcaoEmJogo.GOL);
+    depois.gravarPendentes();
+    assertEquals(4L, gravados.get(1).get(0).sequencia());
+  }
+
+  @Test
+  void segmentoGravadoEApagadoMesmoComOutraPartidaPendente() {
+    //lote máximo acima das 100 ações: nenhuma gravação em segundo plano disputa com o teste
+    PlacarAoVivo placar = novoPlacar(1, 30, 1000, new ExecutorComandosEvento(1000, new SimpleMeterRegistry()));
+    when(gravador.carregar(8L)).thenReturn(
+      new GravadorPlacar.DadosPartida(2L, 100L, 200L, StatusPartida.EM_ANDAMENTO, 0, elenco()));
+    doThrow(new IllegalStateException("banco fora")).when(gravador).gravar(any(), anyList());
+    for (int i = 0; i < 100; i++) {
+      placar.registrar(PARTIDA, 10L, TipoAcaoEmJogo.DEFESA);
+    }
+    placar.gravarPendentes();
+    assertTrue(Files.exists(diretorio.resolve("acoes.log.1")), "o diário cheio vira segmento");
+
+    //a partida 8 fica com a ação pendente; a 7 vai toda para o banco
+    placar.registrar(8L, 20L, TipoAcaoEmJogo.GOL);
+    doAnswer(inv -> {
+      if (inv.<Long>getArgument(0) == 8L) {
+        throw new IllegalStateException("banco fora");
+      }
+      return gravados.add(List.copyOf(inv.getArgument(1)));
+    }).when(gravador).gravar(any(), anyList());
+    placar.gravarPendentes();
+
+    assertEquals(100, gravados.stream().mapToInt(List::size).sum());
+    assertFalse(Files.exists(diretorio.resolve("acoes.log.1")));
+    assertTrue(tamanhoDiario() > 0, "a ação da partida 8 continua no diário");
+  }
+
+  @Test
+  void partidaOciosaSaiDaMemoriaEVoltaDoBanco() {
+    PlacarAoVivo placar = novoPlacar(4096, 0);
+    placar.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+    placar.gravarPendentes();
+    when(gravador.carregar(PARTIDA)).thenReturn(
+      new GravadorPlacar.DadosPartida(1L, 100L, 200L, StatusPartida.EM_ANDAMENTO, 1, elenco()));
+
+    placar.registrar(PARTIDA, 20L, TipoAcaoEmJogo.GOL);
+    placar.gravarPendentes();
+
+    verify(gravador, times(2)).carregar(PARTIDA);
+    assertEquals(2L, gravados.get(1).get(0).sequencia());
+  }
+
+  @Test
+  void diarioDePartidaInexistenteOuDeOutrosTimesEIgnorado() {
+    PlacarAoVivo antes = novoPlacar();
+    when(gravador.carregar(8L)).thenReturn(
+      new GravadorPlacar.DadosPartida(2L, 100L, 200L, StatusPartida.EM_ANDAMENTO, 0, elenco()));
+    antes.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+    antes.registrar(8L, 20L, TipoAcaoEmJogo.GOL);
+    //banco recriado: a partida 8 sumiu e o id 7 agora é de uma partida entre outros times
+    when(gravador.carregar(8L)).thenThrow(new PartidaNaoEncontradaException("Partida não encontrada com id: 8"));
+    when(gravador.carregar(PARTIDA)).thenReturn(
+      new GravadorPlacar.DadosPartida(1L, 300L, 400L, StatusPartida.EM_ANDAMENTO, 0, elenco()));
+
+    PlacarAoVivo depois = novoPlacar();
+    depois.recuperarDiario();
+
+    verify(gravador, never()).gravar(any(), anyList());
+    assertEquals(0, tamanhoDiario());
+  }
+
+  @Test
+  void partidaSemPendentesNaoPedeAVezDoEvento() {
+    ExecutorComandosEvento comandosEvento = spy(new ExecutorComandosEvento(1000, new SimpleMeterRegistry()));
+    PlacarAoVivo placar = novoPlacar(4096, 30, 50, comandosEvento);
+    placar.registrar(PARTIDA, 10L, TipoAcaoEmJogo.GOL);
+
+    placar.gravarPendentes();
+    placar.gravarPendentes();
+    placar.gravarPendentes();
+
+    verify(comandosEvento, times(1)).executar(eq(1L), any(Runnable.class));
+    assertEquals(1, gravados.size());
+  }
+
+  @Test
+  void rejeitaJogadorForaDosTimesEAcaoDeElo() {
+    PlacarAoVivo placar = novoPlacar();
+    assertThrows(RegraDeNegocioException.class, () -> placar.registrar(PARTIDA, 99L, TipoAcaoEmJogo.GOL));
+    assertThrows(IllegalArgumentException.class, () -> placar.registrar(PARTIDA, 10L, TipoAcaoEmJogo.VITORIA_ELO));
+  }
+
+  private static MapaLongLong elenco() {
+    MapaLongLong elenco = new MapaLongLong(2);
+    elenco.put(10L, 100L);
+    elenco.put(20L, 200L);
+    return elenco;
+  }
+
+  private PlacarAoVivo novoPlacar() {
+    return novoPlacar(4096, 30);
+  }
+
+  private PlacarAoVivo novoPlacar(long tamanhoSegmentoKb, long ociosaMinutos) {
+    return novoPlacar(tamanhoSegmentoKb, ociosaMinutos, 50, new ExecutorComandosEvento(1000, new SimpleMeterRegistry()));
+  }
+
+  private PlacarAoVivo novoPlacar(long tamanhoSegmentoKb, long ociosaMinutos, int loteMaximo,
+                                  ExecutorComandosEvento comandosEvento) {
+    try {
+      //gravação periódica longe: os testes chamam gravarPendentes quando querem
+      return new PlacarAoVivo(true, diretorio.toString(), false, 60_000, loteMaximo, tamanhoSegmentoKb, ociosaMinutos, gravador,
+        comandosEvento, new SimpleMeterRegistry());
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private long tamanhoDiario() {
+    try {
+      return Files.size(diretorio.resolve("acoes.log"));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package rei_da_quadra_be.service.rodizio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilaRodizioTest {
+
+  private static final long ESPERA = 0;
+
+  @Test
+  void mesmaTrocaDaReferenciaPorOrdenacao() {
+    Random random = new Random(11);
+
+    for (int cenario = 0; cenario < 50; cenario++) {
+      int porTime = 2 + random.nextInt(5);
+      int numTimes = 2 + random.nextInt(4);
+      int n = porTime * numTimes + random.nextInt(3 * porTime);
+
+      //jogador i: inscrição i, jogador 100 + i; valores repetidos para exercitar os desempates
+      long[] timeDe = new long[n];
+      int[] partidas = new int[n];
+      int[] pontos = new int[n];
+      FilaRodizio fila = new FilaRodizio();
+      for (int i = 0; i < n; i++) {
+        timeDe[i] = i < porTime * numTimes ? 1 + i / porTime : ESPERA;
+        partidas[i] = random.nextInt(3);
+        pontos[i] = 1000 + random.nextInt(5) * 100;
+        fila.adicionar(i, 100 + i, timeDe[i], timeDe[i] == ESPERA, partidas[i], pontos[i]);
+      }
+
+      for (int rodada = 0; rodada < 30; rodada++) {
+        long timeA = 1 + random.nextInt(numTimes);
+        long timeB = 1 + (timeA + random.nextInt(numTimes - 1)) % numTimes;
+        long perdedor = random.nextBoolean() ? timeA : timeB;
+
+        for (int i = 0; i < n; i++) {
+          if (timeDe[i] == timeA || timeDe[i] == timeB) {
+            partidas[i]++;
+            pontos[i] += random.nextInt(41) - 20;
+            fila.atualizar(i, partidas[i], pontos[i]);
+          }
+        }
+
+        List<Integer> banco = doTime(timeDe, ESPERA);
+        List<Integer> elenco = doTime(timeDe, perdedor);
+        TrocaPorOrdenacao.Troca esperada = TrocaPorOrdenacao.trocar(
+          paraRodizio(banco, partidas, pontos), paraRodizio(elenco, partidas, pontos), porTime);
+
+        FilaRodizio.Troca troca = fila.planejarTroca(perdedor, porTime);
+
+        assertEquals(ids(esperada.entram(), banco), troca.entram());
+        assertEquals(ids(esperada.saem(), elenco), troca.saem());
+        assertTrue(fila.aplicarTroca(troca, perdedor));
+        troca.entram().forEach(id -> timeDe[Math.toIntExact(id)] = perdedor);
+        troca.saem().forEach(id -> timeDe[Math.toIntExact(id)] = ESPERA);
+      }
+    }
+  }
+
+  @Test
+  void entraQuemJogouMenosESaiQuemJogouMais() {
+    FilaRodizio fila = new FilaRodizio();
+    fila.adicionar(0, 100, ESPERA, true, 3, 1000);
+    fila.adicionar(1, 101, ESPERA, true, 1, 1500);
+    fila.adicionar(2, 102, ESPERA, true, 1, 1200); //empate em partidas: menor Elo primeiro
+    fila.adicionar(3, 103, ESPERA, true, 0, 2000);
+    fila.adicionar(10, 110, 7, false, 2, 1000);
+    fila.adicionar(11, 111, 7, false, 4, 1000);
+    fila.adicionar(12, 112, 7, false, 3, 1000);
+
+    FilaRodizio.Troca troca = fila.planejarTroca(7, 3);
+
+    assertEquals(List.of(3L, 2L, 1L), troca.entram());
+    assertEquals(List.of(11L, 12L, 10L), troca.saem());
+  }
+
+  @Test
+  void bancoMenorQueOTimeFazTrocaParcial() {
+    FilaRodizio fila = new FilaRodizio();
+    fila.adicionar(0, 100, ESPERA, true, 0, 1000);
+    fila.adicionar(10, 110, 7, false, 1, 1000);
+    fila.adicionar(11, 111, 7, false, 2, 1000);
+
+    FilaRodizio.Troca troca = fila.planejarTroca(7, 5);
+
+    assertEquals(List.of(0L), troca.entram());
+    assertEquals(List.of(11L), troca.saem());
+  }
+
+  @Test
+  void planejarNaoAlteraAsFilas() {
+    FilaRodizio fila = new FilaRodizio();
+    fila.adicionar(1, 101, 7, false, 2, 1000);
+    fila.adicionar(2, 102, 7, false, 1, 1000);
+    fila.adicionar(3, 103, 9, true, 0, 1200);
+    fila.adicionar(4, 104, 9, true, 0, 900);
+
+    FilaRodizio.Troca primeira = fila.planejarTroca(7, 1);
+    assertEquals(primeira, fila.planejarTroca(7, 1));
+    assertEquals(List.of(4L), primeira.entram());
+    assertEquals(List.of(1L), primeira.saem());
+
+    fila.atualizarPontos(103, 800); //jogador 103 passa a ter o menor Elo do banco
+    assertEquals(List.of(3L), fila.planejarTroca(7, 1).entram());
+  }
+
+  @Test
+  void trocaDivergenteNaoEAplicada() {
+    FilaRodizio fila = new FilaRodizio();
+    fila.adicionar(1, 101, 7, false, 2, 1000);
+    fila.adicionar(3, 103, 9, true, 0, 1200);
+
+    assertFalse(fila.aplicarTroca(new FilaRodizio.Troca(List.of(1L), List.of(3L)), 7));
+    assertEquals(new FilaRodizio.Troca(List.of(3L), List.of(1L)), fila.planejarTroca(7, 5));
+  }
+
+  private static List<Integer> doTime(long[] timeDe, long time) {
+    List<Integer> indices = new ArrayList<>();
+    for (int i = 0; i < timeDe.length; i++) {
+      if (timeDe[i] == time) {
+        indices.add(i);
+      }
+    }
+    return indices;
+  }
+
+  private static List<TrocaPorOrdenacao.Jogador> paraRodizio(List<Integer> indices, int[] partidas, int[] pontos) {
+    List<TrocaPorOrdenacao.Jogador> jogadores = new ArrayList<>();
+    for (int k = 0; k < indices.size(); k++) {
+      int i = indices.get(k);
+      jogadores.add(new TrocaPorOrdenacao.Jogador(k, partidas[i], pontos[i]));
+    }
+    return jogadores;
+  }
+
+  private static List<Long> ids(List<TrocaPorOrdenacao.Jogador> jogadores, List<Integer> indices) {
+    return jogadores.stream().map(j -> (long) indices.get(j.indice())).toList();
+  }
+}
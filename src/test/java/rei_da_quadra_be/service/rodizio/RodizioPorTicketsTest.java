@@ -0,0 +1,21 @@
+package rei_da_quadra_be.service.rodizio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RodizioPorTicketsTest {
+
+  private final RodizioPorTickets rodizio = new RodizioPorTickets();
+
+  @Test
+  void desafianteEOTimeQueJogouMenosForaOVencedor() {
+    List<TimeRodizio> times = List.of(new TimeRodizio(10, 0), new TimeRodizio(11, 5), new TimeRodizio(12, 0));
+
+    assertEquals(12, rodizio.escolherDesafiante(times, 10L, 11));
+    assertEquals(10, rodizio.escolherDesafiante(times, null, 11)); //empate: o primeiro
+    assertEquals(11, rodizio.escolherDesafiante(List.of(new TimeRodizio(10, 0)), 10L, 11)); //só o vencedor
+  }
+}
@@ -0,0 +1,42 @@
+package rei_da_quadra_be.service.rodizio;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Referência da troca do rodízio com tickets, ordenando as listas inteiras a cada partida (a
+ * implementação original do AdmTimesService). Só para conferir a FilaRodizio nos testes:
+ * - entra quem jogou menos (desempate: menor Elo, depois a ordem recebida);
+ * - sai do time perdedor quem jogou mais, na mesma quantidade de quem entra.
+ */
+final class TrocaPorOrdenacao {
+
+  private static final Comparator<Jogador> QUEM_ENTRA = Comparator
+    .comparingInt(Jogador::partidasJogadas)
+    .thenComparingInt(Jogador::pontos);
+
+  private static final Comparator<Jogador> QUEM_SAI =
+    Comparator.comparingInt(Jogador::partidasJogadas).reversed();
+
+  private TrocaPorOrdenacao() {
+  }
+
+  static Troca trocar(List<Jogador> banco, List<Jogador> timePerdedor, int tamanhoTime) {
+    List<Jogador> entram = banco.stream()
+      .sorted(QUEM_ENTRA)
+      .limit(tamanhoTime)
+      .toList();
+    List<Jogador> saem = timePerdedor.stream()
+      .sorted(QUEM_SAI)
+      .limit(entram.size())
+      .toList();
+    return new Troca(entram, saem);
+  }
+
+  /**
+   * @param indice posição do jogador na lista recebida, devolvida na troca
+   */
+  record Jogador(int indice, int partidasJogadas, int pontos) {}
+
+  record Troca(List<Jogador> entram, List<Jogador> saem) {}
+}
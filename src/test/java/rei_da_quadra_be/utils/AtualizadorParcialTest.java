@@ -0,0 +1,66 @@
+package rei_da_quadra_be.utils;
+
+import org.junit.jupiter.api.Test;
+import rei_da_quadra_be.enums.StatusEvento;
+import rei_da_quadra_be.model.Evento;
+import rei_da_quadra_be.model.Time;
+import rei_da_quadra_be.service.exception.CampoInvalidoException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtualizadorParcialTest {
+
+  private final AtualizadorParcial<Evento> atualizador = AtualizadorParcial.para(Evento.class,
+    "dataHorarioEvento", "nome", "latitude", "jogadoresPorTime", "status");
+
+  @Test
+  void converteOsValoresNoFormatoDoJson() {
+    Evento evento = new Evento();
+
+    atualizador.aplicar(evento, Map.of(
+      "dataHorarioEvento", "2026-03-01T19:30:00",
+      "nome", "Racha de sábado",
+      "latitude", 10,              //inteiro no JSON, campo Double
+      "jogadoresPorTime", 5.0,     //decimal sem fração, campo Integer
+      "status", "finalizado"));
+
+    assertEquals(OffsetDateTime.of(2026, 3, 1, 19, 30, 0, 0, ZoneOffset.ofHours(-3)), evento.getDataHorarioEvento());
+    assertEquals("Racha de sábado", evento.getNome());
+    assertEquals(10.0, evento.getLatitude());
+    assertEquals(5, evento.getJogadoresPorTime());
+    assertEquals(StatusEvento.FINALIZADO, evento.getStatus());
+  }
+
+  @Test
+  void rejeitaOPatchInteiroSemAlterarAEntidade() {
+    Evento evento = new Evento();
+    evento.setNome("Original");
+
+    Map<String, Object> patch = new HashMap<>();
+    patch.put("nome", "Novo");
+    patch.put("id", 99);
+    patch.put("naoExiste", true);
+    patch.put("jogadoresPorTime", 4.5);
+    patch.put("status", null);
+
+    CampoInvalidoException erro = assertThrows(CampoInvalidoException.class, () -> atualizador.aplicar(evento, patch));
+    assertTrue(erro.getMessage().contains("'id' não pode ser alterado"));
+    assertTrue(erro.getMessage().contains("'naoExiste' não existe"));
+    assertTrue(erro.getMessage().contains("'jogadoresPorTime'"));
+    assertTrue(erro.getMessage().contains("'status' é obrigatório"));
+    assertEquals("Original", evento.getNome());
+  }
+
+  @Test
+  void serveParaOutrasEntidades() {
+    Time time = new Time();
+    AtualizadorParcial.para(Time.class, "nome", "cor").aplicar(time, Map.of("nome", "Azul", "cor", "#0000FF"));
+    assertEquals("Azul", time.getNome());
+    assertEquals("#0000FF", time.getCor());
+  }
+}
@@ -0,0 +1,39 @@
+package rei_da_quadra_be.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+  @Test
+  void cargaIniciadaAntesDaInvalidacaoNaoEGuardada() {
+    LruCache<String, String> cache = new LruCache<>(10, Duration.ofMinutes(5));
+
+    //a invalidação (commit de outra transação) acontece enquanto o loader lê a linha antiga
+    String lido = cache.get("a", chave -> {
+      cache.invalidar("a");
+      return "antigo";
+    });
+
+    assertEquals("antigo", lido);
+    assertNull(cache.get("a"));
+    assertEquals("novo", cache.get("a", chave -> "novo"));
+    assertEquals("novo", cache.get("a"));
+  }
+
+  @Test
+  void descartaAMenosUsadaAcimaDaCapacidade() {
+    LruCache<Integer, Integer> cache = new LruCache<>(2, Duration.ofMinutes(5));
+    cache.put(1, 1);
+    cache.put(2, 2);
+    cache.get(1);
+    cache.put(3, 3);
+
+    assertEquals(1, cache.get(1));
+    assertNull(cache.get(2));
+    assertEquals(3, cache.get(3));
+  }
+}
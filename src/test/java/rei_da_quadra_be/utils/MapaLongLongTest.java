@@ -0,0 +1,31 @@
+package rei_da_quadra_be.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaLongLongTest {
+
+  @Test
+  void mesmoConteudoDeUmHashMap() {
+    Random random = new Random(3);
+    MapaLongLong mapa = new MapaLongLong(2); //força vários crescimentos
+    Map<Long, Long> referencia = new HashMap<>();
+    for (int i = 0; i < 20_000; i++) {
+      long chave = random.nextInt(5_000) - 100; //inclui zero e negativos
+      long valor = random.nextLong();
+      mapa.put(chave, valor);
+      referencia.put(chave, valor);
+    }
+
+    assertEquals(referencia.size(), mapa.tamanho());
+    for (long chave = -200; chave < 5_200; chave++) {
+      assertEquals(referencia.containsKey(chave), mapa.contem(chave));
+      assertEquals(referencia.getOrDefault(chave, -1L), mapa.get(chave, -1L));
+    }
+  }
+}